@@ -0,0 +1,90 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.data.Plateau;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mesure du débit des recherches point à point pondérées par la longueur des routes :
+ * {@link Graphe#parcoursSansRepetition(int, int, boolean)} (Dijkstra) comparé à A* guidé par des repères, simple et
+ * bidirectionnel (voir {@link Reperes}), sur le plateau monde puis sur des plateaux générés (grilles dont on a retiré
+ * une partie des arêtes, pour imiter un plateau en cours de partie).
+ */
+public class AppReperes {
+    private static final int NB_REQUETES = 200_000;
+
+    public static void main(String[] args) {
+        Graphe monde = Plateau.makePlateauMonde().getGraphe();
+        mesurer("plateau monde", monde);
+        for (int cote : new int[]{30, 100, 300}) {
+            mesurer("grille " + cote + "x" + cote, grille(cote, new Random(cote)));
+        }
+    }
+
+    /**
+     * @return une grille de cote x cote sommets dont environ 15 % des arêtes ont été retirées
+     */
+    private static Graphe grille(int cote, Random random) {
+        Graphe g = new Graphe();
+        for (int v = 0; v < cote * cote; v++) {
+            g.ajouterSommet(v);
+            if (v % cote != cote - 1 && random.nextInt(100) >= 15) {
+                g.ajouterArete(new Arete(v, v + 1));
+            }
+            if (v + cote < cote * cote && random.nextInt(100) >= 15) {
+                g.ajouterArete(new Arete(v, v + cote));
+            }
+        }
+        return g;
+    }
+
+    private static void mesurer(String nom, Graphe g) {
+        long debut = System.nanoTime();
+        Reperes reperes = new Reperes(g.getGrapheCompact(), Ponderation.LONGUEUR);
+        long preparation = System.nanoTime() - debut;
+        List<Integer> sommets = new ArrayList<>(g.ensembleSommets());
+        Random random = new Random(1);
+        int nbRequetes = Math.max(1000, NB_REQUETES / Math.max(1, sommets.size() / 50));
+        int[] departs = new int[nbRequetes];
+        int[] arrivees = new int[nbRequetes];
+        for (int k = 0; k < nbRequetes; k++) {
+            departs[k] = sommets.get(random.nextInt(sommets.size()));
+            arrivees[k] = sommets.get(random.nextInt(sommets.size()));
+        }
+        System.out.printf("%s : %d sommets, %d arêtes, %d repères calculés en %.1f ms%n", nom, g.nbSommets(),
+                g.nbAretes(), reperes.nbReperes(), preparation / 1e6);
+        // deux passes : la première sert de préchauffage
+        for (int passe = 0; passe < 2; passe++) {
+            long total = 0;
+            debut = System.nanoTime();
+            for (int k = 0; k < nbRequetes; k++) {
+                total += g.parcoursSansRepetition(departs[k], arrivees[k], true).size();
+            }
+            afficher(passe, "parcoursSansRepetition", nbRequetes, debut, total);
+            total = 0;
+            debut = System.nanoTime();
+            for (int k = 0; k < nbRequetes; k++) {
+                Chemin c = reperes.plusCourtChemin(departs[k], arrivees[k]);
+                total += c == null ? 0 : c.sommets().size();
+            }
+            afficher(passe, "A* avec repères", nbRequetes, debut, total);
+            total = 0;
+            debut = System.nanoTime();
+            for (int k = 0; k < nbRequetes; k++) {
+                Chemin c = reperes.plusCourtCheminBidirectionnel(departs[k], arrivees[k]);
+                total += c == null ? 0 : c.sommets().size();
+            }
+            afficher(passe, "A* bidirectionnel avec repères", nbRequetes, debut, total);
+        }
+    }
+
+    private static void afficher(int passe, String methode, int nbRequetes, long debut, long total) {
+        if (passe > 0) {
+            double secondes = (System.nanoTime() - debut) / 1e9;
+            System.out.printf("  %-34s %10.0f requêtes/s (%d sommets parcourus)%n", methode,
+                    nbRequetes / secondes, total);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Forêts couvrantes de poids minimal : pour chaque composante connexe du graphe, un arbre qui relie tous ses
+ * sommets avec un poids total minimal.
+ * <p>
+ * Deux algorithmes sont proposés. Kruskal trie les arêtes (sous forme d'entiers longs poids/numéro, sans créer
+ * d'objets) et garde celles qui relient deux classes différentes d'un {@link UnionFind}, en O(E log E). Prim fait
+ * grossir un arbre depuis chaque sommet non encore couvert avec un {@link TasIndexe}, en O(E log V). Les deux
+ * donnent une forêt de même poids (la même si les poids sont deux à deux distincts).
+ * <p>
+ * La forêt des terminaux part de la forêt couvrante minimale et n'en garde que les arêtes qui séparent deux
+ * terminaux d'un même groupe, ce qui revient à élaguer récursivement les branches sans terminal. C'est une
+ * heuristique rapide (en O(E log E + k V) pour k groupes) pour relier plusieurs groupes de sommets à la fois ;
+ * pour un seul groupe, {@link ArbreSteiner} donne un arbre plus léger.
+ */
+public final class ArbreCouvrant {
+    private ArbreCouvrant() {
+    }
+
+    /**
+     * Calcule une forêt couvrante minimale par l'algorithme de Kruskal.
+     *
+     * @param g           le graphe
+     * @param ponderation le poids des arêtes
+     * @return les arêtes de la forêt (V - C arêtes, où C est le nombre de composantes connexes), par poids
+     * croissant
+     */
+    public static List<Arete> kruskal(GrapheCompact g, Ponderation ponderation) {
+        return kruskal(g, null, ponderation);
+    }
+
+    /**
+     * Comme {@link #kruskal(GrapheCompact, Ponderation)}, en n'utilisant que les arêtes dont le numéro est dans le
+     * masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static List<Arete> kruskal(GrapheCompact g, long[] masque, Ponderation ponderation) {
+        long[] cles = new long[g.nbAretes()];
+        int nbCles = 0;
+        for (int e = 0; e < g.nbAretes(); e++) {
+            Arete a = g.arete(e);
+            if (a.i() != a.j() && Dijkstra.contient(masque, e)) {
+                cles[nbCles++] = (long) ponderation.poids(a) << 32 | e;
+            }
+        }
+        Arrays.sort(cles, 0, nbCles);
+        int n = g.nbSommets();
+        UnionFind classes = new UnionFind(n);
+        List<Arete> foret = new ArrayList<>();
+        for (int k = 0; k < nbCles && foret.size() < n - 1; k++) {
+            Arete a = g.arete((int) cles[k]);
+            if (classes.unir(g.indice(a.i()), g.indice(a.j()))) {
+                foret.add(a);
+            }
+        }
+        return foret;
+    }
+
+    /**
+     * Calcule une forêt couvrante minimale par l'algorithme de Prim, relancé depuis chaque sommet qui n'est pas
+     * encore couvert.
+     *
+     * @param g           le graphe
+     * @param ponderation le poids des arêtes
+     * @return les arêtes de la forêt, arbre par arbre dans l'ordre où elles y sont entrées
+     */
+    public static List<Arete> prim(GrapheCompact g, Ponderation ponderation) {
+        return prim(g, null, ponderation);
+    }
+
+    /**
+     * Comme {@link #prim(GrapheCompact, Ponderation)}, en n'utilisant que les arêtes dont le numéro est dans le
+     * masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static List<Arete> prim(GrapheCompact g, long[] masque, Ponderation ponderation) {
+        int n = g.nbSommets();
+        boolean[] couverts = new boolean[n];
+        // aretes[v] est le numéro de l'arête la plus légère qui relie v à l'arbre en cours
+        int[] aretes = new int[n];
+        TasIndexe tas = new TasIndexe(n);
+        List<Arete> foret = new ArrayList<>();
+        for (int racine = 0; racine < n; racine++) {
+            if (couverts[racine]) {
+                continue;
+            }
+            aretes[racine] = -1;
+            tas.insererOuDiminuer(racine, 0);
+            while (!tas.estVide()) {
+                int u = tas.extraireMin();
+                couverts[u] = true;
+                if (aretes[u] >= 0) {
+                    foret.add(g.arete(aretes[u]));
+                }
+                for (int h = g.debut(u); h < g.fin(u); h++) {
+                    int v = g.cible(h);
+                    int e = g.numeroArete(h);
+                    if (couverts[v] || !Dijkstra.contient(masque, e)) {
+                        continue;
+                    }
+                    int poids = ponderation.poids(g.arete(e));
+                    if (!tas.contient(v) || poids < tas.priorite(v)) {
+                        aretes[v] = e;
+                        tas.insererOuDiminuer(v, poids);
+                    }
+                }
+            }
+        }
+        return foret;
+    }
+
+    /**
+     * Calcule une forêt qui relie entre eux les sommets de chaque groupe : les arêtes de la forêt couvrante minimale
+     * qui séparent deux sommets d'un même groupe.
+     *
+     * @param g           le graphe
+     * @param groupes     les groupes de sommets à relier (par exemple les villes de chaque destination) ; les
+     *                    sommets absents du graphe sont ignorés
+     * @param ponderation le poids des arêtes
+     * @return les arêtes de la forêt. Deux sommets d'un même groupe y sont reliés ssi ils le sont dans g, et chaque
+     * feuille de la forêt appartient à un groupe.
+     */
+    public static List<Arete> foretTerminaux(GrapheCompact g, Collection<? extends Collection<Integer>> groupes,
+                                             Ponderation ponderation) {
+        return foretTerminaux(g, null, groupes, ponderation);
+    }
+
+    /**
+     * Comme {@link #foretTerminaux(GrapheCompact, Collection, Ponderation)}, en n'utilisant que les arêtes dont le
+     * numéro est dans le masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static List<Arete> foretTerminaux(GrapheCompact g, long[] masque, Collection<? extends Collection<Integer>> groupes,
+                                      Ponderation ponderation) {
+        int n = g.nbSommets();
+        List<Arete> foret = kruskal(g, masque, ponderation);
+        // listes d'adjacence de la forêt : premieres[u], puis suivantes[x], sont des demi-arêtes x de u vers
+        // cibles[x], de numéro x / 2 dans la forêt
+        int[] premieres = new int[n];
+        Arrays.fill(premieres, -1);
+        int[] suivantes = new int[2 * foret.size()];
+        int[] cibles = new int[2 * foret.size()];
+        for (int k = 0; k < foret.size(); k++) {
+            int u = g.indice(foret.get(k).i());
+            int v = g.indice(foret.get(k).j());
+            cibles[2 * k] = v;
+            suivantes[2 * k] = premieres[u];
+            premieres[u] = 2 * k;
+            cibles[2 * k + 1] = u;
+            suivantes[2 * k + 1] = premieres[v];
+            premieres[v] = 2 * k + 1;
+        }
+        // chaque arbre est enraciné, et ses sommets rangés par parcours en largeur (un père avant ses fils)
+        int[] ordre = new int[n];
+        int[] racines = new int[n];
+        int[] peres = new int[n];
+        int[] aretesPeres = new int[n];
+        Arrays.fill(racines, -1);
+        int nbRanges = 0;
+        for (int r = 0; r < n; r++) {
+            if (racines[r] >= 0) {
+                continue;
+            }
+            racines[r] = r;
+            peres[r] = -1;
+            ordre[nbRanges++] = r;
+            for (int k = nbRanges - 1; k < nbRanges; k++) {
+                int u = ordre[k];
+                for (int x = premieres[u]; x >= 0; x = suivantes[x]) {
+                    int v = cibles[x];
+                    if (racines[v] < 0) {
+                        racines[v] = r;
+                        peres[v] = u;
+                        aretesPeres[v] = x / 2;
+                        ordre[nbRanges++] = v;
+                    }
+                }
+            }
+        }
+        // l'arête qui relie v à son père est gardée ssi le sous-arbre de v contient une partie (non vide et
+        // stricte) des terminaux d'un groupe situés dans l'arbre de v
+        boolean[] gardees = new boolean[foret.size()];
+        int[] nbSousArbre = new int[n];
+        int[] nbArbre = new int[n];
+        for (Collection<Integer> groupe : groupes) {
+            int[] terminaux = new LinkedHashSet<>(groupe).stream().mapToInt(g::indice).filter(t -> t >= 0)
+                    .toArray();
+            if (terminaux.length < 2) {
+                continue;
+            }
+            for (int t : terminaux) {
+                nbSousArbre[t]++;
+                nbArbre[racines[t]]++;
+            }
+            for (int k = n - 1; k >= 0; k--) {
+                int v = ordre[k];
+                if (peres[v] >= 0 && nbSousArbre[v] > 0) {
+                    if (nbSousArbre[v] < nbArbre[racines[v]]) {
+                        gardees[aretesPeres[v]] = true;
+                    }
+                    nbSousArbre[peres[v]] += nbSousArbre[v];
+                }
+                nbSousArbre[v] = 0;
+            }
+            for (int t : terminaux) {
+                nbArbre[racines[t]] = 0;
+            }
+        }
+        List<Arete> resultat = new ArrayList<>();
+        for (int k = 0; k < foret.size(); k++) {
+            if (gardees[k]) {
+                resultat.add(foret.get(k));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * @return les routes des arêtes, sans doublon et dans l'ordre des arêtes (les arêtes sans route sont ignorées)
+     */
+    public static Set<Route> routes(Collection<Arete> aretes) {
+        Set<Route> routes = new LinkedHashSet<>();
+        for (Arete a : aretes) {
+            if (a.route() != null) {
+                routes.add(a.route());
+            }
+        }
+        return routes;
+    }
+}
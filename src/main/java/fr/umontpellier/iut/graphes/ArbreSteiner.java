@@ -0,0 +1,258 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Arbre de Steiner : ensemble d'arêtes de poids total minimal qui relie un ensemble de sommets donnés (les
+ * terminaux), en passant éventuellement par d'autres sommets.
+ * <p>
+ * Jusqu'à {@link #NB_TERMINAUX_EXACT} terminaux, l'arbre optimal est calculé par programmation dynamique
+ * (Dreyfus–Wagner, dans la variante où chaque sous-ensemble de terminaux est propagé par un Dijkstra multi-source),
+ * en O(3^k |V| + 2^k |E| log |V|). Au-delà, on utilise la 2-approximation classique : arbre couvrant minimal de la
+ * clôture métrique des terminaux, dont chaque arête est remplacée par un plus court chemin, puis arbre couvrant
+ * minimal du sous-graphe obtenu et élagage des feuilles qui ne sont pas des terminaux.
+ */
+public final class ArbreSteiner {
+    /**
+     * Nombre maximal de terminaux pour lequel l'arbre est calculé exactement
+     */
+    public static final int NB_TERMINAUX_EXACT = 8;
+
+    private ArbreSteiner() {
+    }
+
+    /**
+     * Calcule un arbre de Steiner (optimal jusqu'à {@link #NB_TERMINAUX_EXACT} terminaux, de poids au plus double de
+     * l'optimal au-delà).
+     *
+     * @param g           le graphe
+     * @param terminaux   les identifiants des sommets à relier
+     * @param ponderation le poids des arêtes
+     * @return les arêtes de l'arbre (vide s'il y a moins de deux terminaux distincts), ou null si l'un des
+     * terminaux n'est pas un sommet de g ou si les terminaux ne sont pas tous dans la même composante connexe
+     */
+    public static List<Arete> calculer(GrapheCompact g, Collection<Integer> terminaux, Ponderation ponderation) {
+        return calculer(g, null, terminaux, ponderation);
+    }
+
+    /**
+     * Comme {@link #calculer(GrapheCompact, Collection, Ponderation)}, en n'utilisant que les arêtes dont le numéro
+     * est dans le masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static List<Arete> calculer(GrapheCompact g, long[] masque, Collection<Integer> terminaux,
+                                Ponderation ponderation) {
+        int[] indices = new LinkedHashSet<>(terminaux).stream().mapToInt(g::indice).toArray();
+        for (int t : indices) {
+            if (t < 0) {
+                return null;
+            }
+        }
+        if (indices.length < 2) {
+            return new ArrayList<>();
+        }
+        if (indices.length == 2) {
+            Chemin chemin = Dijkstra.plusCourtChemin(g, masque, g.identifiant(indices[0]),
+                    g.identifiant(indices[1]), ponderation);
+            return chemin == null ? null : new ArrayList<>(chemin.aretes());
+        }
+        if (indices.length <= NB_TERMINAUX_EXACT) {
+            return dreyfusWagner(g, masque, indices, ponderation);
+        }
+        return approximation(g, masque, indices, ponderation);
+    }
+
+    /**
+     * Programmation dynamique de Dreyfus–Wagner : couts[S][v] est le poids minimal d'un arbre qui relie les
+     * terminaux de S et le sommet v.
+     */
+    static List<Arete> dreyfusWagner(GrapheCompact g, long[] masque, int[] terminaux, Ponderation ponderation) {
+        int n = g.nbSommets();
+        int k = terminaux.length;
+        int nbParties = 1 << k;
+        int[][] couts = new int[nbParties][];
+        // origine de couts[S][v] : -1 pour un terminal seul, -2 - A pour la fusion en v de A et S\A,
+        // h >= 0 pour la demi-arête h par laquelle v est atteint
+        int[][] origines = new int[nbParties][];
+        TasIndexe tas = new TasIndexe(n);
+        for (int partie = 1; partie < nbParties; partie++) {
+            int[] cout = new int[n];
+            int[] origine = new int[n];
+            Arrays.fill(cout, Dijkstra.INFINI);
+            couts[partie] = cout;
+            origines[partie] = origine;
+            if (Integer.bitCount(partie) == 1) {
+                int t = terminaux[Integer.numberOfTrailingZeros(partie)];
+                cout[t] = 0;
+                origine[t] = -1;
+            } else {
+                // fusion en v de deux arbres (on ne considère que les sous-parties contenant le plus petit
+                // terminal de la partie, l'autre moitié étant symétrique)
+                int bas = partie & -partie;
+                for (int a = (partie - 1) & partie; a > 0; a = (a - 1) & partie) {
+                    if ((a & bas) == 0) {
+                        continue;
+                    }
+                    int[] coutA = couts[a];
+                    int[] coutB = couts[partie ^ a];
+                    for (int v = 0; v < n; v++) {
+                        if (coutA[v] != Dijkstra.INFINI && coutB[v] != Dijkstra.INFINI
+                                && coutA[v] + coutB[v] < cout[v]) {
+                            cout[v] = coutA[v] + coutB[v];
+                            origine[v] = -2 - a;
+                        }
+                    }
+                }
+            }
+            // propagation le long des arêtes : Dijkstra dont toutes les valeurs finies sont des sources
+            for (int v = 0; v < n; v++) {
+                if (cout[v] != Dijkstra.INFINI) {
+                    tas.insererOuDiminuer(v, cout[v]);
+                }
+            }
+            if (tas.estVide()) {
+                return null;
+            }
+            while (!tas.estVide()) {
+                int u = tas.extraireMin();
+                for (int h = g.debut(u); h < g.fin(u); h++) {
+                    if (!Dijkstra.contient(masque, g.numeroArete(h))) {
+                        continue;
+                    }
+                    int v = g.cible(h);
+                    int d = cout[u] + ponderation.poids(g.arete(g.numeroArete(h)));
+                    if (d < cout[v]) {
+                        cout[v] = d;
+                        origine[v] = h;
+                        tas.insererOuDiminuer(v, d);
+                    }
+                }
+            }
+        }
+        int racine = terminaux[0];
+        if (couts[nbParties - 1][racine] == Dijkstra.INFINI) {
+            return null;
+        }
+        // reconstruction de l'arbre à partir des origines
+        Set<Arete> aretes = new LinkedHashSet<>();
+        Deque<int[]> aTraiter = new ArrayDeque<>();
+        aTraiter.push(new int[]{nbParties - 1, racine});
+        while (!aTraiter.isEmpty()) {
+            int[] etat = aTraiter.pop();
+            int partie = etat[0];
+            int v = etat[1];
+            int origine = origines[partie][v];
+            if (origine >= 0) {
+                aretes.add(g.arete(g.numeroArete(origine)));
+                aTraiter.push(new int[]{partie, autreExtremite(g, origine, v)});
+            } else if (origine <= -2) {
+                int a = -2 - origine;
+                aTraiter.push(new int[]{a, v});
+                aTraiter.push(new int[]{partie ^ a, v});
+            }
+        }
+        return new ArrayList<>(aretes);
+    }
+
+    /**
+     * @return l'indice de l'extrémité de la demi-arête h qui n'est pas v (la demi-arête h est rangée dans la liste
+     * de cette extrémité et pointe vers v)
+     */
+    private static int autreExtremite(GrapheCompact g, int h, int v) {
+        Arete a = g.arete(g.numeroArete(h));
+        return g.indice(a.getAutreSommet(g.identifiant(v)));
+    }
+
+    /**
+     * 2-approximation par la clôture métrique des terminaux
+     */
+    static List<Arete> approximation(GrapheCompact g, long[] masque, int[] terminaux, Ponderation ponderation) {
+        int k = terminaux.length;
+        int[][] distances = new int[k][k];
+        Chemin[][] chemins = new Chemin[k][k];
+        Dijkstra.Espace e = Dijkstra.espace();
+        for (int i = 0; i < k; i++) {
+            Dijkstra.executer(g, masque, terminaux[i], -1, ponderation, e);
+            for (int j = 0; j < k; j++) {
+                if (!e.atteint(terminaux[j])) {
+                    return null;
+                }
+                distances[i][j] = e.distance(terminaux[j]);
+                if (j > i) {
+                    chemins[i][j] = Dijkstra.chemin(g, e, terminaux[j]);
+                }
+            }
+        }
+        // Prim sur la clôture métrique (graphe complet sur les terminaux)
+        Set<Arete> union = new HashSet<>();
+        boolean[] dansArbre = new boolean[k];
+        int[] meilleures = new int[k];
+        int[] liens = new int[k];
+        Arrays.fill(meilleures, Dijkstra.INFINI);
+        meilleures[0] = 0;
+        liens[0] = -1;
+        for (int etape = 0; etape < k; etape++) {
+            int i = -1;
+            for (int j = 0; j < k; j++) {
+                if (!dansArbre[j] && (i == -1 || meilleures[j] < meilleures[i])) {
+                    i = j;
+                }
+            }
+            dansArbre[i] = true;
+            if (liens[i] != -1) {
+                union.addAll(chemins[Math.min(i, liens[i])][Math.max(i, liens[i])].aretes());
+            }
+            for (int j = 0; j < k; j++) {
+                if (!dansArbre[j] && distances[i][j] < meilleures[j]) {
+                    meilleures[j] = distances[i][j];
+                    liens[j] = i;
+                }
+            }
+        }
+        return elaguer(g, union, terminaux, ponderation);
+    }
+
+    /**
+     * Remplace un ensemble d'arêtes connexe par un de ses arbres couvrants minimaux (Kruskal), puis retire
+     * récursivement les feuilles qui ne sont pas des terminaux.
+     */
+    private static List<Arete> elaguer(GrapheCompact g, Set<Arete> aretes, int[] terminaux, Ponderation ponderation) {
+        List<Arete> triees = new ArrayList<>(aretes);
+        triees.sort(Comparator.comparingInt(ponderation::poids));
+        UnionFind classes = new UnionFind(g.nbSommets());
+        Map<Integer, List<Arete>> incidentes = new HashMap<>();
+        for (Arete a : triees) {
+            if (classes.unir(g.indice(a.i()), g.indice(a.j()))) {
+                incidentes.computeIfAbsent(a.i(), v -> new ArrayList<>()).add(a);
+                incidentes.computeIfAbsent(a.j(), v -> new ArrayList<>()).add(a);
+            }
+        }
+        Set<Integer> estTerminal = new HashSet<>();
+        for (int t : terminaux) {
+            estTerminal.add(g.identifiant(t));
+        }
+        Set<Arete> arbre = new LinkedHashSet<>();
+        incidentes.values().forEach(arbre::addAll);
+        Deque<Integer> feuilles = new ArrayDeque<>();
+        for (Map.Entry<Integer, List<Arete>> entree : incidentes.entrySet()) {
+            if (entree.getValue().size() == 1 && !estTerminal.contains(entree.getKey())) {
+                feuilles.add(entree.getKey());
+            }
+        }
+        while (!feuilles.isEmpty()) {
+            int feuille = feuilles.poll();
+            List<Arete> restantes = incidentes.get(feuille);
+            if (restantes.size() != 1) {
+                continue;
+            }
+            Arete a = restantes.remove(0);
+            arbre.remove(a);
+            int voisin = a.getAutreSommet(feuille);
+            List<Arete> duVoisin = incidentes.get(voisin);
+            duVoisin.remove(a);
+            if (duVoisin.size() == 1 && !estTerminal.contains(voisin)) {
+                feuilles.add(voisin);
+            }
+        }
+        return new ArrayList<>(arbre);
+    }
+}
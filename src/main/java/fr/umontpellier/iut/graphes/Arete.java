@@ -18,9 +18,13 @@ public record Arete(int i, int j, Route route) {
         return (i == arete.i && j == arete.j  || j == arete.i && i == arete.j )&& Objects.equals(route, arete.route);
     }
 
+    /**
+     * Le code de hachage ne dépend pas de l'ordre des extrémités, pour être cohérent avec equals :
+     * {i,j} et {j,i} portant la même route ont le même code.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(i, j, route);
+        return Objects.hash(Math.min(i, j), Math.max(i, j), route);
     }
 
     public Arete(int i, int j) {
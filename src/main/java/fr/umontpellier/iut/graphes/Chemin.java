@@ -0,0 +1,20 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Chemin dans un graphe : la suite de ses sommets (du départ à l'arrivée), la suite des arêtes empruntées
+ * (sommets.size() - 1 arêtes) et sa longueur pour la pondération utilisée.
+ */
+public record Chemin(List<Integer> sommets, List<Arete> aretes, int longueur) {
+
+    /**
+     * @return les routes des arêtes du chemin (dans l'ordre), en omettant les arêtes sans route
+     */
+    public List<Route> routes() {
+        return aretes.stream().map(Arete::route).filter(Objects::nonNull).toList();
+    }
+}
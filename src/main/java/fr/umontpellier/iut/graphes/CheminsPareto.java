@@ -0,0 +1,273 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plus courts chemins bi-critères : chaque arête a deux coûts (par exemple les pions wagons et les pions bateaux
+ * nécessaires pour capturer sa route), et un chemin en domine un autre s'il ne coûte pas plus sur les deux critères.
+ * <p>
+ * La recherche est un algorithme à étiquettes fixées (Martins) guidé comme A* : une étiquette est un chemin partiel
+ * (sommet, coût sur chaque critère, étiquette précédente), et les étiquettes sont extraites dans l'ordre
+ * lexicographique de (premier coût + minorant, second coût + minorant), les minorants étant les distances à
+ * l'arrivée sur chaque critère. Avec cet ordre, une étiquette est dominée par les étiquettes déjà fixées sur son
+ * sommet ssi son second coût n'est pas inférieur au plus petit second coût fixé sur ce sommet : un seul entier par
+ * sommet suffit pour élaguer, et les étiquettes qui ne peuvent plus améliorer la frontière de l'arrivée sont
+ * écartées dès leur création.
+ * <p>
+ * Les étiquettes sont rangées dans des tableaux d'entiers propres à chaque thread et réutilisés d'un appel à
+ * l'autre, comme l'espace de travail de {@link Dijkstra}.
+ */
+public final class CheminsPareto {
+    private static final ThreadLocal<Etiquettes> ETIQUETTES = ThreadLocal.withInitial(Etiquettes::new);
+
+    private CheminsPareto() {
+    }
+
+    /**
+     * Chemin de la frontière de Pareto avec son coût sur chacun des deux critères (la longueur du chemin est la
+     * somme des deux coûts)
+     */
+    public record Solution(Chemin chemin, int premier, int second) {
+    }
+
+    /**
+     * Réserve d'étiquettes et tas d'étiquettes d'un thread
+     */
+    private static final class Etiquettes {
+        int[] sommets = new int[64];
+        int[] premiers = new int[64];
+        int[] seconds = new int[64];
+        int[] peres = new int[64];
+        int[] demiAretes = new int[64];
+        int nb;
+        int[] tas = new int[64];
+        int taille;
+        /**
+         * minSeconds[v] est le plus petit second coût d'une étiquette fixée sur v, si versions[v] == version
+         */
+        int[] minSeconds = new int[0];
+        int[] versions = new int[0];
+        int version;
+        int[] minorantsPremier = new int[0];
+        int[] minorantsSecond = new int[0];
+
+        void preparer(int n) {
+            if (minSeconds.length < n) {
+                minSeconds = new int[n];
+                versions = new int[n];
+                minorantsPremier = new int[n];
+                minorantsSecond = new int[n];
+                version = 0;
+            }
+            version++;
+            if (version == Integer.MAX_VALUE) {
+                Arrays.fill(versions, 0);
+                version = 1;
+            }
+            nb = 0;
+            taille = 0;
+        }
+
+        int minSecond(int v) {
+            return versions[v] == version ? minSeconds[v] : Dijkstra.INFINI;
+        }
+
+        void fixer(int v, int second) {
+            versions[v] = version;
+            minSeconds[v] = second;
+        }
+
+        int ajouter(int sommet, int premier, int second, int pere, int demiArete) {
+            if (nb == sommets.length) {
+                int capacite = 2 * nb;
+                sommets = Arrays.copyOf(sommets, capacite);
+                premiers = Arrays.copyOf(premiers, capacite);
+                seconds = Arrays.copyOf(seconds, capacite);
+                peres = Arrays.copyOf(peres, capacite);
+                demiAretes = Arrays.copyOf(demiAretes, capacite);
+            }
+            sommets[nb] = sommet;
+            premiers[nb] = premier;
+            seconds[nb] = second;
+            peres[nb] = pere;
+            demiAretes[nb] = demiArete;
+            return nb++;
+        }
+
+        /**
+         * @return true ssi l'étiquette a doit être extraite avant l'étiquette b
+         */
+        boolean avant(int a, int b) {
+            long fa = (long) premiers[a] + minorantsPremier[sommets[a]];
+            long fb = (long) premiers[b] + minorantsPremier[sommets[b]];
+            if (fa != fb) {
+                return fa < fb;
+            }
+            return (long) seconds[a] + minorantsSecond[sommets[a]] < (long) seconds[b] + minorantsSecond[sommets[b]];
+        }
+
+        void inserer(int etiquette) {
+            if (taille == tas.length) {
+                tas = Arrays.copyOf(tas, 2 * taille);
+            }
+            int i = taille++;
+            while (i > 0 && avant(etiquette, tas[(i - 1) / 2])) {
+                tas[i] = tas[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            tas[i] = etiquette;
+        }
+
+        int extraire() {
+            int min = tas[0];
+            int dernier = tas[--taille];
+            int i = 0;
+            while (2 * i + 1 < taille) {
+                int fils = 2 * i + 1;
+                if (fils + 1 < taille && avant(tas[fils + 1], tas[fils])) {
+                    fils++;
+                }
+                if (!avant(tas[fils], dernier)) {
+                    break;
+                }
+                tas[i] = tas[fils];
+                i = fils;
+            }
+            tas[i] = dernier;
+            return min;
+        }
+    }
+
+    /**
+     * Calcule la frontière de Pareto des chemins entre deux sommets : pour chaque compromis non dominé entre les
+     * deux critères, un chemin élémentaire qui le réalise.
+     *
+     * @param g       le graphe
+     * @param depart  l'identifiant du sommet de départ
+     * @param arrivee l'identifiant du sommet d'arrivée
+     * @param premier le coût des arêtes sur le premier critère
+     * @param second  le coût des arêtes sur le second critère
+     * @return les chemins de la frontière, par premier coût croissant (et donc second coût strictement
+     * décroissant) ; vide si l'un des sommets n'est pas dans le graphe ou s'ils ne sont pas reliés
+     */
+    public static List<Solution> frontiere(GrapheCompact g, int depart, int arrivee, Ponderation premier,
+                                           Ponderation second) {
+        return frontiere(g, null, depart, arrivee, premier, second, Dijkstra.INFINI, Dijkstra.INFINI);
+    }
+
+    /**
+     * Calcule un chemin de coût total (somme des deux critères) minimal parmi ceux dont le coût sur chaque critère
+     * ne dépasse pas le budget correspondant.
+     *
+     * @return le chemin, ou null s'il n'y en a pas
+     */
+    public static Solution plusCourtCheminSousContraintes(GrapheCompact g, int depart, int arrivee,
+                                                          Ponderation premier, Ponderation second,
+                                                          int maxPremier, int maxSecond) {
+        return plusCourtCheminSousContraintes(g, null, depart, arrivee, premier, second, maxPremier, maxSecond);
+    }
+
+    /**
+     * Comme {@link #plusCourtCheminSousContraintes(GrapheCompact, int, int, Ponderation, Ponderation, int, int)}, en
+     * n'empruntant que les arêtes dont le numéro est dans le masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static Solution plusCourtCheminSousContraintes(GrapheCompact g, long[] masque, int depart, int arrivee,
+                                                   Ponderation premier, Ponderation second,
+                                                   int maxPremier, int maxSecond) {
+        Solution meilleure = null;
+        for (Solution s : frontiere(g, masque, depart, arrivee, premier, second, maxPremier, maxSecond)) {
+            if (meilleure == null || s.chemin().longueur() < meilleure.chemin().longueur()) {
+                meilleure = s;
+            }
+        }
+        return meilleure;
+    }
+
+    /**
+     * Comme {@link #frontiere(GrapheCompact, int, int, Ponderation, Ponderation)}, en n'empruntant que les arêtes
+     * dont le numéro est dans le masque (null pour toutes les arêtes) et en ne gardant que les chemins dont les
+     * coûts ne dépassent pas les budgets maxPremier et maxSecond
+     */
+    static List<Solution> frontiere(GrapheCompact g, long[] masque, int depart, int arrivee, Ponderation premier,
+                                    Ponderation second, int maxPremier, int maxSecond) {
+        int s = g.indice(depart);
+        int t = g.indice(arrivee);
+        if (s < 0 || t < 0) {
+            return Collections.emptyList();
+        }
+        Etiquettes et = ETIQUETTES.get();
+        et.preparer(g.nbSommets());
+        // les distances à l'arrivée sur chaque critère minorent le coût restant de toute étiquette
+        Dijkstra.Espace e = Dijkstra.espace();
+        Dijkstra.executer(g, masque, t, -1, premier, e);
+        if (!e.atteint(s)) {
+            return Collections.emptyList();
+        }
+        for (int u = 0; u < g.nbSommets(); u++) {
+            et.minorantsPremier[u] = e.distance(u);
+        }
+        Dijkstra.executer(g, masque, t, -1, second, e);
+        for (int u = 0; u < g.nbSommets(); u++) {
+            et.minorantsSecond[u] = e.distance(u);
+        }
+        if (et.minorantsPremier[s] > maxPremier || et.minorantsSecond[s] > maxSecond) {
+            return Collections.emptyList();
+        }
+
+        List<Solution> solutions = new ArrayList<>();
+        et.inserer(et.ajouter(s, 0, 0, -1, -1));
+        while (et.taille > 0) {
+            int l = et.extraire();
+            int v = et.sommets[l];
+            int secondV = et.seconds[l];
+            // dominée par une étiquette fixée sur v, ou par un chemin déjà trouvé jusqu'à l'arrivée
+            if (secondV >= et.minSecond(v) || (long) secondV + et.minorantsSecond[v] >= et.minSecond(t)) {
+                continue;
+            }
+            et.fixer(v, secondV);
+            if (v == t) {
+                solutions.add(solution(g, et, l));
+                continue;
+            }
+            for (int h = g.debut(v); h < g.fin(v); h++) {
+                int w = g.cible(h);
+                if (w == v || !Dijkstra.contient(masque, g.numeroArete(h))) {
+                    continue;
+                }
+                Arete a = g.arete(g.numeroArete(h));
+                int premierW = et.premiers[l] + premier.poids(a);
+                int secondW = secondV + second.poids(a);
+                if ((long) premierW + et.minorantsPremier[w] > maxPremier
+                        || (long) secondW + et.minorantsSecond[w] > maxSecond
+                        || secondW >= et.minSecond(w)
+                        || (long) secondW + et.minorantsSecond[w] >= et.minSecond(t)) {
+                    continue;
+                }
+                et.inserer(et.ajouter(w, premierW, secondW, l, h));
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * @return la solution correspondant à une étiquette de l'arrivée, en remontant ses étiquettes précédentes
+     */
+    private static Solution solution(GrapheCompact g, Etiquettes et, int etiquette) {
+        List<Integer> sommets = new ArrayList<>();
+        List<Arete> aretes = new ArrayList<>();
+        for (int l = etiquette; l >= 0; l = et.peres[l]) {
+            sommets.add(g.identifiant(et.sommets[l]));
+            if (et.demiAretes[l] >= 0) {
+                aretes.add(g.arete(g.numeroArete(et.demiAretes[l])));
+            }
+        }
+        Collections.reverse(sommets);
+        Collections.reverse(aretes);
+        int premier = et.premiers[etiquette];
+        int second = et.seconds[etiquette];
+        return new Solution(new Chemin(sommets, aretes, premier + second), premier, second);
+    }
+}
@@ -0,0 +1,114 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Calcul parallèle des classes de connexité d'un {@link GrapheCompact}, pour les grands graphes (plusieurs millions
+ * d'arêtes) sur lesquels l'union-find séquentiel de {@link Graphe} devient le facteur limitant.
+ * <p>
+ * On utilise une forêt union-find concurrente sans verrou, à la manière de Shiloach–Vishkin : les sommets sont
+ * répartis entre les fils du {@link java.util.concurrent.ForkJoinPool} commun, et chaque arête {u,v} accroche la
+ * racine de plus grand indice sous celle de plus petit indice par un compareAndSet. Comme un parent a toujours un
+ * indice plus petit que son fils, la forêt reste sans cycle quel que soit l'entrelacement des fils ; la
+ * compression de chemins (par demi-chemins) garde aussi cet invariant. Un dernier passage parallèle ramène chaque
+ * sommet sur sa racine.
+ * <p>
+ * Le travail total est en O(|E| α(|V|)) et le nombre d'échecs de compareAndSet reste faible en pratique, ce qui
+ * donne une accélération presque linéaire avec le nombre de cœurs. En dessous de {@link #SEUIL_PARALLELE}
+ * sommets, le même calcul est fait sur le fil courant.
+ */
+public final class ComposantesConnexes {
+    /**
+     * Nombre de sommets à partir duquel le calcul est réparti sur plusieurs fils
+     */
+    public static final int SEUIL_PARALLELE = 1 << 14;
+
+    private ComposantesConnexes() {
+    }
+
+    /**
+     * @param g le graphe
+     * @return un tableau indexé par les indices denses des sommets de g : la case u contient le numéro de la classe
+     * de connexité de u. Les classes sont numérotées de 0 au nombre de classes moins un, dans l'ordre de leur
+     * plus petit sommet.
+     */
+    public static int[] calculer(GrapheCompact g) {
+        int n = g.nbSommets();
+        AtomicIntegerArray parents = new AtomicIntegerArray(n);
+        sommets(n).forEach(u -> parents.set(u, u));
+        sommets(n).forEach(u -> {
+            for (int h = g.debut(u); h < g.fin(u); h++) {
+                int v = g.cible(h);
+                // chaque arête est vue depuis ses deux extrémités : on ne la traite qu'une fois
+                if (v < u) {
+                    unir(parents, u, v);
+                }
+            }
+        });
+        int[] racines = new int[n];
+        sommets(n).forEach(u -> racines[u] = trouver(parents, u));
+        // les racines sont les plus petits sommets de leur classe : un parcours croissant les numérote dans l'ordre
+        int[] numeros = new int[n];
+        int nbClasses = 0;
+        for (int u = 0; u < n; u++) {
+            numeros[u] = racines[u] == u ? nbClasses++ : numeros[racines[u]];
+        }
+        return numeros;
+    }
+
+    /**
+     * @param g       le graphe
+     * @param numeros les numéros de classes calculés par {@link #calculer(GrapheCompact)}
+     * @return l'ensemble des classes de connexité, sous la même forme que
+     * {@link Graphe#getEnsembleClassesConnexite()}
+     */
+    public static Set<Set<Integer>> classes(GrapheCompact g, int[] numeros) {
+        List<Set<Integer>> classes = new ArrayList<>();
+        for (int u = 0; u < numeros.length; u++) {
+            if (numeros[u] == classes.size()) {
+                classes.add(new HashSet<>());
+            }
+            classes.get(numeros[u]).add(g.identifiant(u));
+        }
+        return new HashSet<>(classes);
+    }
+
+    private static IntStream sommets(int n) {
+        IntStream sommets = IntStream.range(0, n);
+        return n >= SEUIL_PARALLELE ? sommets.parallel() : sommets;
+    }
+
+    /**
+     * @return la racine de u, en raccourcissant le chemin parcouru (chaque sommet est accroché à son grand-père)
+     */
+    private static int trouver(AtomicIntegerArray parents, int u) {
+        int p = parents.get(u);
+        while (p != u) {
+            int gp = parents.get(p);
+            if (gp != p) {
+                parents.compareAndSet(u, p, gp);
+            }
+            u = p;
+            p = gp;
+        }
+        return u;
+    }
+
+    private static void unir(AtomicIntegerArray parents, int u, int v) {
+        while (true) {
+            int ru = trouver(parents, u);
+            int rv = trouver(parents, v);
+            if (ru == rv) {
+                return;
+            }
+            int haute = Math.max(ru, rv);
+            int basse = Math.min(ru, rv);
+            // échoue si haute a cessé d'être une racine entre-temps : on recommence avec les nouvelles racines
+            if (parents.compareAndSet(haute, haute, basse)) {
+                return;
+            }
+        }
+    }
+}
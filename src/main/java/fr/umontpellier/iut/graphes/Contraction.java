@@ -0,0 +1,172 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Contractions successives de sommets d'un graphe (pour construire un graphe de régions, ou pour la coupe minimale
+ * aléatoire de Karger), sans jamais recopier les arêtes.
+ * <p>
+ * Les sommets fusionnés forment les classes d'un {@link UnionFind}, et chaque classe est représentée par le plus
+ * petit identifiant de ses sommets (comme dans {@link Graphe#fusionnerSommets(int, int)}). Les arêtes gardent leurs
+ * extrémités d'origine et ne sont renommées qu'à la lecture : une arête dont les deux extrémités sont dans la même
+ * classe est devenue une boucle et disparaît, les autres relient les représentants de leurs classes. Une contraction
+ * coûte donc O(α(V)), et lire les arêtes restantes ou leurs multiplicités O(E α(V)) : contracter un graphe entier
+ * coûte O((V + E) α(V)).
+ */
+public final class Contraction {
+    private final GrapheCompact graphe;
+    private final UnionFind classes;
+    /**
+     * minimums[r] est le plus petit identifiant de la classe de racine r
+     */
+    private final int[] minimums;
+
+    /**
+     * Commence les contractions sur g, dont chaque sommet forme d'abord une classe à lui seul
+     */
+    public Contraction(GrapheCompact g) {
+        this.graphe = g;
+        classes = new UnionFind(g.borneIdentifiants());
+        minimums = new int[g.borneIdentifiants()];
+        for (int u = 0; u < g.nbSommets(); u++) {
+            int v = g.identifiant(u);
+            classes.ajouter(v);
+            minimums[v] = v;
+        }
+    }
+
+    /**
+     * @return le nombre de sommets du graphe contracté
+     */
+    public int nbSommets() {
+        return classes.nbClasses();
+    }
+
+    /**
+     * @return l'identifiant du sommet du graphe contracté qui contient v (le plus petit sommet fusionné avec v), ou
+     * -1 si v n'est pas un sommet du graphe
+     */
+    public int representant(int v) {
+        return classes.contient(v) ? minimums[classes.trouver(v)] : -1;
+    }
+
+    /**
+     * @return l'ensemble des sommets d'origine fusionnés avec v (vide si v n'est pas un sommet du graphe)
+     */
+    public Set<Integer> sommetsFusionnes(int v) {
+        return classes.contient(v) ? classes.classe(v) : Set.of();
+    }
+
+    /**
+     * Fusionne les sommets du graphe contracté qui contiennent u et v.
+     *
+     * @return true si deux sommets ont été fusionnés, false si u et v étaient déjà fusionnés ou si l'un d'eux n'est
+     * pas un sommet du graphe
+     */
+    public boolean contracter(int u, int v) {
+        if (!classes.contient(u) || !classes.contient(v)) {
+            return false;
+        }
+        int minimum = Math.min(representant(u), representant(v));
+        if (!classes.unir(u, v)) {
+            return false;
+        }
+        minimums[classes.trouver(u)] = minimum;
+        return true;
+    }
+
+    /**
+     * Contracte des arêtes choisies uniformément parmi les arêtes restantes (boucles exclues) jusqu'à ce qu'il ne
+     * reste que nbSommets sommets, ou plus aucune arête. Parcourir les arêtes dans un ordre aléatoire en sautant
+     * celles qui sont devenues des boucles revient à ce tirage, en O(E α(V)).
+     */
+    public void contracterAleatoirement(int nbSommets, Random random) {
+        int m = graphe.nbAretes();
+        int[] ordre = new int[m];
+        for (int e = 0; e < m; e++) {
+            ordre[e] = e;
+        }
+        for (int k = 0; k < m && nbSommets() > nbSommets; k++) {
+            int tire = k + random.nextInt(m - k);
+            int e = ordre[tire];
+            ordre[tire] = ordre[k];
+            Arete a = graphe.arete(e);
+            contracter(a.i(), a.j());
+        }
+    }
+
+    /**
+     * @return les arêtes d'origine qui relient deux sommets différents du graphe contracté (avec leurs extrémités
+     * d'origine)
+     */
+    public List<Arete> aretesRestantes() {
+        List<Arete> restantes = new ArrayList<>();
+        for (int e = 0; e < graphe.nbAretes(); e++) {
+            Arete a = graphe.arete(e);
+            if (classes.trouver(a.i()) != classes.trouver(a.j())) {
+                restantes.add(a);
+            }
+        }
+        return restantes;
+    }
+
+    /**
+     * @return pour chaque paire de sommets adjacents du graphe contracté (identifiants des représentants, le plus
+     * petit en premier), le nombre d'arêtes qui les relient
+     */
+    public Map<List<Integer>, Integer> multiplicites() {
+        Map<List<Integer>, Integer> multiplicites = new HashMap<>();
+        for (Arete a : aretesRestantes()) {
+            int u = representant(a.i());
+            int v = representant(a.j());
+            multiplicites.merge(List.of(Math.min(u, v), Math.max(u, v)), 1, Integer::sum);
+        }
+        return multiplicites;
+    }
+
+    /**
+     * @return le graphe contracté : un sommet par représentant, et pour chaque arête restante une arête entre les
+     * représentants de ses extrémités, qui garde sa route (deux arêtes parallèles sans route se confondent, voir
+     * {@link #multiplicites()} pour les compter)
+     */
+    public Graphe graphe() {
+        Graphe g = new Graphe();
+        for (int u = 0; u < graphe.nbSommets(); u++) {
+            g.ajouterSommet(representant(graphe.identifiant(u)));
+        }
+        for (Arete a : aretesRestantes()) {
+            g.ajouterArete(new Arete(representant(a.i()), representant(a.j()), a.route()));
+        }
+        return g;
+    }
+
+    /**
+     * Cherche une coupe minimale de g par l'algorithme de Karger : chaque essai contracte des arêtes aléatoires
+     * jusqu'à ce qu'il ne reste que deux sommets, et les arêtes restantes forment une coupe. Un essai trouve une
+     * coupe minimale avec une probabilité d'au moins 2 / (V (V - 1)).
+     *
+     * @param nbEssais le nombre d'essais
+     * @return les arêtes de la plus petite coupe trouvée (vide si g n'est pas connexe), ou null si g a moins de
+     * deux sommets
+     */
+    public static List<Arete> coupeMinimale(GrapheCompact g, int nbEssais, Random random) {
+        if (g.nbSommets() < 2) {
+            return null;
+        }
+        List<Arete> meilleure = null;
+        for (int essai = 0; essai < nbEssais && (meilleure == null || !meilleure.isEmpty()); essai++) {
+            Contraction contraction = new Contraction(g);
+            contraction.contracterAleatoirement(2, random);
+            List<Arete> coupe = contraction.aretesRestantes();
+            if (meilleure == null || coupe.size() < meilleure.size()) {
+                meilleure = coupe;
+            }
+        }
+        return meilleure;
+    }
+}
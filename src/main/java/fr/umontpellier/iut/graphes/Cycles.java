@@ -0,0 +1,81 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Recherche d'un cycle dans un graphe par un parcours en profondeur, en O(|V| + |E|).
+ * <p>
+ * Le parcours est itératif (pas de récursion, donc pas de débordement de pile sur les grands graphes). Comme pour
+ * {@link Isthmes}, il ignore l'arête par laquelle on est arrivé sur un sommet, et non le sommet père : une boucle
+ * est un cycle de longueur 1, et deux arêtes parallèles forment un cycle de longueur 2.
+ * <p>
+ * Dans un parcours en profondeur d'un graphe non orienté, la première arête qui mène à un sommet déjà vu mène à
+ * un ancêtre du sommet courant : le cycle témoin est donc lu en remontant les pères jusqu'à cet ancêtre.
+ */
+public final class Cycles {
+    private Cycles() {
+    }
+
+    /**
+     * @param g le graphe
+     * @return les indices denses des sommets d'un cycle de g, dans l'ordre du cycle (chaque sommet une seule
+     * fois), ou null si g est une forêt
+     */
+    public static int[] trouver(GrapheCompact g) {
+        int n = g.nbSommets();
+        int[] peres = new int[n];
+        Arrays.fill(peres, -2);
+        int[] aretesPeres = new int[n];
+        int[] prochaines = new int[n];
+        int[] pile = new int[n];
+        for (int racine = 0; racine < n; racine++) {
+            if (peres[racine] != -2) {
+                continue;
+            }
+            int hauteur = 0;
+            pile[hauteur++] = racine;
+            peres[racine] = -1;
+            aretesPeres[racine] = -1;
+            prochaines[racine] = g.debut(racine);
+            while (hauteur > 0) {
+                int u = pile[hauteur - 1];
+                if (prochaines[u] == g.fin(u)) {
+                    hauteur--;
+                    continue;
+                }
+                int h = prochaines[u]++;
+                int e = g.numeroArete(h);
+                if (e == aretesPeres[u]) {
+                    continue;
+                }
+                int v = g.cible(h);
+                if (peres[v] == -2) {
+                    peres[v] = u;
+                    aretesPeres[v] = e;
+                    prochaines[v] = g.debut(v);
+                    pile[hauteur++] = v;
+                } else {
+                    return remonter(peres, u, v);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return les sommets de u à son ancêtre v (inclus) en suivant les pères
+     */
+    private static int[] remonter(int[] peres, int u, int v) {
+        int longueur = 1;
+        for (int w = u; w != v; w = peres[w]) {
+            longueur++;
+        }
+        int[] cycle = new int[longueur];
+        int k = 0;
+        for (int w = u; w != v; w = peres[w]) {
+            cycle[k++] = w;
+        }
+        cycle[k] = v;
+        return cycle;
+    }
+}
@@ -0,0 +1,200 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Algorithme de Dijkstra sur un {@link GrapheCompact}, avec un tas binaire indexé.
+ * <p>
+ * Les tableaux de travail (distances, prédécesseurs, tas) sont propres à chaque thread et réutilisés d'un appel
+ * à l'autre : un numéro de version évite de les réinitialiser, si bien qu'un appel ne coûte que le nombre de
+ * sommets et d'arêtes effectivement explorés. La recherche s'arrête dès que l'arrivée est atteinte.
+ */
+public final class Dijkstra {
+    /**
+     * Distance renvoyée pour un sommet inaccessible
+     */
+    public static final int INFINI = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<Espace> ESPACES = ThreadLocal.withInitial(Espace::new);
+
+    private Dijkstra() {
+    }
+
+    /**
+     * Tableaux de travail d'un thread, indexés par les indices denses des sommets
+     */
+    static final class Espace {
+        int[] distances = new int[0];
+        /**
+         * peres[v] est l'indice du sommet qui précède v sur le plus court chemin trouvé (-1 pour le départ)
+         */
+        int[] peres = new int[0];
+        /**
+         * demiAretes[v] est la demi-arête par laquelle v a été atteint
+         */
+        int[] demiAretes = new int[0];
+        /**
+         * v a été atteint pendant le calcul courant ssi versions[v] == version
+         */
+        int[] versions = new int[0];
+        int version;
+        TasIndexe tas = new TasIndexe(0);
+
+        void preparer(int n) {
+            if (distances.length < n) {
+                distances = new int[n];
+                peres = new int[n];
+                demiAretes = new int[n];
+                versions = new int[n];
+                tas = new TasIndexe(n);
+                version = 0;
+            }
+            version++;
+            if (version == Integer.MAX_VALUE) {
+                Arrays.fill(versions, 0);
+                version = 1;
+            }
+        }
+
+        boolean atteint(int v) {
+            return versions[v] == version;
+        }
+
+        int distance(int v) {
+            return atteint(v) ? distances[v] : INFINI;
+        }
+    }
+
+    /**
+     * @return l'espace de travail du thread courant
+     */
+    static Espace espace() {
+        return ESPACES.get();
+    }
+
+    /**
+     * Exécute l'algorithme de Dijkstra depuis le sommet d'indice depart, jusqu'à l'extraction du sommet d'indice
+     * arrivee (ou jusqu'à épuisement si arrivee vaut -1). Le résultat est lu dans l'espace e.
+     */
+    static void executer(GrapheCompact g, int depart, int arrivee, Ponderation ponderation, Espace e) {
+        executer(g, null, depart, arrivee, ponderation, e);
+    }
+
+    /**
+     * Comme {@link #executer(GrapheCompact, int, int, Ponderation, Espace)}, en n'empruntant que les arêtes dont le
+     * numéro est dans le masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static void executer(GrapheCompact g, long[] masque, int depart, int arrivee, Ponderation ponderation, Espace e) {
+        e.preparer(g.nbSommets());
+        TasIndexe tas = e.tas;
+        e.versions[depart] = e.version;
+        e.distances[depart] = 0;
+        e.peres[depart] = -1;
+        e.demiAretes[depart] = -1;
+        tas.insererOuDiminuer(depart, 0);
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            if (u == arrivee) {
+                break;
+            }
+            int du = e.distances[u];
+            for (int h = g.debut(u); h < g.fin(u); h++) {
+                if (!contient(masque, g.numeroArete(h))) {
+                    continue;
+                }
+                int v = g.cible(h);
+                int d = du + ponderation.poids(g.arete(g.numeroArete(h)));
+                if (!e.atteint(v) || d < e.distances[v]) {
+                    e.versions[v] = e.version;
+                    e.distances[v] = d;
+                    e.peres[v] = u;
+                    e.demiAretes[v] = h;
+                    tas.insererOuDiminuer(v, d);
+                }
+            }
+        }
+        tas.vider();
+    }
+
+    /**
+     * @return true ssi le masque (ensemble de bits) contient e, ou si le masque est null
+     */
+    static boolean contient(long[] masque, int e) {
+        return masque == null || (masque[e >>> 6] & 1L << e) != 0;
+    }
+
+    /**
+     * Calcule un plus court chemin entre deux sommets.
+     *
+     * @param g           le graphe
+     * @param depart      l'identifiant du sommet de départ
+     * @param arrivee     l'identifiant du sommet d'arrivée
+     * @param ponderation le poids des arêtes
+     * @return un plus court chemin de depart à arrivee, ou null si l'un des sommets n'est pas dans le graphe ou si
+     * arrivee n'est pas accessible depuis depart
+     */
+    public static Chemin plusCourtChemin(GrapheCompact g, int depart, int arrivee, Ponderation ponderation) {
+        return plusCourtChemin(g, null, depart, arrivee, ponderation);
+    }
+
+    /**
+     * Calcule un plus court chemin entre deux sommets, en n'empruntant que les arêtes du masque (null pour toutes)
+     */
+    static Chemin plusCourtChemin(GrapheCompact g, long[] masque, int depart, int arrivee, Ponderation ponderation) {
+        int s = g.indice(depart);
+        int t = g.indice(arrivee);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        Espace e = espace();
+        executer(g, masque, s, t, ponderation, e);
+        if (!e.atteint(t)) {
+            return null;
+        }
+        return chemin(g, e, t);
+    }
+
+    /**
+     * @return le chemin du départ du dernier calcul fait dans e jusqu'au sommet d'indice t (prérequis : t atteint)
+     */
+    static Chemin chemin(GrapheCompact g, Espace e, int t) {
+        List<Integer> sommets = new ArrayList<>();
+        List<Arete> aretes = new ArrayList<>();
+        for (int v = t; v != -1; v = e.peres[v]) {
+            sommets.add(g.identifiant(v));
+            if (e.peres[v] != -1) {
+                aretes.add(g.arete(g.numeroArete(e.demiAretes[v])));
+            }
+        }
+        Collections.reverse(sommets);
+        Collections.reverse(aretes);
+        return new Chemin(sommets, aretes, e.distances[t]);
+    }
+
+    /**
+     * Calcule les distances depuis un sommet vers tous les autres.
+     *
+     * @param g           le graphe
+     * @param depart      l'identifiant du sommet de départ
+     * @param ponderation le poids des arêtes
+     * @return un tableau indexé par les indices denses de g : la case u contient la distance de depart au sommet
+     * d'indice u, ou {@link #INFINI} s'il n'est pas accessible (toutes les cases valent INFINI si depart n'est pas
+     * un sommet)
+     */
+    public static int[] distances(GrapheCompact g, int depart, Ponderation ponderation) {
+        int[] distances = new int[g.nbSommets()];
+        Arrays.fill(distances, INFINI);
+        int s = g.indice(depart);
+        if (s >= 0) {
+            Espace e = espace();
+            executer(g, s, -1, ponderation, e);
+            for (int u = 0; u < distances.length; u++) {
+                distances[u] = e.distance(u);
+            }
+        }
+        return distances;
+    }
+}
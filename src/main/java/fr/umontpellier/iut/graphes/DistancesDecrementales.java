@@ -0,0 +1,279 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plus courts chemins depuis quelques sources dans un graphe dont on retire des arêtes au fil du temps (par exemple
+ * le plateau d'un joueur, dont les adversaires capturent les routes une à une).
+ * <p>
+ * Chaque source garde son arbre de plus courts chemins. Retirer une arête qui n'appartient à aucun arbre ne coûte
+ * qu'un bit dans le masque des arêtes présentes. Si elle appartient à l'arbre d'une source, seul le sous-arbre
+ * suspendu sous l'arête est réparé, à la manière de Ramalingam et Reps : ses sommets sont rattachés au meilleur de
+ * leurs voisins restés hors du sous-arbre, puis un Dijkstra limité au sous-arbre propage les nouvelles distances. Le
+ * coût d'une suppression dépend donc de la taille du sous-arbre touché et de ses arêtes incidentes, et non de la
+ * taille du graphe.
+ * <p>
+ * Les sources sont ajoutées à la demande : la première distance demandée depuis un sommet calcule son arbre sur le
+ * graphe courant. Une instance n'est pas faite pour être partagée entre plusieurs threads.
+ */
+public final class DistancesDecrementales {
+    private final GrapheCompact graphe;
+    private final Ponderation ponderation;
+    /**
+     * Ensemble de bits des numéros des arêtes encore présentes
+     */
+    private final long[] masque;
+    /**
+     * Arbres de plus courts chemins, par indice dense de leur source
+     */
+    private final Map<Integer, Arbre> arbres = new HashMap<>();
+
+    /**
+     * Tableaux de travail des réparations : le sommet u est dans le sous-arbre réparé ssi marques[u] == marque
+     */
+    private final int[] marques;
+    private int marque;
+    private final int[] sousArbre;
+    private final TasIndexe tas;
+
+    /**
+     * Arbre de plus courts chemins d'une source, sur les indices denses du graphe
+     */
+    private static final class Arbre {
+        final int[] distances;
+        /**
+         * peres[v] est le sommet qui précède v dans l'arbre (-1 pour la source et pour les sommets inaccessibles)
+         */
+        final int[] peres;
+        /**
+         * aretes[v] est le numéro de l'arête qui relie peres[v] à v
+         */
+        final int[] aretes;
+
+        Arbre(int n) {
+            distances = new int[n];
+            peres = new int[n];
+            aretes = new int[n];
+        }
+    }
+
+    /**
+     * Construit la structure sur toutes les arêtes de g, sans aucune source
+     *
+     * @param g           le graphe
+     * @param ponderation le poids des arêtes
+     */
+    public DistancesDecrementales(GrapheCompact g, Ponderation ponderation) {
+        this.graphe = g;
+        this.ponderation = ponderation;
+        masque = new long[(g.nbAretes() + 63) >>> 6];
+        for (int e = 0; e < g.nbAretes(); e++) {
+            masque[e >>> 6] |= 1L << e;
+        }
+        marques = new int[g.nbSommets()];
+        sousArbre = new int[g.nbSommets()];
+        tas = new TasIndexe(g.nbSommets());
+    }
+
+    /**
+     * @return le graphe (avant toute suppression) sur lequel la structure a été construite
+     */
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return le nombre de sources dont l'arbre est maintenu
+     */
+    public int nbSources() {
+        return arbres.size();
+    }
+
+    /**
+     * @return true ssi l'arête est dans le graphe et n'a pas été retirée
+     */
+    public boolean contientArete(Arete a) {
+        int e = numero(a);
+        return e >= 0 && Dijkstra.contient(masque, e);
+    }
+
+    /**
+     * Retire une arête du graphe et répare les arbres qui l'empruntaient.
+     *
+     * @return true si l'arête a été retirée, false si elle n'était pas (ou plus) dans le graphe
+     */
+    public boolean retirerArete(Arete a) {
+        int e = numero(a);
+        if (e < 0 || !Dijkstra.contient(masque, e)) {
+            return false;
+        }
+        masque[e >>> 6] &= ~(1L << e);
+        int u = graphe.indice(a.i());
+        int v = graphe.indice(a.j());
+        for (Arbre arbre : arbres.values()) {
+            if (arbre.peres[v] == u && arbre.aretes[v] == e) {
+                reparer(arbre, v);
+            } else if (arbre.peres[u] == v && arbre.aretes[u] == e) {
+                reparer(arbre, u);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return la distance entre les sommets d'identifiants depart et arrivee dans le graphe courant, ou
+     * {@link Dijkstra#INFINI} si arrivee n'est pas accessible depuis depart ou si l'un des deux n'est pas un sommet.
+     * Si aucun des deux sommets n'est encore une source, depart en devient une.
+     */
+    public int distance(int depart, int arrivee) {
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        if (s < 0 || t < 0) {
+            return Dijkstra.INFINI;
+        }
+        Arbre arbre = arbres.get(t);
+        return arbre != null ? arbre.distances[s] : arbre(s).distances[t];
+    }
+
+    /**
+     * @return un plus court chemin de depart à arrivee dans le graphe courant, ou null si l'un des sommets n'est
+     * pas dans le graphe ou si arrivee n'est pas accessible depuis depart (même règle d'ajout des sources que
+     * {@link #distance(int, int)})
+     */
+    public Chemin chemin(int depart, int arrivee) {
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        boolean inverse = arbres.containsKey(t) && !arbres.containsKey(s);
+        Arbre arbre = inverse ? arbres.get(t) : arbre(s);
+        int fin = inverse ? s : t;
+        if (arbre.distances[fin] == Dijkstra.INFINI) {
+            return null;
+        }
+        List<Integer> sommets = new ArrayList<>();
+        List<Arete> aretes = new ArrayList<>();
+        for (int u = fin; arbre.peres[u] >= 0; u = arbre.peres[u]) {
+            sommets.add(graphe.identifiant(u));
+            aretes.add(graphe.arete(arbre.aretes[u]));
+        }
+        sommets.add(graphe.identifiant(inverse ? t : s));
+        if (!inverse) {
+            Collections.reverse(sommets);
+            Collections.reverse(aretes);
+        }
+        return new Chemin(sommets, aretes, arbre.distances[fin]);
+    }
+
+    /**
+     * @return l'arbre de la source d'indice s, calculé sur le graphe courant s'il ne l'était pas encore
+     */
+    private Arbre arbre(int s) {
+        Arbre arbre = arbres.get(s);
+        if (arbre == null) {
+            arbre = new Arbre(graphe.nbSommets());
+            Dijkstra.Espace e = Dijkstra.espace();
+            Dijkstra.executer(graphe, masque, s, -1, ponderation, e);
+            for (int u = 0; u < graphe.nbSommets(); u++) {
+                boolean atteint = e.atteint(u) && u != s;
+                arbre.distances[u] = e.distance(u);
+                arbre.peres[u] = atteint ? e.peres[u] : -1;
+                arbre.aretes[u] = atteint ? graphe.numeroArete(e.demiAretes[u]) : -1;
+            }
+            arbres.put(s, arbre);
+        }
+        return arbre;
+    }
+
+    /**
+     * Recalcule les distances du sous-arbre de racine r, qui vient de perdre l'arête qui le reliait à son père
+     */
+    private void reparer(Arbre arbre, int r) {
+        marque++;
+        if (marque == Integer.MAX_VALUE) {
+            Arrays.fill(marques, 0);
+            marque = 1;
+        }
+        // les sommets du sous-arbre : ceux dont le chemin vers la source passait par l'arête retirée
+        int taille = 0;
+        sousArbre[taille++] = r;
+        marques[r] = marque;
+        for (int k = 0; k < taille; k++) {
+            int x = sousArbre[k];
+            for (int h = graphe.debut(x); h < graphe.fin(x); h++) {
+                int y = graphe.cible(h);
+                if (marques[y] != marque && arbre.peres[y] == x && arbre.aretes[y] == graphe.numeroArete(h)) {
+                    marques[y] = marque;
+                    sousArbre[taille++] = y;
+                }
+            }
+        }
+        for (int k = 0; k < taille; k++) {
+            int x = sousArbre[k];
+            arbre.distances[x] = Dijkstra.INFINI;
+            arbre.peres[x] = -1;
+            arbre.aretes[x] = -1;
+        }
+        // chaque sommet du sous-arbre se rattache au meilleur de ses voisins extérieurs, dont la distance est exacte
+        for (int k = 0; k < taille; k++) {
+            int x = sousArbre[k];
+            for (int h = graphe.debut(x); h < graphe.fin(x); h++) {
+                int y = graphe.cible(h);
+                int e = graphe.numeroArete(h);
+                if (marques[y] == marque || arbre.distances[y] == Dijkstra.INFINI || !Dijkstra.contient(masque, e)) {
+                    continue;
+                }
+                int d = arbre.distances[y] + ponderation.poids(graphe.arete(e));
+                if (d < arbre.distances[x]) {
+                    arbre.distances[x] = d;
+                    arbre.peres[x] = y;
+                    arbre.aretes[x] = e;
+                }
+            }
+            if (arbre.distances[x] != Dijkstra.INFINI) {
+                tas.insererOuDiminuer(x, arbre.distances[x]);
+            }
+        }
+        // puis Dijkstra à l'intérieur du sous-arbre
+        while (!tas.estVide()) {
+            int x = tas.extraireMin();
+            for (int h = graphe.debut(x); h < graphe.fin(x); h++) {
+                int y = graphe.cible(h);
+                int e = graphe.numeroArete(h);
+                if (marques[y] != marque || !Dijkstra.contient(masque, e)) {
+                    continue;
+                }
+                int d = arbre.distances[x] + ponderation.poids(graphe.arete(e));
+                if (d < arbre.distances[y]) {
+                    arbre.distances[y] = d;
+                    arbre.peres[y] = x;
+                    arbre.aretes[y] = e;
+                    tas.insererOuDiminuer(y, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return le numéro de l'arête a dans le graphe, ou -1 si elle n'y est pas
+     */
+    private int numero(Arete a) {
+        int u = graphe.indice(a.i());
+        if (u < 0) {
+            return -1;
+        }
+        for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+            int e = graphe.numeroArete(h);
+            if (graphe.arete(e).equals(a)) {
+                return e;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,240 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flot maximal et coupe minimale entre deux sommets d'un graphe non orienté (algorithme de Dinic), par exemple pour
+ * compter les chemins sans route commune qui relient encore les villes d'une destination, et trouver les routes qui
+ * suffiraient à les couper.
+ * <p>
+ * Chaque arête peut être traversée dans les deux sens, dans la limite de sa capacité : le flot d'une arête est un
+ * entier signé (positif de i vers j). Chaque phase calcule les niveaux des sommets par un parcours en largeur du
+ * graphe résiduel, puis sature les chemins qui montent d'un niveau à chaque arête (flot bloquant), en ne repassant
+ * jamais par une demi-arête déjà épuisée ; il y a au plus V phases, et au plus O(√E) pour des capacités unitaires.
+ * La coupe minimale est formée des arêtes qui sortent de l'ensemble des sommets encore accessibles depuis la source
+ * dans le graphe résiduel.
+ * <p>
+ * Une instance garde ses tableaux d'un calcul à l'autre : on fixe les capacités une fois (par exemple pour un
+ * joueur), puis on enchaîne les calculs entre plusieurs paires de sommets sans rien réallouer. Une capacité nulle
+ * revient à retirer l'arête, et une capacité de {@link Dijkstra#INFINI} rend l'arête impossible à couper. Une
+ * instance n'est pas faite pour être partagée entre plusieurs threads.
+ */
+public final class FlotMaximal {
+    private final GrapheCompact graphe;
+    /**
+     * origines[e] est l'indice dense de l'extrémité i de l'arête e (le flot est compté positivement depuis elle)
+     */
+    private final int[] origines;
+    private final int[] capacites;
+    private final int[] flots;
+    /**
+     * Tableaux de travail : niveaux des sommets dans le graphe résiduel (-1 hors d'atteinte), prochaine demi-arête à
+     * essayer depuis chaque sommet, file du parcours en largeur et chemin en cours (par demi-arêtes)
+     */
+    private final int[] niveaux;
+    private final int[] courantes;
+    private final int[] file;
+    private final int[] chemin;
+    /**
+     * Source et puits du dernier calcul (source = -1 si aucun calcul n'a abouti)
+     */
+    private int source = -1;
+    private int puits;
+
+    /**
+     * Prépare le réseau de flot de g, avec des capacités toutes nulles
+     */
+    public FlotMaximal(GrapheCompact g) {
+        this.graphe = g;
+        int n = g.nbSommets();
+        int m = g.nbAretes();
+        origines = new int[m];
+        for (int e = 0; e < m; e++) {
+            origines[e] = g.indice(g.arete(e).i());
+        }
+        capacites = new int[m];
+        flots = new int[m];
+        niveaux = new int[n];
+        courantes = new int[n];
+        file = new int[n];
+        chemin = new int[n];
+    }
+
+    /**
+     * Prépare le réseau de flot de g avec les capacités données
+     */
+    public FlotMaximal(GrapheCompact g, Ponderation capacites) {
+        this(g);
+        fixerCapacites(capacites);
+    }
+
+    /**
+     * @return le graphe du réseau
+     */
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * Fixe la capacité de chaque arête (positive ou nulle, {@link Dijkstra#INFINI} pour une arête qu'on ne peut pas
+     * couper) pour les calculs suivants, par exemple {@link Ponderation#SAUT} pour compter des chemins sans arête
+     * commune
+     */
+    public void fixerCapacites(Ponderation capacites) {
+        fixerCapacites(null, capacites);
+    }
+
+    /**
+     * Comme {@link #fixerCapacites(Ponderation)}, en donnant une capacité nulle aux arêtes dont le numéro n'est pas
+     * dans le masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    void fixerCapacites(long[] masque, Ponderation capacites) {
+        for (int e = 0; e < this.capacites.length; e++) {
+            Arete a = graphe.arete(e);
+            this.capacites[e] = a.i() != a.j() && Dijkstra.contient(masque, e) ? capacites.poids(a) : 0;
+        }
+        source = -1;
+    }
+
+    /**
+     * Calcule un flot maximal entre deux sommets, avec les capacités fixées en dernier.
+     *
+     * @param depart  l'identifiant de la source
+     * @param arrivee l'identifiant du puits
+     * @return la valeur du flot (le nombre maximal de chemins sans arête commune pour des capacités unitaires), 0
+     * si l'un des sommets n'est pas dans le graphe ou s'ils sont égaux, et {@link Dijkstra#INFINI} s'ils sont
+     * reliés par un chemin d'arêtes de capacité infinie (ou si le flot dépasse cette valeur)
+     */
+    public int calculer(int depart, int arrivee) {
+        Arrays.fill(flots, 0);
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        if (s < 0 || t < 0 || s == t) {
+            source = -1;
+            return 0;
+        }
+        source = s;
+        puits = t;
+        long total = 0;
+        while (total < Dijkstra.INFINI && niveler(s, t)) {
+            for (int u = 0; u < niveaux.length; u++) {
+                courantes[u] = graphe.debut(u);
+            }
+            long pousse;
+            while (total < Dijkstra.INFINI && (pousse = augmenter(s, t)) > 0) {
+                total += pousse;
+            }
+        }
+        return (int) Math.min(total, Dijkstra.INFINI);
+    }
+
+    /**
+     * @return les arêtes d'une coupe minimale du dernier calcul : des arêtes de capacité non nulle dont le retrait
+     * sépare la source du puits, de capacité totale égale au flot maximal (vide si aucun calcul n'a été fait depuis
+     * le dernier changement de capacités, ou si la source et le puits ne peuvent pas être séparés)
+     */
+    public List<Arete> coupeMinimale() {
+        List<Arete> coupe = new ArrayList<>();
+        if (source < 0 || niveler(source, puits)) {
+            return coupe;
+        }
+        for (int e = 0; e < capacites.length; e++) {
+            if (capacites[e] > 0) {
+                int u = origines[e];
+                int v = graphe.indice(graphe.arete(e).j());
+                if (niveaux[u] >= 0 != niveaux[v] >= 0) {
+                    coupe.add(graphe.arete(e));
+                }
+            }
+        }
+        return coupe;
+    }
+
+    /**
+     * @return la capacité restante de la demi-arête h (d'extrémité u) dans le sens de u vers sa cible
+     */
+    private long residuel(int u, int h) {
+        int e = graphe.numeroArete(h);
+        return origines[e] == u ? (long) capacites[e] - flots[e] : (long) capacites[e] + flots[e];
+    }
+
+    /**
+     * Calcule les niveaux des sommets accessibles depuis s dans le graphe résiduel
+     *
+     * @return true si t est accessible
+     */
+    private boolean niveler(int s, int t) {
+        Arrays.fill(niveaux, -1);
+        niveaux[s] = 0;
+        file[0] = s;
+        int taille = 1;
+        for (int k = 0; k < taille; k++) {
+            int u = file[k];
+            for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+                int v = graphe.cible(h);
+                if (niveaux[v] < 0 && residuel(u, h) > 0) {
+                    niveaux[v] = niveaux[u] + 1;
+                    file[taille++] = v;
+                }
+            }
+        }
+        return t >= 0 && niveaux[t] >= 0;
+    }
+
+    /**
+     * Cherche un chemin de s à t qui monte d'un niveau à chaque arête, en reprenant chaque sommet à sa demi-arête
+     * courante, et y pousse autant de flot que possible
+     *
+     * @return la quantité de flot poussée (0 s'il n'y a plus de tel chemin dans cette phase)
+     */
+    private long augmenter(int s, int t) {
+        int longueur = 0;
+        int u = s;
+        while (u != t) {
+            int fin = graphe.fin(u);
+            while (courantes[u] < fin) {
+                int h = courantes[u];
+                int v = graphe.cible(h);
+                if (niveaux[v] == niveaux[u] + 1 && residuel(u, h) > 0) {
+                    break;
+                }
+                courantes[u]++;
+            }
+            if (courantes[u] < fin) {
+                chemin[longueur++] = courantes[u];
+                u = graphe.cible(courantes[u]);
+            } else {
+                // impasse : on ne repassera plus par u dans cette phase
+                niveaux[u] = -1;
+                if (longueur == 0) {
+                    return 0;
+                }
+                longueur--;
+                u = sommetAvant(s, longueur);
+                courantes[u]++;
+            }
+        }
+        long pousse = Dijkstra.INFINI;
+        int x = s;
+        for (int k = 0; k < longueur; k++) {
+            pousse = Math.min(pousse, residuel(x, chemin[k]));
+            x = graphe.cible(chemin[k]);
+        }
+        x = s;
+        for (int k = 0; k < longueur; k++) {
+            int e = graphe.numeroArete(chemin[k]);
+            flots[e] += origines[e] == x ? pousse : -pousse;
+            x = graphe.cible(chemin[k]);
+        }
+        return pousse;
+    }
+
+    /**
+     * @return le sommet d'où part la k-ième demi-arête du chemin en cours
+     */
+    private int sommetAvant(int s, int k) {
+        return k == 0 ? s : graphe.cible(chemin[k - 1]);
+    }
+}
@@ -0,0 +1,54 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Forme d'un graphe : une clé qui identifie les graphes isomorphes, pour éliminer les doublons d'un ensemble de
+ * graphes (HashSet&lt;Forme&gt;) ou garder un résultat par forme (HashMap&lt;Forme, V&gt;).
+ * <p>
+ * Le hachage est l'{@link Isomorphisme#empreinte(GrapheCompact) empreinte} du graphe, calculée une fois. L'égalité
+ * compare d'abord les empreintes et les tailles, et ne lance le test d'isomorphisme complet que si elles coïncident,
+ * c'est-à-dire presque uniquement quand les graphes sont bien isomorphes. Une forme garde la représentation compacte
+ * du graphe, qui ne change pas : elle reste valable si le graphe d'origine est modifié ensuite.
+ */
+public final class Forme {
+    private final GrapheCompact graphe;
+    private final long empreinte;
+
+    /**
+     * Construit la forme de g (voir aussi {@link Graphe#forme()}, qui réutilise l'empreinte gardée par le graphe)
+     */
+    public Forme(GrapheCompact g) {
+        this(g, Isomorphisme.empreinte(g));
+    }
+
+    Forme(GrapheCompact g, long empreinte) {
+        this.graphe = g;
+        this.empreinte = empreinte;
+    }
+
+    /**
+     * @return le graphe dont this est la forme (un représentant de la classe d'isomorphisme)
+     */
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    public long empreinte() {
+        return empreinte;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Forme forme = (Forme) o;
+        return empreinte == forme.empreinte
+                && graphe.nbSommets() == forme.graphe.nbSommets()
+                && graphe.nbAretes() == forme.graphe.nbAretes()
+                && (graphe == forme.graphe || Isomorphisme.sontIsomorphes(graphe, forme.graphe));
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(empreinte);
+    }
+}
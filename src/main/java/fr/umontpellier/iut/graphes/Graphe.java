@@ -1,13 +1,9 @@
 package fr.umontpellier.iut.graphes;
 
-import com.sun.jdi.ArrayReference;
 import fr.umontpellier.iut.rails.Route;
-import org.junit.jupiter.api.Test;
 
-import javax.lang.model.type.ArrayType;
-import javax.swing.*;
-import java.net.Inet4Address;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -21,6 +17,9 @@ import java.util.stream.IntStream;
  * Arete a2 = new Arete(i,j,new RouteTerrestre(villes.get("Lima"), villes.get("Valparaiso"), Couleur.GRIS, 2))
  * Dans cet exemple (issus du jeu), a1 et a2 sont deux arêtes différentes, même si leurs routes sont très similaires
  * (seul l'attribut nom est différent).
+ * <p>
+ * Les identifiants des sommets sont des entiers positifs ou nuls (les degrés sont rangés dans un tableau indexé
+ * par identifiant).
  */
 public class Graphe {
 
@@ -31,6 +30,76 @@ public class Graphe {
      */
     private Map<Integer, HashSet<Arete>> mapAretes;
 
+    /**
+     * Vue en lecture seule de mapAretes (voir {@link #getMapAretes()}), construite à la demande et oubliée dès que
+     * le graphe est modifié
+     */
+    private Map<Integer, Set<Arete>> vueAretes;
+
+    /**
+     * Index de toutes les arêtes du graphe. Le hachage d'une arête ne dépendant pas de l'ordre de ses extrémités,
+     * la clé est en fait (min(i,j), max(i,j), route), ce qui rend existeArete, ajouterArete et supprimerArete
+     * en temps constant. Les arêtes y restent dans leur ordre d'ajout, qui ne dépend pas du hachage des routes
+     * (voir {@link GrapheCompact}).
+     */
+    private final Set<Arete> aretes = new LinkedHashSet<>();
+
+    /**
+     * Représentation compacte (CSR) de this, construite à la demande et oubliée dès que le graphe est modifié
+     */
+    private GrapheCompact compact;
+
+    /**
+     * Ensemble des isthmes de this, calculé à la demande et oublié dès que le graphe est modifié
+     */
+    private Set<Arete> isthmes;
+
+    /**
+     * degres[v] est le nombre de voisins distincts du sommet v (une boucle compte v parmi ses propres voisins)
+     */
+    private int[] degres = new int[0];
+
+    /**
+     * nbSommetsParDegre[d] est le nombre de sommets de degré d
+     */
+    private int[] nbSommetsParDegre = new int[1];
+
+    /**
+     * Plus grand degré d'un sommet du graphe (0 si le graphe est vide)
+     */
+    private int degreMax;
+
+    /**
+     * Nombre d'arêtes entre chaque paire de sommets {i,j}, routes ignorées (clé calculée par {@link #cle(int, int)}).
+     * Une paire absente n'a aucune arête.
+     */
+    private final Map<Long, Integer> multiplicites = new HashMap<>();
+
+    /**
+     * Nombre de sommets portant au moins une boucle
+     */
+    private int nbBoucles;
+
+    /**
+     * Nombre de paires de sommets reliées par au moins deux arêtes parallèles
+     */
+    private int nbPairesMultiples;
+
+    /**
+     * Classes de connexité (union-find), construites à la demande (voir {@link #getConnexite()})
+     */
+    private UnionFind connexite;
+
+    /**
+     * true si le graphe a été figé (voir {@link #figer()})
+     */
+    private boolean fige;
+    /**
+     * Empreinte du graphe (voir {@link #empreinte()}), valable si empreinteCalculee
+     */
+    private long empreinte;
+    private boolean empreinteCalculee;
+
 
     /**
      * Construit un graphe à n sommets 0..n-1 sans arêtes
@@ -38,7 +107,7 @@ public class Graphe {
     public Graphe(int n) {
         mapAretes = new HashMap<>();
         for (int i = 0; i < n; i++) {
-            mapAretes.put(i, new HashSet<>());
+            ajouterSommet(i);
         }
     }
 
@@ -59,15 +128,103 @@ public class Graphe {
     public Graphe(Collection<Arete> aretes) {
         mapAretes = new HashMap<>();
         for (Arete arete : aretes) {
-            mapAretes.putIfAbsent(arete.i(), new HashSet<>());
-            mapAretes.get(arete.i()).add(arete);
-            mapAretes.putIfAbsent(arete.j(), new HashSet<>());
-            mapAretes.get(arete.j()).add(arete);
+            ajouterArete(arete);
         }
     }
 
-    public Map<Integer, HashSet<Arete>> getMapAretes() {
-        return mapAretes;
+    /**
+     * @return la liste d'incidences du graphe, en lecture seule jusque dans les ensembles d'arêtes de chaque sommet
+     * (les modifications doivent passer par les méthodes de Graphe pour que les degrés, la connexité et la
+     * représentation compacte restent à jour)
+     */
+    public Map<Integer, Set<Arete>> getMapAretes() {
+        if (vueAretes == null) {
+            Map<Integer, Set<Arete>> vue = new HashMap<>();
+            mapAretes.forEach((sommet, incidentes) -> vue.put(sommet, Collections.unmodifiableSet(incidentes)));
+            vueAretes = Collections.unmodifiableMap(vue);
+        }
+        return vueAretes;
+    }
+
+    /**
+     * @return la représentation compacte (CSR) de this. Elle est construite au premier appel puis partagée
+     * jusqu'à la prochaine modification du graphe.
+     */
+    public GrapheCompact getGrapheCompact() {
+        if (compact == null) {
+            compact = new GrapheCompact(this);
+        }
+        return compact;
+    }
+
+    /**
+     * Fige le graphe : toute modification ultérieure lève une {@link UnsupportedOperationException}. Les structures
+     * calculées à la demande (représentation compacte, isthmes, classes de connexité) sont construites tout de suite,
+     * et les chemins de l'union-find entièrement compressés : les questions posées ensuite ne modifient plus rien, si
+     * bien qu'un graphe figé peut être partagé entre plusieurs threads, pourvu qu'il soit publié de façon sûre (par
+     * exemple par un champ final).
+     *
+     * @return this
+     */
+    public Graphe figer() {
+        if (!fige) {
+            getGrapheCompact();
+            getIsthmes();
+            empreinte();
+            getMapAretes();
+            UnionFind classes = getConnexite();
+            for (Integer sommet : mapAretes.keySet()) {
+                classes.trouver(sommet);
+            }
+            fige = true;
+        }
+        return this;
+    }
+
+    /**
+     * @return true si le graphe a été figé (voir {@link #figer()})
+     */
+    public boolean estFige() {
+        return fige;
+    }
+
+    /**
+     * Lève une exception si le graphe est figé. À appeler au début de chaque méthode qui modifie le graphe.
+     */
+    private void verifierModifiable() {
+        if (fige) {
+            throw new UnsupportedOperationException("Le graphe est figé");
+        }
+    }
+
+    /**
+     * Oublie les structures calculées à partir du graphe. À appeler après chaque modification.
+     */
+    private void invalider() {
+        compact = null;
+        isthmes = null;
+        vueAretes = null;
+        empreinteCalculee = false;
+    }
+
+    /**
+     * @return une empreinte du graphe invariante par isomorphisme (voir {@link Isomorphisme#empreinte}) : deux
+     * graphes isomorphes ont la même empreinte. Elle est calculée au premier appel puis gardée jusqu'à la prochaine
+     * modification du graphe.
+     */
+    public long empreinte() {
+        if (!empreinteCalculee) {
+            empreinte = Isomorphisme.empreinte(getGrapheCompact());
+            empreinteCalculee = true;
+        }
+        return empreinte;
+    }
+
+    /**
+     * @return la forme du graphe, une clé égale pour tous les graphes isomorphes à this (voir {@link Forme})
+     */
+    public Forme forme() {
+        return new Forme(getGrapheCompact(), empreinte());
     }
 
     /**
@@ -81,14 +238,30 @@ public class Graphe {
     public Graphe(Graphe graphe, Set<Integer> X) {
         mapAretes = new HashMap<>();
         for (Integer sommet : X) {
-            mapAretes.put(sommet, new HashSet<>());
+            ajouterSommet(sommet);
             for (Arete arete : graphe.mapAretes.get(sommet)) {
                 if (X.contains(arete.i()) && X.contains(arete.j())) {
-                    mapAretes.get(sommet).add(arete);
+                    ajouterArete(arete);
                 }
             }
         }
-        //throw new RuntimeException("Méthode non implémentée");
+    }
+
+    /**
+     * @return une vue du sous-graphe induit par X, qui partage la représentation compacte de this au lieu de
+     * recopier les arêtes (voir {@link SousGraphe}). La vue reste valable si this est modifié ensuite, mais elle
+     * décrit le graphe tel qu'il était au moment de sa création.
+     */
+    public SousGraphe sousGrapheInduit(Set<Integer> X) {
+        return SousGraphe.induit(getGrapheCompact(), X);
+    }
+
+    /**
+     * @return une vue du sous-graphe formé de tous les sommets de this et des arêtes qui vérifient le filtre
+     * (voir {@link SousGraphe})
+     */
+    public SousGraphe sousGrapheParAretes(Predicate<Arete> filtre) {
+        return SousGraphe.parAretes(getGrapheCompact(), filtre);
     }
 
     @Override
@@ -108,30 +281,35 @@ public class Graphe {
         return true;
     }
 
+    /**
+     * Le hachage est tiré de l'{@link #empreinte()} : il ne dépend que de la forme du graphe, si bien que deux
+     * graphes égaux (même nombre de sommets et mêmes arêtes) ont toujours le même, et il ne coûte rien tant que le
+     * graphe n'est pas modifié.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(mapAretes);
+        return Long.hashCode(empreinte());
     }
 
     /**
-     * @return l'ensemble de sommets du graphe
+     * @return l'ensemble de sommets du graphe (en lecture seule)
      */
     public Set<Integer> ensembleSommets() {
-        return mapAretes.keySet();
+        return Collections.unmodifiableSet(mapAretes.keySet());
+    }
+
+    /**
+     * @return l'ensemble des arêtes du graphe (en lecture seule), dans l'ordre où elles ont été ajoutées
+     */
+    public Set<Arete> ensembleAretes() {
+        return Collections.unmodifiableSet(aretes);
     }
 
     /**
      * @return l'ordre du graphe (le nombre de sommets)
      */
     public int nbSommets() {
-        Set<Integer> sommet_deja_vu = new HashSet<>();
-       for (Integer sommet : mapAretes.keySet()) {
-           if (!sommet_deja_vu.contains(sommet)) {
-               sommet_deja_vu.add(sommet);
-           }
-       }
-        //System.out.println(sommet_deja_vu);
-       return sommet_deja_vu.size();
+        return mapAretes.size();
     }
 
     /**
@@ -139,7 +317,7 @@ public class Graphe {
      * toutes les compter)
      */
     public int nbAretes() {
-        return mapAretes.values().stream().mapToInt(HashSet::size).sum() / 2;
+        return aretes.size();
     }
 
 
@@ -154,10 +332,19 @@ public class Graphe {
      * @param v le sommet à ajouter
      */
     public void ajouterSommet(Integer v) {
+        verifierModifiable();
         if (!mapAretes.containsKey(v)) {
             mapAretes.put(v, new HashSet<>());
+            if (v >= degres.length) {
+                degres = Arrays.copyOf(degres, Math.max(v + 1, 2 * degres.length));
+            }
+            degres[v] = 0;
+            nbSommetsParDegre[0]++;
+            if (connexite != null) {
+                connexite.ajouter(v);
+            }
+            invalider();
         }
-        //throw new RuntimeException("Méthode non implémentée");
     }
 
     /**
@@ -167,23 +354,27 @@ public class Graphe {
      *          alors les sommets sont automatiquement ajoutés à l'ensemble de sommets du graphe
      */
     public void ajouterArete(Arete a) {
-        // problème presque résolu mais quand on ajt un truc dans le meme il supprime l'ancien wtf
-
-        if (!existeArete(a)) {
-            if (!mapAretes.containsKey(a.i())) {
-                mapAretes.put(a.i(), new HashSet<>());
-                mapAretes.get(a.i()).add(a);
-            }
-            else {
-                mapAretes.get(a.i()).add(a);
-            }
-             if (!mapAretes.containsKey(a.j())) {
-                mapAretes.put(a.j(), new HashSet<>());
-                 mapAretes.get(a.j()).add(a);
+        verifierModifiable();
+        if (aretes.add(a)) {
+            ajouterSommet(a.i());
+            ajouterSommet(a.j());
+            mapAretes.get(a.i()).add(a);
+            mapAretes.get(a.j()).add(a);
+            int multiplicite = multiplicites.merge(cle(a.i(), a.j()), 1, Integer::sum);
+            if (multiplicite == 1) {
+                incrementerDegre(a.i());
+                if (a.i() != a.j()) {
+                    incrementerDegre(a.j());
+                } else {
+                    nbBoucles++;
+                }
+            } else if (multiplicite == 2) {
+                nbPairesMultiples++;
             }
-             else {
-                mapAretes.get(a.j()).add(a);
+            if (connexite != null) {
+                connexite.unir(a.i(), a.j());
             }
+            invalider();
         }
     }
 
@@ -195,14 +386,59 @@ public class Graphe {
      *
      */
     public void supprimerArete(Arete a) {
-        if (existeArete(a)) {
-            if(mapAretes.get(a.i()) != null) {
-                mapAretes.get(a.i()).remove(a);
-            }
-            if (mapAretes.get(a.j()) != null) {
-                mapAretes.get(a.j()).remove(a);
+        verifierModifiable();
+        if (aretes.remove(a)) {
+            mapAretes.get(a.i()).remove(a);
+            mapAretes.get(a.j()).remove(a);
+            oublierMultiplicite(a);
+            connexite = null;
+            invalider();
+        }
+    }
+
+    /**
+     * Met à jour les multiplicités et les degrés après le retrait de l'arête a
+     */
+    private void oublierMultiplicite(Arete a) {
+        long cle = cle(a.i(), a.j());
+        int multiplicite = multiplicites.merge(cle, -1, Integer::sum);
+        if (multiplicite == 0) {
+            multiplicites.remove(cle);
+            decrementerDegre(a.i());
+            if (a.i() != a.j()) {
+                decrementerDegre(a.j());
+            } else {
+                nbBoucles--;
             }
+        } else if (multiplicite == 1) {
+            nbPairesMultiples--;
+        }
+    }
+
+    private void incrementerDegre(int v) {
+        nbSommetsParDegre[degres[v]]--;
+        degres[v]++;
+        if (degres[v] >= nbSommetsParDegre.length) {
+            nbSommetsParDegre = Arrays.copyOf(nbSommetsParDegre, 2 * nbSommetsParDegre.length);
         }
+        nbSommetsParDegre[degres[v]]++;
+        degreMax = Math.max(degreMax, degres[v]);
+    }
+
+    private void decrementerDegre(int v) {
+        nbSommetsParDegre[degres[v]]--;
+        degres[v]--;
+        nbSommetsParDegre[degres[v]]++;
+        while (degreMax > 0 && nbSommetsParDegre[degreMax] == 0) {
+            degreMax--;
+        }
+    }
+
+    /**
+     * @return la clé de la paire non ordonnée {i,j} dans multiplicites
+     */
+    private static long cle(int i, int j) {
+        return ((long) Math.min(i, j) << 32) | (Math.max(i, j) & 0xFFFFFFFFL);
     }
 
     /**
@@ -210,16 +446,7 @@ public class Graphe {
      * @return true si a est présente dans le graphe
      */
     public boolean existeArete(Arete a) {
-        // mais c faux ca
-            for (Integer sommet : mapAretes.keySet()) {
-                for (Arete arete : mapAretes.get(sommet)) {
-                    if (arete.equals(a)) {
-                        return true;
-                    }
-                }
-            }
-
-        return false;
+        return aretes.contains(a);
     }
 
     @Override
@@ -239,17 +466,10 @@ public class Graphe {
      */
     public Set<Integer> getVoisins(int v) {
         Set<Integer> voisins = new HashSet<>();
-        if (contientSommet(v)) {
-            for (Integer sommet : mapAretes.keySet()) {
-               for (Arete arete : mapAretes.get(sommet)) {
-                   if (arete.incidenteA(v)) {
-                       if (arete.i() == v) voisins.add(arete.j());
-                       else
-                       voisins.add(arete.i());
-                   }
-                   else if (arete.i() == v && arete.j() == v) voisins.add(arete.i());
-
-               }
+        HashSet<Arete> incidentes = mapAretes.get(v);
+        if (incidentes != null) {
+            for (Arete arete : incidentes) {
+                voisins.add(arete.getAutreSommet(v));
             }
         }
         return voisins;
@@ -261,16 +481,27 @@ public class Graphe {
      * @param v le sommet à supprimer
      */
     public void supprimerSommet(int v) {
-        if (mapAretes.containsKey(v)) {
-            mapAretes.remove(v);
-        }
-        for (Integer sommet : mapAretes.keySet()) {
-            mapAretes.get(sommet).removeIf(arete -> arete.i() == v || arete.j() == v);
+        verifierModifiable();
+        HashSet<Arete> incidentes = mapAretes.remove(v);
+        if (incidentes != null) {
+            for (Arete arete : incidentes) {
+                aretes.remove(arete);
+                if (arete.getAutreSommet(v) != v) {
+                    mapAretes.get(arete.getAutreSommet(v)).remove(arete);
+                }
+                oublierMultiplicite(arete);
+            }
+            nbSommetsParDegre[0]--;
+            connexite = null;
+            invalider();
         }
     }
 
+    /**
+     * @return le nombre de voisins distincts de v (0 si v n'est pas un sommet)
+     */
     public int degre(int v) {
-        return getVoisins(v).size();
+        return contientSommet(v) ? degres[v] : 0;
     }
 
     /**
@@ -278,28 +509,15 @@ public class Graphe {
      * @return le degré max, et Integer.Min_VALUE si le graphe est vide
      */
     public int degreMax(){
-        int max = 0;
-        for (Integer sommet : mapAretes.keySet()) {
-            if (degre(sommet) > max) {
-                max = degre(sommet);
-            }
-        }
-        return max;
+        return mapAretes.isEmpty() ? Integer.MIN_VALUE : degreMax;
     }
 
+    /**
+     * @return true ssi this n'a ni boucle, ni arêtes parallèles, ni sommet isolé
+     */
     public boolean estSimple() {
-        for (int i = 0; i < nbSommets(); i++) { // pour chaque sommet
-                if (getVoisins(i).isEmpty()) { // si le sommet n'a pas de voisin
-                    return false;
-                }
-                for (int j : getVoisins(i)) { // pour chaque voisin du sommet
-                    if (i == j || degre(i) != degre(j)) { // si le sommet est son propre voisin ou s'il y a des arêtes en double
-                        return false;
-                    }
-                }
-            }
-            return true; // si toutes les arêtes sont simples, le graphe est simple
-        }
+        return nbBoucles == 0 && nbPairesMultiples == 0 && nbSommetsParDegre[0] == 0;
+    }
 
 
 
@@ -326,7 +544,7 @@ public class Graphe {
         if (mapAretes.isEmpty()) {
             return true;
         }
-        return estConnexe();
+        return degreMax <= 2 && arbre();
     }
 
 
@@ -341,144 +559,107 @@ public class Graphe {
         if (mapAretes.isEmpty()) {
             return false;
         }
-        for (Integer sommet : mapAretes.keySet()) {
-            if (degre(sommet) != 2) {
-                return false;
-            }
-        }
-        return true;
+        return nbBoucles == 0 && nbPairesMultiples == 0 && nbSommetsParDegre.length > 2
+                && nbSommetsParDegre[2] == nbSommets() && estConnexe();
     }
 
+    /**
+     * @return true ssi this contient un cycle (une boucle et deux arêtes parallèles sont des cycles). Un graphe
+     * est sans cycle ssi chacune de ses classes de connexité a une arête de moins que de sommets, ce qui se lit sur
+     * les classes de connexité tenues à jour par {@link #getConnexite()}.
+     */
+    public boolean contientCycle() {
+        return nbAretes() != nbSommets() - nbClassesConnexite();
+    }
 
-    // vérifier si le grpahe possède un cycle et non si il et un cycle
-
-    // ne marche pas a revoir
-
-    /*Parcours en profondeur (DFS) :
-
-    Commencez par choisir un nœud de départ dans le graphe.
-    Visitez le nœud et marquez-le comme visité.
-    Pour chaque voisin non visité du nœud actuel, effectuez une recherche en profondeur récursive.
-    Si vous rencontrez un nœud qui a déjà été visité, cela signifie qu'il existe un cycle dans le graphe.
-    Si vous avez terminé le parcours de tous les nœuds sans rencontrer de cycles, alors le graphe ne contient pas de cycle.*/
-
+    /**
+     * Ancienne signature de {@link #contientCycle()}, conservée pour compatibilité : les paramètres sont ignorés.
+     */
     public boolean contientCycle(Integer depart, Integer actual, Map<Integer, Boolean> visited) {
-        if (estUnCycle()) {
-            return false;
-        }
-        else {
-            for (Integer sommet : getVoisins(actual)) {
-                visited.put(actual, true);
-                System.out.println(visited);
-                if (!visited.containsKey(sommet) || !visited.get(sommet)) {
-                    visited.put(sommet, true);
-                    if (contientCycle(depart, sommet, visited)) {
-                        return true;
-                    }
-                }
+        return contientCycle();
+    }
 
-                else if (depart.equals(actual)) {
-                    System.out.println(depart + " " + sommet);
-                    return true;
-                }
-            }
+    /**
+     * @return les sommets d'un cycle de this, dans l'ordre du cycle (chaque sommet une seule fois), ou null si
+     * this ne contient pas de cycle. Calculé en O(|V| + |E|) par un parcours itératif (voir {@link Cycles}).
+     */
+    public List<Integer> trouverCycle() {
+        if (!contientCycle()) {
+            return null;
         }
-        return false;
+        GrapheCompact g = getGrapheCompact();
+        List<Integer> cycle = new ArrayList<>();
+        for (int u : Cycles.trouver(g)) {
+            cycle.add(g.identifiant(u));
+        }
+        return cycle;
     }
 
-    // permet de savoir si un grpahe est conexe ou non
-/**
-     * @return true ssi this est une forêt. Attention, être une forêt implique
-     * en particulier que chaque composante connexe est un arbre.
-     * On considère que le graphe vide est une forêt.
+    /**
+     * @return true ssi this est connexe (le graphe vide n'est pas considéré comme connexe)
      */
+    public boolean estConnexe() {
+        return !mapAretes.isEmpty() && getConnexite().nbClasses() == 1;
+    }
 
+    /**
+     * @return true ssi les sommets i et j sont dans la même classe de connexité
+     */
+    public boolean sontConnectes(int i, int j) {
+        return getConnexite().sontConnectes(i, j);
+    }
 
-        /*Un graphe est une forêt s'il ne contient pas de cycle et qu'il est composé de plusieurs arbres. Ainsi, pour vérifier si un graphe est une forêt,
-              on peut appliquer les étapes suivantes :
-
-            Vérifier si le graphe est acyclique : pour cela, on peut utiliser un algorithme de détection de cycle, comme celui que nous avons vu précédemment.
-             Si le graphe contient un cycle, il ne peut pas être une forêt.
-            Vérifier si le graphe est connexe : pour cela, on peut utiliser un algorithme de parcours en profondeur ou en largeur à partir d'un nœud quelconque du graphe.
-            Si tous les nœuds du graphe sont visités, alors il est connexe.
-            Vérifier si le graphe contient plusieurs arbres : si le graphe est connexe et acyclique, il ne peut contenir qu'un seul arbre.
-            Si le graphe est connexe et contient plusieurs arbres, il peut être une forêt.
-
-            Ainsi, pour résumer, un graphe est une forêt si et seulement si :
-
-            Il ne contient pas de cycle.
-            Il est connexe ou composé de plusieurs composantes connexes qui sont des arbres.*/
-
-
-
-//permte de savoir si un graphe est conexe ou non
-
-
-
-    public boolean estConnexe() {
-        if (estUnCycle()) {
-            System.out.println("cycle");
-        return true;
+    /**
+     * @return le nombre de classes de connexité de this
+     */
+    public int nbClassesConnexite() {
+        return getConnexite().nbClasses();
     }
-        else if (degreMax() == nbSommets() - 1) {
-            System.out.println("complet");
-        return true;
-        }
-        //System.out.println(degreMax());
 
-        if (mapAretes.isEmpty() && nbSommets() == 1) {
-            System.out.println("vide");
-            return true;
-        }
-        for (Integer sommet : mapAretes.keySet()) {
-            if (degre(sommet) == 0) {
-                System.out.println("degre 0");
-                return false;
+    /**
+     * @return la structure union-find des classes de connexité. Elle est construite à la première question de
+     * connexité, puis tenue à jour à chaque ajout de sommet ou d'arête ; une suppression l'oublie et elle sera
+     * reconstruite à la question suivante.
+     */
+    private UnionFind getConnexite() {
+        if (connexite == null) {
+            connexite = new UnionFind(degres.length);
+            for (Integer sommet : mapAretes.keySet()) {
+                connexite.ajouter(sommet);
             }
-        }
-        for (Integer  sommet :  mapAretes.keySet()) {
-            if (getClasseConnexite(sommet).size() == nbSommets()) {
-                return true;
+            for (Arete arete : aretes) {
+                connexite.unir(arete.i(), arete.j());
             }
         }
-    return false;
-}
+        return connexite;
+    }
 
 
     // je souhaite savoir si a partir des classe de conexité si le graphe est conexe
 
     // a refaire pour vérifier que toute les composantes du grpahe sont connexe
     public boolean estConnexeForet() {
-        return estUnCycle() || getEnsembleClassesConnexite().size() == 1;
+        return estConnexe();
     }
 
 
 
 
 
-    // apremment ce serait simplement un graphe qui ne contient pas de cylce et qui est connexe
-
-    // surement arevoir car spécificité
-
-
-    // renvoie tout les arbres qui font partit d'un graphe
+    /**
+     * @return true ssi this est un arbre, c'est-à-dire un graphe connexe et sans cycle
+     */
     public boolean arbre() {
-        return estConnexeForet() && nbAretes() == nbSommets() -1;
+        return estConnexe() && nbAretes() == nbSommets() - 1;
     }
 
-
+    /**
+     * @return true ssi this est une forêt. Attention, être une forêt implique
+     * en particulier que chaque composante connexe est un arbre.
+     * On considère que le graphe vide est une forêt.
+     */
     public boolean estUneForet() {
-        if (contientCycle(0, 0, new HashMap<>())) {
-            System.out.println("caca");
-            return false;
-        }
-        for (Integer sommet : mapAretes.keySet()) {
-            Graphe graphe_actuel= new Graphe(this, getClasseConnexite(sommet));
-            if (!graphe_actuel.estConnexe()) {
-                return false;
-            }
-        }
-        return true;
+        return !contientCycle();
     }
 
 
@@ -487,37 +668,29 @@ public class Graphe {
     // Si jamais le sommet actuelle n'a plus de voisin on vavérifier que son sommet précédent n'a lui même pas de voisin avec une List qui stock et le voisin précédent
     // et une liste qui permet de contenir la longueur max de la liste
 
+    /**
+     * @return la classe de connexité du sommet v (vide si v n'est pas un sommet), en temps proportionnel à sa taille
+     */
     public Set<Integer> getClasseConnexite(int v) {
-    Set<Integer> sommet_rouge = new HashSet<>(v);
-
-    Set<Integer> sommet_bleu = new HashSet<>(getVoisins(v));
-    sommet_bleu.addAll(getVoisins(v));
-        System.out.println(getVoisins(v));
-    // problème car il aime pas le fait que j'update la liste en meme temps que je parcour ces sommets
+        return getConnexite().classe(v);
+    }
 
-        while (!sommet_bleu.isEmpty()) {
-            // on va update la liste comme ca
-            List<Integer> update_sommet_bleu = new ArrayList<>(sommet_bleu);
-            for (Integer sommet : update_sommet_bleu) {
-                for (Integer voisins : getVoisins(sommet)) {
-                    if (!sommet_rouge.contains(voisins)) {
-                        sommet_bleu.add(voisins);
-                    }
-                }
-                sommet_rouge.add(sommet);
-                sommet_bleu.remove(sommet);
-            }
-        }
-    return sommet_rouge;
-}
+    /**
+     * @return l'ensemble des classes de connexité de this
+     */
+    public Set<Set<Integer>> getEnsembleClassesConnexite() {
+        return getConnexite().classes();
+    }
 
-public Set<Set<Integer>> getEnsembleClassesConnexite() {
-    Set<Set<Integer>> ensembleConexite = new HashSet<>();
-    for (Integer sommet : mapAretes.keySet()) {
-        ensembleConexite.add(getClasseConnexite(sommet));
+    /**
+     * @return l'ensemble des classes de connexité de this, calculé en parallèle sur la représentation compacte
+     * (voir {@link ComposantesConnexes}). Même résultat que {@link #getEnsembleClassesConnexite()}, pour les
+     * grands graphes.
+     */
+    public Set<Set<Integer>> getEnsembleClassesConnexiteParallele() {
+        GrapheCompact g = getGrapheCompact();
+        return ComposantesConnexes.classes(g, ComposantesConnexes.calculer(g));
     }
-    return ensembleConexite;
-}
 
     public Set<Set<Integer>> getEnsembleClassesConnexiteGraphe(List<Integer> sommets) {
         Set<Set<Integer>> ensembleConexite = new HashSet<>();
@@ -529,18 +702,33 @@ public Set<Set<Integer>> getEnsembleClassesConnexite() {
 
     /**
      * @return true si et seulement si l'arête passée en paramètre est un isthme dans le graphe.
+     * Le graphe n'est pas modifié, et les isthmes sont calculés une seule fois jusqu'à la prochaine modification.
      */
     public boolean estUnIsthme(Arete a) {
-        Graphe graphesansArete = this;
-        graphesansArete.supprimerArete(a);
-        if (graphesansArete.getEnsembleClassesConnexite().size() > this.getEnsembleClassesConnexite().size()) {
-            return true;
+        return getIsthmes().contains(a);
+    }
+
+    /**
+     * @return l'ensemble des isthmes du graphe, calculé en O(|V| + |E|) (voir {@link Isthmes}) puis gardé en cache
+     * jusqu'à la prochaine modification du graphe
+     */
+    public Set<Arete> getIsthmes() {
+        if (isthmes == null) {
+            GrapheCompact g = getGrapheCompact();
+            boolean[] estIsthme = Isthmes.calculer(g);
+            Set<Arete> ensemble = new HashSet<>();
+            for (int e = 0; e < estIsthme.length; e++) {
+                if (estIsthme[e]) {
+                    ensemble.add(g.arete(e));
+                }
+            }
+            isthmes = Collections.unmodifiableSet(ensemble);
         }
-        return false;
+        return isthmes;
     }
 
     public boolean sontAdjacents(int i, int j) {
-        return this.getVoisins(i).contains(j) || this.getVoisins(j).contains(i);
+        return multiplicites.containsKey(cle(i, j));
     }
 
     /**
@@ -549,51 +737,43 @@ public Set<Set<Integer>> getEnsembleClassesConnexite() {
      * L'entier correspondant au sommet nouvellement créé sera le min{i,j}. Le voisinage du nouveau sommet
      * est l'union des voisinages des deux sommets fusionnés.
      * Si un des sommets n'est pas présent dans le graphe, alors cette fonction ne fait rien.
+     * <p>
+     * Seules les arêtes du sommet max{i,j} sont déplacées (elles gardent leur route), puis ce sommet est supprimé :
+     * le coût est proportionnel à son degré. Pour enchaîner de nombreuses fusions sans modifier le graphe, voir
+     * {@link #contraction()}.
      */
     public void fusionnerSommets(int i, int j) {
-        if (this.contientSommet(i) || this.contientSommet(j)) {
-            this.ajouterSommet(Math.min(i, j));
-            this.supprimerArete(new Arete(i, j));
-            this.supprimerArete(new Arete(j, i));
-            for (Integer sommet : this.getVoisins(i)) {
-                this.ajouterArete(new Arete(Math.min(i, j), sommet));
-            }
-            for (Integer sommet : this.getVoisins(j)) {
-                this.ajouterArete(new Arete(Math.max(i, j), sommet));
+        verifierModifiable();
+        if (i == j || !contientSommet(i) || !contientSommet(j)) {
+            return;
+        }
+        int garde = Math.min(i, j);
+        int retire = Math.max(i, j);
+        for (Arete arete : new ArrayList<>(mapAretes.get(retire))) {
+            supprimerArete(arete);
+            int autre = arete.getAutreSommet(retire);
+            if (autre != garde) {
+                ajouterArete(new Arete(garde, autre == retire ? garde : autre, arete.route()));
             }
         }
+        supprimerSommet(retire);
+    }
+
+    /**
+     * @return un moteur de contractions successives sur la représentation compacte de this (voir
+     * {@link Contraction}), qui ne modifie pas this
+     */
+    public Contraction contraction() {
+        return new Contraction(getGrapheCompact());
     }
 
     /**
      * @return true si et seulement si la séquence d'entiers passée en paramètre correspond à un graphe simple valide.
      * La pondération des arêtes devrait être ignorée.
+     * Test d'Erdős–Gallai en O(n) (voir {@link SequenceDegres}).
      */
-
-    // vérifier les conditon de sortie du while, vérifier les condition de bonne séquence,essayer de faire un algo tu type générateFils qui va donner tt les fils possible
-    // pour savoir si la séquence est bonne
-
-    // a refaire inportant
     public static boolean sequenceEstGraphe(List<Integer> sequence) {
-        // somme de sequence
-        //Triez la séquence de degrés dans l'ordre décroissant.
-        //
-        //Vérifiez si la somme des degrés est paire. Si ce n'est pas le cas, le graphe ne peut pas être construit.
-        //
-        //Tant que la séquence de degrés n'est pas vide, répétez les étapes suivantes :
-        //
-        //Sélectionnez le plus grand degré restant dans la séquence et appelez-le d.
-        //Si d est plus grand que le nombre de degrés restants, ou s'il reste moins de d degrés dans la séquence, le graphe ne peut pas être construit.
-        //Supprimez d degrés de la séquence.
-        //Décrémentez d de 1 pour chaque degré restant dans la séquence.
-        //Si toutes les étapes précédentes sont complétées avec succès, c'est-à-dire que tous les degrés ont été utilisés et réduits à zéro,
-        // alors le graphe peut être construit à partir de la séquence de degrés donnée. Sinon, le graphe ne peut pas être construit.
-        if (sequence.contains(sequence.size() - 1) && sequence.contains(0)) {
-            return false;
-        }
-        if (sequence.stream().mapToInt(Integer::intValue).sum() % 2 != 0) {
-            return true;
-        }
-        return false;
+        return SequenceDegres.estGraphiqueTriDenombrement(sequence.stream().mapToInt(Integer::intValue).toArray());
     }
 
     /**
@@ -609,66 +789,12 @@ public Set<Set<Integer>> getEnsembleClassesConnexite() {
     }
 
 
-    public Graphe permutation(int[] tableau) {
-        Graphe g1 = new Graphe();
-
-        Map<Integer, Integer> map = new HashMap<>();
-        int indice = 0;
-        for (Integer sommet : this.mapAretes.keySet()) {
-            map.put(sommet, tableau[indice]);
-            indice++;
-        }
-        for (Map.Entry<Integer, HashSet<Arete>> entry : this.mapAretes.entrySet()) {
-            for (Arete arete : entry.getValue()) {
-                g1.ajouterArete(new Arete(map.get(entry.getKey()), map.get(arete.getAutreSommet(entry.getKey()))));
-            }
-        }
-        return  g1;
-    }
-
-    public boolean checkPermutation(Graphe g1, int[] tableau, int indice, Set<Integer> possibilites) {
-        if (indice == tableau.length) {
-            //System.out.println(Arrays.toString(tableau));
-            Graphe graphe = g1.permutation(tableau);
-            //System.out.println(graphe.mapAretes);
-            if (Arrays.equals(tableau, new int[]{3, 1, 2, 4, 5})) {
-                System.out.println(Arrays.toString(tableau));
-                System.out.println(g1.mapAretes);
-                System.out.println(graphe.mapAretes);
-                System.out.println(this.mapAretes);
-            }
-            return this.equals(graphe);
-        }
-        for (Integer sommet : possibilites) {
-            tableau[indice] = sommet;
-            Set<Integer> possibilites2 = new HashSet<>(possibilites);
-            possibilites2.remove(sommet);
-            if (checkPermutation(g1, tableau, indice + 1, possibilites2)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-
-    // Cependant, il est important de noter que le fait que deux graphes aient le même nombre de sommets,
-    // le même nombre d'arêtes et les mêmes arêtes ne suffit pas à garantir qu'ils sont isomorphes.
-    // Il est possible que deux graphes différents aient les mêmes propriétés.
-    // Pour être certain qu'ils sont isomorphes, il faut vérifier qu'il existe une correspondance bijective
-    // entre les sommets des deux graphes,
-    // c'est-à-dire une fonction qui associe chaque sommet du premier graphe à un sommet unique du second graphe,
-    // de sorte que les arêtes soient conservées.
+    /**
+     * @return true si et seulement si les deux graphes sont isomorphes (les routes des arêtes sont ignorées, les
+     * arêtes parallèles et les boucles sont comptées). Voir {@link Isomorphisme} pour l'algorithme.
+     */
     public static boolean sontIsomorphes(Graphe g1, Graphe g2) {
-        // tout est en refaire en gros aveec un algo plus complexe qui va associé les sommet entre eux
-        // En associant un sommet à un autre on va vérifier si les sommet on le meme nombre de voisin et si les aretes correspondrait bien
-
-        if (g1.nbSommets() != g2.nbSommets()) {
-            return false;
-        }
-        if (g1.nbAretes() != g2.nbAretes()) {
-            return false;
-        }
-        return g1.checkPermutation(g2, new int[g1.nbSommets()], 0, g1.mapAretes.keySet());
+        return Isomorphisme.sontIsomorphes(g1.getGrapheCompact(), g2.getGrapheCompact());
     }
 
 
@@ -748,58 +874,133 @@ public Set<Set<Integer>> getEnsembleClassesConnexite() {
      */
 
     public List<Integer> parcoursSansRepetition(int depart, int arrivee, boolean pondere) {
-        int[] distance = new int[nbSommets()];
-        for (int i = 0; i < distance.length; i++) {
-            if (i == arrivee) {
-                distance[i] = 0;
-            }
-            else {
-                distance[i] = Integer.MAX_VALUE;
-            }
-        }
-        int[] precedent = new int[nbSommets()];
+        Chemin chemin = plusCourtChemin(depart, arrivee, pondere ? Ponderation.LONGUEUR : Ponderation.SAUT);
+        return chemin == null ? new ArrayList<>() : new ArrayList<>(chemin.sommets());
+    }
 
-        ArrayList<Integer> frontiere = new ArrayList<>();
-        frontiere.add(arrivee);
+    /**
+     * Retourne un plus court chemin entre 2 sommets (algorithme de Dijkstra avec un tas indexé, voir
+     * {@link Dijkstra})
+     * @param depart le sommet de départ
+     * @param arrivee le sommet d'arrivée
+     * @param ponderation le poids des arêtes (longueur des routes, nombre d'arêtes, nombre de pions...)
+     * @return le chemin trouvé, ou null si arrivee n'est pas accessible depuis depart
+     */
+    public Chemin plusCourtChemin(int depart, int arrivee, Ponderation ponderation) {
+        return Dijkstra.plusCourtChemin(getGrapheCompact(), depart, arrivee, ponderation);
+    }
 
-        if (!getClasseConnexite(depart).contains(arrivee)) {
-            return new ArrayList<>();
-        }
-        while (!frontiere.isEmpty()) {
-            Integer sommet_min_distance = frontiere.stream().min(Comparator.comparingInt(a -> distance[a])).get();
-            frontiere.remove(sommet_min_distance);
-            for (Arete arete : mapAretes.get(sommet_min_distance)) {
-                if (distance[sommet_min_distance] + (pondere && arete.route() != null ? arete.route().getLongueur() : 1) < distance[arete.getAutreSommet(sommet_min_distance)]) {
-                    distance[arete.getAutreSommet(sommet_min_distance)] = distance[sommet_min_distance] + (pondere && arete.route() != null ? arete.route().getLongueur() : 1);
-                    precedent[arete.getAutreSommet(sommet_min_distance)] = sommet_min_distance;
-                    frontiere.add(arete.getAutreSommet(sommet_min_distance));
-                }
-            }
-        }
-        List<Integer> parcours = new ArrayList<>(List.of(depart));
-        int sommet_actuel = depart;
-        while (sommet_actuel != arrivee) {
-            parcours.add(precedent[sommet_actuel]);
-            sommet_actuel = precedent[sommet_actuel];
-        }
-        return parcours;
+    /**
+     * Retourne les k plus courts chemins élémentaires entre 2 sommets, par longueur croissante (algorithme de Yen,
+     * voir {@link KPlusCourtsChemins})
+     * @param ponderation le poids des arêtes
+     * @return au plus k chemins (vide si arrivee n'est pas accessible depuis depart)
+     */
+    public List<Chemin> kPlusCourtsChemins(int depart, int arrivee, int k, Ponderation ponderation) {
+        return KPlusCourtsChemins.calculer(getGrapheCompact(), depart, arrivee, k, ponderation);
+    }
+
+    /**
+     * Retourne la frontière de Pareto des chemins entre 2 sommets pour deux critères (voir {@link CheminsPareto})
+     * @return un chemin par compromis non dominé, par premier coût croissant
+     */
+    public List<CheminsPareto.Solution> cheminsPareto(int depart, int arrivee, Ponderation premier,
+                                                      Ponderation second) {
+        return CheminsPareto.frontiere(getGrapheCompact(), depart, arrivee, premier, second);
+    }
+
+    /**
+     * Retourne un chemin de coût total minimal entre 2 sommets parmi ceux dont le coût sur chaque critère ne
+     * dépasse pas le budget correspondant (voir {@link CheminsPareto})
+     * @return le chemin, ou null s'il n'y en a pas
+     */
+    public CheminsPareto.Solution plusCourtCheminSousContraintes(int depart, int arrivee, Ponderation premier,
+                                                                 Ponderation second, int maxPremier, int maxSecond) {
+        return CheminsPareto.plusCourtCheminSousContraintes(getGrapheCompact(), depart, arrivee, premier, second,
+                maxPremier, maxSecond);
     }
 
-    // cette méthode est à comprendre pcq je suis duper la
+    /**
+     * Retourne le parcours obtenu en enchaînant des plus courts chemins (pondérés) entre les sommets consécutifs de
+     * la liste passée en paramètre.
+     * @return la liste des sommets du parcours, ou une liste vide si deux sommets consécutifs ne sont pas reliés
+     */
     public List<Integer> parcoursSansRepetition(List<Integer> sousListe) {
         ArrayList<Integer> parcours = new ArrayList<>();
         for (int i = 0; i < sousListe.size() - 1; i++) {
-            if (i != 0) {
-                parcours.addAll(parcoursSansRepetition(sousListe.get(i), sousListe.get(i + 1), true).subList(1, parcoursSansRepetition(sousListe.get(i), sousListe.get(i + 1), true).size()));
-            }
-            else {
-                parcours.addAll(parcoursSansRepetition(sousListe.get(i), sousListe.get(i + 1), true));
+            List<Integer> etape = parcoursSansRepetition(sousListe.get(i), sousListe.get(i + 1), true);
+            if (etape.isEmpty()) {
+                return new ArrayList<>();
             }
+            parcours.addAll(i == 0 ? etape : etape.subList(1, etape.size()));
         }
-        System.out.println(parcours);
         return parcours;
     }
 
+    /**
+     * Retourne un arbre de Steiner reliant les sommets passés en paramètre (voir {@link ArbreSteiner}) : un
+     * ensemble d'arêtes de poids total minimal (ou presque, au-delà de {@link ArbreSteiner#NB_TERMINAUX_EXACT}
+     * sommets) qui les relie tous, contrairement à l'enchaînement de plus courts chemins qui peut compter
+     * plusieurs fois les mêmes portions.
+     * @param terminaux les sommets à relier
+     * @param ponderation le poids des arêtes
+     * @return les arêtes de l'arbre, ou null si les sommets ne peuvent pas être reliés
+     */
+    public List<Arete> arbreSteiner(Collection<Integer> terminaux, Ponderation ponderation) {
+        return ArbreSteiner.calculer(getGrapheCompact(), terminaux, ponderation);
+    }
+
+    /**
+     * Retourne une forêt couvrante de longueur totale minimale (algorithme de Kruskal, voir {@link ArbreCouvrant}),
+     * les arêtes étant pondérées par la longueur de leur route
+     * @return les arêtes de la forêt, par longueur croissante (un arbre par composante connexe)
+     */
+    public List<Arete> arbreCouvrantKruskal() {
+        return ArbreCouvrant.kruskal(getGrapheCompact(), Ponderation.LONGUEUR);
+    }
+
+    /**
+     * Retourne une forêt couvrante de longueur totale minimale (algorithme de Prim, voir {@link ArbreCouvrant}), de
+     * même longueur que celle de {@link #arbreCouvrantKruskal()}
+     * @return les arêtes de la forêt, arbre par arbre
+     */
+    public List<Arete> arbreCouvrantPrim() {
+        return ArbreCouvrant.prim(getGrapheCompact(), Ponderation.LONGUEUR);
+    }
+
+    /**
+     * Retourne une forêt qui relie entre eux les sommets de chaque groupe (par exemple les villes de chaque
+     * destination d'un joueur), extraite de la forêt couvrante minimale (voir {@link ArbreCouvrant})
+     * @param groupes les groupes de sommets à relier
+     * @param ponderation le poids des arêtes
+     * @return les arêtes de la forêt (voir {@link ArbreCouvrant#routes(Collection)} pour en obtenir les routes)
+     */
+    public List<Arete> foretTerminaux(Collection<? extends Collection<Integer>> groupes, Ponderation ponderation) {
+        return ArbreCouvrant.foretTerminaux(getGrapheCompact(), groupes, ponderation);
+    }
+
+    /**
+     * Retourne la valeur d'un flot maximal entre 2 sommets (algorithme de Dinic, voir {@link FlotMaximal})
+     * @param capacites la capacité des arêtes ({@link Ponderation#SAUT} pour compter les chemins sans arête commune,
+     *                  {@link Ponderation#LONGUEUR} pour la longueur des routes)
+     * @return la valeur du flot, 0 si l'un des sommets est absent ou s'ils sont égaux
+     */
+    public int flotMaximal(int depart, int arrivee, Ponderation capacites) {
+        return new FlotMaximal(getGrapheCompact(), capacites).calculer(depart, arrivee);
+    }
+
+    /**
+     * Retourne une coupe minimale entre 2 sommets (voir {@link FlotMaximal}) : des arêtes de capacité totale minimale
+     * dont le retrait les sépare
+     * @param capacites la capacité des arêtes
+     * @return les arêtes de la coupe (vide si les sommets ne sont pas reliés)
+     */
+    public List<Arete> coupeMinimale(int depart, int arrivee, Ponderation capacites) {
+        FlotMaximal flot = new FlotMaximal(getGrapheCompact(), capacites);
+        flot.calculer(depart, arrivee);
+        return flot.coupeMinimale();
+    }
+
     public Route getRoute(Integer integer, Integer integer1) {
         return mapAretes.get(integer).stream().filter(x -> x.getAutreSommet(integer) == integer1).findFirst().get().route();
     }
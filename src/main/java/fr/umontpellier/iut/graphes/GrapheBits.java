@@ -0,0 +1,223 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+
+import java.util.*;
+
+/**
+ * Représentation d'un graphe par matrice d'adjacence en bits : chaque sommet a un ensemble de voisins sous la forme
+ * d'un tableau de {@code long} (un bit par sommet). Les sommets sont ceux d'un {@link GrapheCompact} de référence,
+ * repérés par leurs indices denses ; les arêtes sont un sous-ensemble de celles de ce graphe (par exemple les
+ * routes d'un joueur sur le plateau).
+ * <p>
+ * Un ensemble de sommets tient dans {@code mots = ⌈n / 64⌉} entiers longs (un seul pour les 47 villes du plateau
+ * monde). Un parcours en largeur traite une couche entière à la fois : la couche suivante est la réunion des
+ * voisinages des sommets de la couche, privée des sommets déjà atteints, soit O(mots) opérations par sommet et
+ * O(n · mots) au total. Sur le plateau monde, savoir quelles villes un joueur peut atteindre ou si toutes les
+ * villes d'une destination sont reliées coûte donc quelques dizaines d'opérations sur des bits.
+ * <p>
+ * Les boucles et les arêtes parallèles sont sans effet sur l'accessibilité et ne sont pas représentées.
+ */
+public final class GrapheBits {
+    private final GrapheCompact base;
+    private final int mots;
+    /**
+     * Les voisins du sommet d'indice u sont les bits de voisins[u * mots] à voisins[u * mots + mots - 1]
+     */
+    private final long[] voisins;
+
+    private GrapheBits(GrapheCompact base) {
+        this.base = base;
+        this.mots = (base.nbSommets() + 63) >>> 6;
+        this.voisins = new long[base.nbSommets() * mots];
+    }
+
+    /**
+     * @return le graphe de mêmes sommets que base, sans arête
+     */
+    public static GrapheBits vide(GrapheCompact base) {
+        return new GrapheBits(base);
+    }
+
+    /**
+     * @return le graphe de mêmes sommets et de mêmes arêtes que base
+     */
+    public static GrapheBits de(GrapheCompact base) {
+        GrapheBits g = new GrapheBits(base);
+        for (int e = 0; e < base.nbAretes(); e++) {
+            g.ajouterArete(base.arete(e));
+        }
+        return g;
+    }
+
+    /**
+     * @return le graphe de mêmes sommets que base, dont les arêtes sont celles de base qui portent l'une des routes
+     */
+    public static GrapheBits parRoutes(GrapheCompact base, Collection<Route> routes) {
+        Set<Route> ensemble = routes instanceof Set<Route> s ? s : new HashSet<>(routes);
+        GrapheBits g = new GrapheBits(base);
+        for (int e = 0; e < base.nbAretes(); e++) {
+            if (ensemble.contains(base.arete(e).route())) {
+                g.ajouterArete(base.arete(e));
+            }
+        }
+        return g;
+    }
+
+    public GrapheCompact getBase() {
+        return base;
+    }
+
+    /**
+     * Ajoute l'arête a (ses deux extrémités doivent être des sommets du graphe de référence), en O(1)
+     */
+    public void ajouterArete(Arete a) {
+        int u = base.indice(a.i());
+        int v = base.indice(a.j());
+        if (u < 0 || v < 0) {
+            throw new IllegalArgumentException("arête hors du graphe de référence : " + a);
+        }
+        if (u != v) {
+            voisins[u * mots + (v >>> 6)] |= 1L << v;
+            voisins[v * mots + (u >>> 6)] |= 1L << u;
+        }
+    }
+
+    /**
+     * @return l'ensemble (en bits) des indices des sommets de la collection qui sont des sommets du graphe
+     */
+    public long[] ensemble(Collection<Integer> sommets) {
+        long[] bits = new long[mots];
+        for (int v : sommets) {
+            int u = base.indice(v);
+            if (u >= 0) {
+                bits[u >>> 6] |= 1L << u;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @return les identifiants des sommets dont l'indice est dans l'ensemble de bits
+     */
+    public Set<Integer> sommets(long[] bits) {
+        Set<Integer> sommets = new HashSet<>();
+        for (int k = 0; k < mots; k++) {
+            for (long reste = bits[k]; reste != 0; reste &= reste - 1) {
+                sommets.add(base.identifiant(k << 6 | Long.numberOfTrailingZeros(reste)));
+            }
+        }
+        return sommets;
+    }
+
+    /**
+     * Fermeture transitive depuis un ensemble de sources, couche par couche
+     *
+     * @param sources un ensemble de bits d'indices de sommets
+     * @return l'ensemble de bits des sommets reliés à au moins une source (sources comprises)
+     */
+    public long[] atteignables(long[] sources) {
+        long[] atteints = sources.clone();
+        long[] couche = sources.clone();
+        long[] suivante = new long[mots];
+        while (voisinage(couche, atteints, suivante)) {
+            long[] echange = couche;
+            couche = suivante;
+            suivante = echange;
+        }
+        return atteints;
+    }
+
+    /**
+     * Calcule dans suivante la réunion des voisinages des sommets de couche, privée de atteints, puis l'ajoute à
+     * atteints
+     *
+     * @return true ssi la couche suivante n'est pas vide
+     */
+    private boolean voisinage(long[] couche, long[] atteints, long[] suivante) {
+        Arrays.fill(suivante, 0);
+        for (int k = 0; k < mots; k++) {
+            for (long reste = couche[k]; reste != 0; reste &= reste - 1) {
+                int debut = (k << 6 | Long.numberOfTrailingZeros(reste)) * mots;
+                for (int l = 0; l < mots; l++) {
+                    suivante[l] |= voisins[debut + l];
+                }
+            }
+        }
+        boolean nonVide = false;
+        for (int l = 0; l < mots; l++) {
+            suivante[l] &= ~atteints[l];
+            atteints[l] |= suivante[l];
+            nonVide |= suivante[l] != 0;
+        }
+        return nonVide;
+    }
+
+    /**
+     * @return les identifiants des sommets reliés à v (v compris), vide si v n'est pas un sommet
+     */
+    public Set<Integer> atteignables(int v) {
+        return sommets(atteignables(ensemble(List.of(v))));
+    }
+
+    /**
+     * @return true ssi i et j sont des sommets reliés par un chemin (un sommet est relié à lui-même)
+     */
+    public boolean sontConnectes(int i, int j) {
+        return sontTousConnectes(List.of(i, j));
+    }
+
+    /**
+     * @return true ssi tous les sommets de la collection sont des sommets du graphe, reliés entre eux (vrai pour une
+     * collection vide)
+     */
+    public boolean sontTousConnectes(Collection<Integer> sommets) {
+        int premier = -1;
+        for (int v : sommets) {
+            premier = base.indice(v);
+            if (premier < 0) {
+                return false;
+            }
+        }
+        if (premier < 0) {
+            return true;
+        }
+        long[] cibles = ensemble(sommets);
+        long[] depart = new long[mots];
+        depart[premier >>> 6] |= 1L << premier;
+        long[] atteints = atteignables(depart);
+        for (int k = 0; k < mots; k++) {
+            if ((cibles[k] & ~atteints[k]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parcours en largeur depuis plusieurs sources à la fois
+     *
+     * @return un tableau indexé par les indices denses des sommets : le nombre minimal d'arêtes entre le sommet et
+     * la source la plus proche, ou -1 si aucune source n'est reliée au sommet
+     */
+    public int[] distances(Collection<Integer> sources) {
+        int[] distances = new int[base.nbSommets()];
+        Arrays.fill(distances, -1);
+        long[] couche = ensemble(sources);
+        long[] atteints = couche.clone();
+        long[] suivante = new long[mots];
+        int d = 0;
+        do {
+            for (int k = 0; k < mots; k++) {
+                for (long reste = couche[k]; reste != 0; reste &= reste - 1) {
+                    distances[k << 6 | Long.numberOfTrailingZeros(reste)] = d;
+                }
+            }
+            long[] echange = couche;
+            couche = suivante;
+            suivante = echange;
+            d++;
+        } while (voisinage(suivante, atteints, couche));
+        return distances;
+    }
+}
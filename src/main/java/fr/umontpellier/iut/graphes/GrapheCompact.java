@@ -0,0 +1,293 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+
+import java.util.*;
+
+/**
+ * Représentation compacte et immuable d'un {@link Graphe}, au format CSR (« compressed sparse row »).
+ * <p>
+ * Les sommets sont renumérotés par des indices denses 0..n-1, dans l'ordre croissant de leurs identifiants.
+ * Les demi-arêtes incidentes au sommet d'indice u occupent les cases {@code debut(u)} à {@code fin(u) - 1} des
+ * tableaux parallèles {@code cibles} (indice de l'autre extrémité), {@code numerosAretes} (numéro de l'arête dans
+ * {@code aretes}) et {@code routes}.
+ * Chaque arête {i,j} avec i!=j donne deux demi-arêtes (une dans la liste de i et une dans celle de j), une boucle
+ * {i,i} n'en donne qu'une.
+ * <p>
+ * Les arêtes sont numérotées dans l'ordre croissant de (min(i,j), max(i,j)), les arêtes parallèles dans l'ordre où
+ * elles ont été données (pour un {@link Graphe}, leur ordre d'ajout) : la numérotation ne dépend pas du hachage
+ * des routes et reste la même d'une exécution à l'autre.
+ * <p>
+ * Prérequis : les identifiants des sommets sont positifs ou nuls (ce sont les identifiants des villes dans le jeu).
+ */
+public final class GrapheCompact {
+    /**
+     * identifiants[u] est l'identifiant (dans le Graphe d'origine) du sommet d'indice u
+     */
+    private final int[] identifiants;
+    /**
+     * indices[v] est l'indice dense du sommet d'identifiant v, ou -1 si v n'est pas un sommet
+     */
+    private final int[] indices;
+    /**
+     * Les demi-arêtes du sommet u sont rangées de debuts[u] (inclus) à debuts[u+1] (exclu)
+     */
+    private final int[] debuts;
+    /**
+     * cibles[h] est l'indice de l'autre extrémité de la demi-arête h
+     */
+    private final int[] cibles;
+    /**
+     * numerosAretes[h] est le numéro (indice dans aretes) de l'arête dont h est une moitié
+     */
+    private final int[] numerosAretes;
+    /**
+     * routes[h] est la route portée par la demi-arête h (éventuellement null)
+     */
+    private final Route[] routes;
+    /**
+     * Arêtes du graphe, indexées par leur numéro
+     */
+    private final Arete[] aretes;
+    /**
+     * nbVoisins[u] est le nombre de voisins distincts du sommet d'indice u
+     */
+    private final int[] nbVoisins;
+
+    /**
+     * Construit la représentation compacte d'un graphe, en O(|V| log |V| + |E| log |E|)
+     *
+     * @param graphe le graphe à compacter (il n'est pas modifié)
+     */
+    public GrapheCompact(Graphe graphe) {
+        this(graphe.ensembleSommets(), new ArrayList<>(graphe.ensembleAretes()));
+    }
+
+    /**
+     * Construit la représentation compacte du graphe défini par un ensemble de sommets et une liste d'arêtes.
+     *
+     * @param sommets les sommets du graphe
+     * @param liste   les arêtes du graphe (sans doublon), dont les extrémités sont dans sommets. L'ordre de la
+     *                liste départage les arêtes parallèles.
+     */
+    GrapheCompact(Collection<Integer> sommets, List<Arete> liste) {
+        int n = sommets.size();
+        identifiants = new int[n];
+        int k = 0;
+        int max = -1;
+        for (Integer v : sommets) {
+            identifiants[k++] = v;
+            max = Math.max(max, v);
+        }
+        Arrays.sort(identifiants);
+        indices = new int[max + 1];
+        Arrays.fill(indices, -1);
+        for (int u = 0; u < n; u++) {
+            indices[identifiants[u]] = u;
+        }
+
+        aretes = liste.toArray(new Arete[0]);
+        // tri stable : les arêtes parallèles gardent l'ordre de la liste
+        Arrays.sort(aretes, Comparator.comparingLong(this::cle));
+        debuts = new int[n + 1];
+        for (Arete a : aretes) {
+            debuts[indices[a.i()] + 1]++;
+            if (a.i() != a.j()) {
+                debuts[indices[a.j()] + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            debuts[u + 1] += debuts[u];
+        }
+
+        int nbDemiAretes = debuts[n];
+        cibles = new int[nbDemiAretes];
+        numerosAretes = new int[nbDemiAretes];
+        routes = new Route[nbDemiAretes];
+        int[] positions = Arrays.copyOf(debuts, n);
+        for (int e = 0; e < aretes.length; e++) {
+            int u = indices[aretes[e].i()];
+            int v = indices[aretes[e].j()];
+            placer(positions[u]++, v, e);
+            if (u != v) {
+                placer(positions[v]++, u, e);
+            }
+        }
+
+        nbVoisins = new int[n];
+        int[] marques = new int[n];
+        Arrays.fill(marques, -1);
+        for (int u = 0; u < n; u++) {
+            for (int h = debuts[u]; h < debuts[u + 1]; h++) {
+                if (marques[cibles[h]] != u) {
+                    marques[cibles[h]] = u;
+                    nbVoisins[u]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return la clé de tri de l'arête a : les indices de ses extrémités, le plus petit en premier
+     */
+    private long cle(Arete a) {
+        int u = indices[a.i()];
+        int v = indices[a.j()];
+        return (long) Math.min(u, v) << 32 | Math.max(u, v);
+    }
+
+    private void placer(int h, int cible, int numeroArete) {
+        cibles[h] = cible;
+        numerosAretes[h] = numeroArete;
+        routes[h] = aretes[numeroArete].route();
+    }
+
+    /**
+     * @return le nombre de sommets
+     */
+    public int nbSommets() {
+        return identifiants.length;
+    }
+
+    /**
+     * @return le nombre d'arêtes
+     */
+    public int nbAretes() {
+        return aretes.length;
+    }
+
+    /**
+     * @return le nombre de demi-arêtes (taille des tableaux parallèles)
+     */
+    public int nbDemiAretes() {
+        return cibles.length;
+    }
+
+    /**
+     * @return le plus grand identifiant de sommet + 1 (taille à donner aux tableaux indexés par identifiant)
+     */
+    public int borneIdentifiants() {
+        return indices.length;
+    }
+
+    /**
+     * @return l'indice dense du sommet d'identifiant v, ou -1 si v n'est pas un sommet du graphe
+     */
+    public int indice(int v) {
+        return v >= 0 && v < indices.length ? indices[v] : -1;
+    }
+
+    /**
+     * @return l'identifiant du sommet d'indice u
+     */
+    public int identifiant(int u) {
+        return identifiants[u];
+    }
+
+    /**
+     * @return l'indice de la première demi-arête du sommet d'indice u
+     */
+    public int debut(int u) {
+        return debuts[u];
+    }
+
+    /**
+     * @return l'indice qui suit la dernière demi-arête du sommet d'indice u
+     */
+    public int fin(int u) {
+        return debuts[u + 1];
+    }
+
+    /**
+     * @return l'indice de l'extrémité de la demi-arête h
+     */
+    public int cible(int h) {
+        return cibles[h];
+    }
+
+    /**
+     * @return le numéro de l'arête correspondant à la demi-arête h
+     */
+    public int numeroArete(int h) {
+        return numerosAretes[h];
+    }
+
+    /**
+     * @return la route portée par la demi-arête h (éventuellement null)
+     */
+    public Route route(int h) {
+        return routes[h];
+    }
+
+    /**
+     * @return l'arête de numéro e
+     */
+    public Arete arete(int e) {
+        return aretes[e];
+    }
+
+    /**
+     * @return le nombre de demi-arêtes incidentes au sommet d'indice u (les arêtes parallèles sont comptées)
+     */
+    public int nbDemiAretes(int u) {
+        return debuts[u + 1] - debuts[u];
+    }
+
+    /**
+     * @return le nombre de voisins distincts du sommet d'indice u
+     */
+    public int nbVoisins(int u) {
+        return nbVoisins[u];
+    }
+
+    /**
+     * @return l'ensemble des identifiants des sommets
+     */
+    public Set<Integer> ensembleSommets() {
+        Set<Integer> sommets = new LinkedHashSet<>();
+        for (int v : identifiants) {
+            sommets.add(v);
+        }
+        return sommets;
+    }
+
+    /**
+     * @param v l'identifiant du sommet dont on veut le voisinage
+     * @return l'ensemble des identifiants des voisins de v (vide si v n'est pas un sommet)
+     */
+    public Set<Integer> getVoisins(int v) {
+        Set<Integer> voisins = new HashSet<>();
+        int u = indice(v);
+        if (u >= 0) {
+            for (int h = debuts[u]; h < debuts[u + 1]; h++) {
+                voisins.add(identifiants[cibles[h]]);
+            }
+        }
+        return voisins;
+    }
+
+    /**
+     * @param v l'identifiant du sommet
+     * @return le nombre de voisins distincts de v (0 si v n'est pas un sommet)
+     */
+    public int degre(int v) {
+        int u = indice(v);
+        return u >= 0 ? nbVoisins[u] : 0;
+    }
+
+    /**
+     * @return la liste d'incidences (au même format que {@link Graphe#getMapAretes()}) reconstruite à partir des
+     * tableaux
+     */
+    public Map<Integer, Set<Arete>> getMapAretes() {
+        Map<Integer, Set<Arete>> map = new HashMap<>();
+        for (int u = 0; u < identifiants.length; u++) {
+            Set<Arete> incidentes = new HashSet<>();
+            for (int h = debuts[u]; h < debuts[u + 1]; h++) {
+                incidentes.add(aretes[numerosAretes[h]]);
+            }
+            map.put(identifiants[u], incidentes);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,249 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Centralité d'intermédiarité des arêtes, pondérée par des trajets : pour chaque arête, le nombre (fractionnaire)
+ * de trajets dont les plus courts chemins l'empruntent. Quand un trajet a plusieurs plus courts chemins, chacun
+ * compte pour la même part.
+ * <p>
+ * Le calcul est celui de Brandes, une source à la fois : un Dijkstra qui compte les plus courts chemins depuis la
+ * source, puis une remontée des sommets par distance décroissante qui répartit la demande de chaque cible sur les
+ * arêtes de ses plus courts chemins. Seuls les sommets qui sont le départ d'un trajet servent de sources, et les
+ * sources sont traitées en parallèle.
+ * <p>
+ * On peut retirer des arêtes (par exemple les routes capturées) : seules les sources dont le graphe des plus courts
+ * chemins contenait une arête retirée sont recalculées, les contributions des autres restent valables.
+ * <p>
+ * Les poids des arêtes doivent être strictement positifs.
+ */
+public final class Intermediarite {
+    private final GrapheCompact graphe;
+    private final Ponderation ponderation;
+    /**
+     * Ensemble de bits des numéros des arêtes encore présentes
+     */
+    private final long[] masque;
+    /**
+     * Indices denses des sources, et pour chacune les indices de ses cibles et la demande correspondante
+     */
+    private final int[] sources;
+    private final int[][] cibles;
+    private final double[][] demandes;
+    /**
+     * distances[k] et contributions[k] sont les distances depuis la k-ième source et sa contribution à la centralité
+     * de chaque arête (par numéro d'arête)
+     */
+    private final int[][] distances;
+    private final double[][] contributions;
+    private final double[] centralites;
+
+    /**
+     * Calcule la centralité des arêtes de g pour les trajets donnés.
+     *
+     * @param g           le graphe
+     * @param ponderation le poids des arêtes (strictement positif)
+     * @param trajets     les trajets, chacun étant une liste d'identifiants de sommets à relier dans l'ordre : un
+     *                    trajet a-b-c compte comme les trajets a-b et b-c. Un trajet présent plusieurs fois compte
+     *                    autant de fois, et les sommets absents du graphe sont ignorés.
+     */
+    public Intermediarite(GrapheCompact g, Ponderation ponderation, List<List<Integer>> trajets) {
+        this.graphe = g;
+        this.ponderation = ponderation;
+        masque = new long[(g.nbAretes() + 63) >>> 6];
+        for (int e = 0; e < g.nbAretes(); e++) {
+            masque[e >>> 6] |= 1L << e;
+        }
+        Map<Integer, Map<Integer, Double>> parSource = new LinkedHashMap<>();
+        for (List<Integer> trajet : trajets) {
+            for (int k = 0; k + 1 < trajet.size(); k++) {
+                int s = g.indice(trajet.get(k));
+                int t = g.indice(trajet.get(k + 1));
+                if (s >= 0 && t >= 0 && s != t) {
+                    parSource.computeIfAbsent(s, x -> new HashMap<>()).merge(t, 1.0, Double::sum);
+                }
+            }
+        }
+        int nbSources = parSource.size();
+        sources = new int[nbSources];
+        cibles = new int[nbSources][];
+        demandes = new double[nbSources][];
+        int k = 0;
+        for (Map.Entry<Integer, Map<Integer, Double>> source : parSource.entrySet()) {
+            sources[k] = source.getKey();
+            cibles[k] = source.getValue().keySet().stream().mapToInt(Integer::intValue).toArray();
+            demandes[k] = Arrays.stream(cibles[k]).mapToDouble(source.getValue()::get).toArray();
+            k++;
+        }
+        distances = new int[nbSources][];
+        contributions = new double[nbSources][];
+        centralites = new double[g.nbAretes()];
+        IntStream.range(0, nbSources).parallel().forEach(this::calculerSource);
+        sommer();
+    }
+
+    /**
+     * @return le graphe (avant tout retrait) sur lequel la centralité a été calculée
+     */
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return la centralité de l'arête, 0 si elle n'est pas dans le graphe ou si elle a été retirée
+     */
+    public double centralite(Arete a) {
+        int e = numero(a);
+        return e < 0 ? 0 : centralites[e];
+    }
+
+    /**
+     * @return la centralité des arêtes encore présentes qui sont empruntées par au moins un trajet
+     */
+    public Map<Arete, Double> centralites() {
+        Map<Arete, Double> resultat = new HashMap<>();
+        for (int e = 0; e < centralites.length; e++) {
+            if (centralites[e] > 0) {
+                resultat.put(graphe.arete(e), centralites[e]);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Retire des arêtes du graphe et met à jour la centralité, en ne recalculant que les sources dont les plus
+     * courts chemins pouvaient emprunter l'une d'elles.
+     *
+     * @param retirees les arêtes à retirer (celles qui ne sont pas ou plus dans le graphe sont ignorées)
+     */
+    public void retirerAretes(List<Arete> retirees) {
+        List<Integer> numeros = new ArrayList<>();
+        for (Arete a : retirees) {
+            int e = numero(a);
+            if (e >= 0 && Dijkstra.contient(masque, e)) {
+                masque[e >>> 6] &= ~(1L << e);
+                numeros.add(e);
+            }
+        }
+        if (numeros.isEmpty()) {
+            return;
+        }
+        IntStream.range(0, sources.length).parallel()
+                .filter(k -> utiliseUneArete(k, numeros))
+                .forEach(this::calculerSource);
+        sommer();
+    }
+
+    /**
+     * @return true si l'une des arêtes peut faire partie d'un plus court chemin depuis la k-ième source
+     */
+    private boolean utiliseUneArete(int k, List<Integer> numeros) {
+        int[] d = distances[k];
+        for (int e : numeros) {
+            Arete a = graphe.arete(e);
+            int u = graphe.indice(a.i());
+            int v = graphe.indice(a.j());
+            long poids = ponderation.poids(a);
+            if (d[u] != Dijkstra.INFINI && d[u] + poids == d[v] || d[v] != Dijkstra.INFINI && d[v] + poids == d[u]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sommer() {
+        Arrays.fill(centralites, 0);
+        for (double[] contribution : contributions) {
+            for (int e = 0; e < centralites.length; e++) {
+                centralites[e] += contribution[e];
+            }
+        }
+    }
+
+    /**
+     * Calcule les distances et la contribution de la k-ième source (algorithme de Brandes)
+     */
+    private void calculerSource(int k) {
+        int n = graphe.nbSommets();
+        int s = sources[k];
+        Dijkstra.Espace e = Dijkstra.espace();
+        e.preparer(n);
+        TasIndexe tas = e.tas;
+        double[] nbChemins = new double[n];
+        int[] ordre = new int[n];
+        int nbAtteints = 0;
+        e.versions[s] = e.version;
+        e.distances[s] = 0;
+        nbChemins[s] = 1;
+        tas.insererOuDiminuer(s, 0);
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            ordre[nbAtteints++] = u;
+            for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+                int v = graphe.cible(h);
+                if (v == u || !Dijkstra.contient(masque, graphe.numeroArete(h))) {
+                    continue;
+                }
+                int d = e.distances[u] + ponderation.poids(graphe.arete(graphe.numeroArete(h)));
+                if (!e.atteint(v) || d < e.distances[v]) {
+                    e.versions[v] = e.version;
+                    e.distances[v] = d;
+                    nbChemins[v] = nbChemins[u];
+                    tas.insererOuDiminuer(v, d);
+                } else if (d == e.distances[v]) {
+                    nbChemins[v] += nbChemins[u];
+                }
+            }
+        }
+        int[] d = new int[n];
+        for (int u = 0; u < n; u++) {
+            d[u] = e.distance(u);
+        }
+        // remontée par distance décroissante : dependances[w] est la demande qui transite par w
+        double[] dependances = new double[n];
+        for (int i = 0; i < cibles[k].length; i++) {
+            dependances[cibles[k][i]] += demandes[k][i];
+        }
+        double[] contribution = new double[graphe.nbAretes()];
+        for (int i = nbAtteints - 1; i > 0; i--) {
+            int w = ordre[i];
+            double parChemin = dependances[w] / nbChemins[w];
+            for (int h = graphe.debut(w); h < graphe.fin(w); h++) {
+                int v = graphe.cible(h);
+                int numero = graphe.numeroArete(h);
+                if (v == w || d[v] == Dijkstra.INFINI || !Dijkstra.contient(masque, numero)
+                        || d[v] + ponderation.poids(graphe.arete(numero)) != d[w]) {
+                    continue;
+                }
+                double c = nbChemins[v] * parChemin;
+                contribution[numero] += c;
+                dependances[v] += c;
+            }
+        }
+        distances[k] = d;
+        contributions[k] = contribution;
+    }
+
+    /**
+     * @return le numéro de l'arête a dans le graphe, ou -1 si elle n'y est pas
+     */
+    private int numero(Arete a) {
+        int u = graphe.indice(a.i());
+        if (u < 0) {
+            return -1;
+        }
+        for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+            int e = graphe.numeroArete(h);
+            if (graphe.arete(e).equals(a)) {
+                return e;
+            }
+        }
+        return -1;
+    }
+}
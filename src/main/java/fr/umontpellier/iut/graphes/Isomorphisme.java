@@ -0,0 +1,393 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Test d'isomorphisme entre deux graphes (les routes portées par les arêtes sont ignorées, mais les arêtes
+ * parallèles et les boucles sont comptées : un isomorphisme conserve le nombre d'arêtes entre chaque paire de
+ * sommets).
+ * <p>
+ * Le test se fait en trois étapes, de la moins chère à la plus chère :
+ * <ol>
+ *     <li>comparaison des nombres de sommets et d'arêtes et des suites de degrés ;</li>
+ *     <li>raffinement de couleurs de Weisfeiler–Leman, mené en parallèle sur les deux graphes : la couleur d'un
+ *     sommet est remplacée par le couple (couleur, multi-ensemble des couleurs de ses voisins) jusqu'à
+ *     stabilisation. Deux sommets qui se correspondent ont forcément la même couleur finale, et deux graphes
+ *     isomorphes ont le même nombre de sommets de chaque couleur ;</li>
+ *     <li>recherche d'une bijection par retour arrière, dans le style de VF2 : les sommets du premier graphe
+ *     sont associés un par un, dans un ordre qui suit les arêtes, à des sommets libres de même couleur, en
+ *     vérifiant à chaque étape la cohérence avec les sommets déjà associés.</li>
+ * </ol>
+ * <p>
+ * L'{@link #empreinte(GrapheCompact) empreinte} d'un graphe résume le même raffinement de couleurs en un entier : deux
+ * graphes isomorphes ont toujours la même empreinte, et deux graphes d'empreintes différentes ne sont jamais
+ * isomorphes. Elle sert de clé de hachage pour regrouper des graphes par forme (voir {@link Forme}), le test complet
+ * ne départageant que les graphes de même empreinte.
+ */
+public final class Isomorphisme {
+    private Isomorphisme() {
+    }
+
+    /**
+     * @return true ssi g1 et g2 sont isomorphes
+     */
+    public static boolean sontIsomorphes(GrapheCompact g1, GrapheCompact g2) {
+        return trouver(g1, g2) != null;
+    }
+
+    /**
+     * Cherche un isomorphisme de g1 vers g2.
+     *
+     * @return une bijection des identifiants des sommets de g1 vers ceux de g2 qui conserve les arêtes, ou null si
+     * les graphes ne sont pas isomorphes
+     */
+    public static Map<Integer, Integer> trouver(GrapheCompact g1, GrapheCompact g2) {
+        int n = g1.nbSommets();
+        if (n != g2.nbSommets() || g1.nbAretes() != g2.nbAretes()) {
+            return null;
+        }
+        int[][] couleurs = raffiner(g1, g2);
+        if (couleurs == null) {
+            return null;
+        }
+        int[] association = new Recherche(g1, g2, couleurs[0], couleurs[1]).chercher();
+        if (association == null) {
+            return null;
+        }
+        Map<Integer, Integer> bijection = new HashMap<>();
+        for (int u = 0; u < n; u++) {
+            bijection.put(g1.identifiant(u), g2.identifiant(association[u]));
+        }
+        return bijection;
+    }
+
+    /**
+     * Calcule une empreinte de g invariante par isomorphisme : le raffinement de couleurs est mené sur g seul, les
+     * couleurs étant cette fois des hachages sur 64 bits (de la couleur du sommet et de la liste triée des couleurs
+     * de ses voisins) pour être comparables d'un graphe à l'autre sans dictionnaire partagé. La couleur initiale
+     * d'un sommet tient compte des triangles qui passent par lui, que le raffinement seul ne voit pas (il confond
+     * par exemple un cycle de longueur 6 et deux triangles). L'empreinte est le
+     * hachage des nombres de sommets et d'arêtes et de la liste triée des couleurs stables, en
+     * O(r (V + E) log V) pour r tours de raffinement.
+     * <p>
+     * Deux graphes non isomorphes peuvent avoir la même empreinte (par exemple deux graphes fortement réguliers de
+     * mêmes paramètres) : une égalité d'empreintes doit être confirmée par
+     * {@link #sontIsomorphes(GrapheCompact, GrapheCompact)}.
+     */
+    public static long empreinte(GrapheCompact g) {
+        int n = g.nbSommets();
+        long[] couleurs = new long[n];
+        int[] triangles = triangles(g);
+        for (int u = 0; u < n; u++) {
+            couleurs[u] = melanger(melanger(g.nbDemiAretes(u)) + triangles[u]);
+        }
+        int nbCouleurs = nbDistinctes(couleurs);
+        for (int tour = 0; tour < n; tour++) {
+            long[] nouvelles = new long[n];
+            for (int u = 0; u < n; u++) {
+                long[] voisines = new long[g.nbDemiAretes(u)];
+                for (int h = g.debut(u); h < g.fin(u); h++) {
+                    voisines[h - g.debut(u)] = couleurs[g.cible(h)];
+                }
+                Arrays.sort(voisines);
+                long couleur = couleurs[u];
+                for (long c : voisines) {
+                    couleur = melanger(couleur + c);
+                }
+                nouvelles[u] = couleur;
+            }
+            couleurs = nouvelles;
+            int nb = nbDistinctes(couleurs);
+            if (nb == nbCouleurs) {
+                break;
+            }
+            nbCouleurs = nb;
+        }
+        Arrays.sort(couleurs);
+        long empreinte = melanger(melanger(n) + g.nbAretes());
+        for (long c : couleurs) {
+            empreinte = melanger(empreinte + c);
+        }
+        return empreinte;
+    }
+
+    /**
+     * @return pour chaque sommet u (par indice dense), le nombre de paires de demi-arêtes u-v, v-w telles que w soit
+     * un voisin de u différent de u et v (deux fois le nombre de triangles passant par u dans un graphe simple), en
+     * O(somme des carrés des degrés)
+     */
+    private static int[] triangles(GrapheCompact g) {
+        int n = g.nbSommets();
+        int[] triangles = new int[n];
+        int[] marques = new int[n];
+        Arrays.fill(marques, -1);
+        for (int u = 0; u < n; u++) {
+            for (int h = g.debut(u); h < g.fin(u); h++) {
+                marques[g.cible(h)] = u;
+            }
+            for (int h = g.debut(u); h < g.fin(u); h++) {
+                int v = g.cible(h);
+                for (int h2 = g.debut(v); h2 < g.fin(v); h2++) {
+                    int w = g.cible(h2);
+                    if (w != u && w != v && marques[w] == u) {
+                        triangles[u]++;
+                    }
+                }
+            }
+        }
+        return triangles;
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64 : chaque bit du résultat dépend de tous les bits de x
+     */
+    private static long melanger(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ x >>> 30) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ x >>> 27) * 0x94D049BB133111EBL;
+        return x ^ x >>> 31;
+    }
+
+    private static int nbDistinctes(long[] couleurs) {
+        long[] triees = couleurs.clone();
+        Arrays.sort(triees);
+        int nb = 0;
+        for (int k = 0; k < triees.length; k++) {
+            if (k == 0 || triees[k] != triees[k - 1]) {
+                nb++;
+            }
+        }
+        return nb;
+    }
+
+    /**
+     * Raffinement de couleurs mené conjointement sur g1 et g2 (les couleurs sont donc comparables d'un graphe à
+     * l'autre). La couleur initiale d'un sommet est son nombre de demi-arêtes.
+     *
+     * @return les couleurs stables des sommets de g1 et de g2 (indexées par indices denses), ou null si les deux
+     * graphes n'ont pas le même nombre de sommets d'une couleur à une étape (ils ne sont alors pas isomorphes)
+     */
+    static int[][] raffiner(GrapheCompact g1, GrapheCompact g2) {
+        int n = g1.nbSommets();
+        int[] c1 = new int[n];
+        int[] c2 = new int[n];
+        for (int u = 0; u < n; u++) {
+            c1[u] = g1.nbDemiAretes(u);
+            c2[u] = g2.nbDemiAretes(u);
+        }
+        int nbCouleurs = -1;
+        while (true) {
+            Map<List<Integer>, Integer> nouvelles = new HashMap<>();
+            int[] n1 = recolorier(g1, c1, nouvelles);
+            int[] n2 = recolorier(g2, c2, nouvelles);
+            if (!memesEffectifs(n1, n2, nouvelles.size())) {
+                return null;
+            }
+            c1 = n1;
+            c2 = n2;
+            if (nouvelles.size() == nbCouleurs) {
+                return new int[][]{c1, c2};
+            }
+            nbCouleurs = nouvelles.size();
+        }
+    }
+
+    private static int[] recolorier(GrapheCompact g, int[] couleurs, Map<List<Integer>, Integer> nouvelles) {
+        int[] resultat = new int[couleurs.length];
+        for (int u = 0; u < couleurs.length; u++) {
+            int[] voisines = new int[g.nbDemiAretes(u)];
+            for (int h = g.debut(u); h < g.fin(u); h++) {
+                voisines[h - g.debut(u)] = couleurs[g.cible(h)];
+            }
+            Arrays.sort(voisines);
+            List<Integer> signature = new ArrayList<>(voisines.length + 1);
+            signature.add(couleurs[u]);
+            for (int c : voisines) {
+                signature.add(c);
+            }
+            resultat[u] = nouvelles.computeIfAbsent(signature, s -> nouvelles.size());
+        }
+        return resultat;
+    }
+
+    private static boolean memesEffectifs(int[] c1, int[] c2, int nbCouleurs) {
+        int[] effectifs = new int[nbCouleurs];
+        for (int c : c1) {
+            effectifs[c]++;
+        }
+        for (int c : c2) {
+            effectifs[c]--;
+        }
+        for (int e : effectifs) {
+            if (e != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recherche par retour arrière d'une bijection entre deux graphes dont les couleurs ont été raffinées
+     */
+    private static final class Recherche {
+        private final GrapheCompact g1;
+        private final GrapheCompact g2;
+        private final int[] c1;
+        private final int[] c2;
+        /**
+         * Sommets de g1 dans l'ordre où ils sont associés
+         */
+        private final int[] ordre;
+        /**
+         * sommetsParCouleur.get(c) : les sommets de g2 de couleur c
+         */
+        private final Map<Integer, List<Integer>> sommetsParCouleur = new HashMap<>();
+        /**
+         * associes1[u] : sommet de g2 associé à u (-1 si aucun) ; associes2[v] : sommet de g1 associé à v
+         */
+        private final int[] associes1;
+        private final int[] associes2;
+        /**
+         * Nombre d'arêtes entre chaque paire de sommets (clé : min * n + max)
+         */
+        private final Map<Long, Integer> multiplicites1;
+        private final Map<Long, Integer> multiplicites2;
+
+        Recherche(GrapheCompact g1, GrapheCompact g2, int[] c1, int[] c2) {
+            this.g1 = g1;
+            this.g2 = g2;
+            this.c1 = c1;
+            this.c2 = c2;
+            int n = g1.nbSommets();
+            associes1 = new int[n];
+            associes2 = new int[n];
+            Arrays.fill(associes1, -1);
+            Arrays.fill(associes2, -1);
+            for (int v = 0; v < n; v++) {
+                sommetsParCouleur.computeIfAbsent(c2[v], c -> new ArrayList<>()).add(v);
+            }
+            multiplicites1 = multiplicites(g1);
+            multiplicites2 = multiplicites(g2);
+            ordre = ordonner();
+        }
+
+        private static Map<Long, Integer> multiplicites(GrapheCompact g) {
+            Map<Long, Integer> multiplicites = new HashMap<>();
+            for (int e = 0; e < g.nbAretes(); e++) {
+                Arete a = g.arete(e);
+                multiplicites.merge(cle(g, g.indice(a.i()), g.indice(a.j())), 1, Integer::sum);
+            }
+            return multiplicites;
+        }
+
+        private static long cle(GrapheCompact g, int u, int v) {
+            return (long) Math.min(u, v) * g.nbSommets() + Math.max(u, v);
+        }
+
+        /**
+         * Ordre d'association : chaque composante connexe est parcourue en largeur en partant d'un sommet de la
+         * couleur la plus rare, de sorte que chaque sommet (sauf les racines) a un voisin déjà associé, ce qui
+         * réduit ses candidats aux voisins de l'image de ce voisin.
+         */
+        private int[] ordonner() {
+            int n = g1.nbSommets();
+            Integer[] racines = new Integer[n];
+            for (int u = 0; u < n; u++) {
+                racines[u] = u;
+            }
+            Arrays.sort(racines, Comparator.comparingInt(u -> sommetsParCouleur.get(c1[u]).size()));
+            int[] ordre = new int[n];
+            boolean[] vus = new boolean[n];
+            int k = 0;
+            for (int racine : racines) {
+                if (vus[racine]) {
+                    continue;
+                }
+                vus[racine] = true;
+                int debut = k;
+                ordre[k++] = racine;
+                while (debut < k) {
+                    int u = ordre[debut++];
+                    for (int h = g1.debut(u); h < g1.fin(u); h++) {
+                        int v = g1.cible(h);
+                        if (!vus[v]) {
+                            vus[v] = true;
+                            ordre[k++] = v;
+                        }
+                    }
+                }
+            }
+            return ordre;
+        }
+
+        int[] chercher() {
+            return associer(0) ? associes1 : null;
+        }
+
+        private boolean associer(int k) {
+            if (k == ordre.length) {
+                return true;
+            }
+            int u = ordre[k];
+            for (int v : candidats(u)) {
+                if (associes2[v] == -1 && c2[v] == c1[u] && compatibles(u, v)) {
+                    associes1[u] = v;
+                    associes2[v] = u;
+                    if (associer(k + 1)) {
+                        return true;
+                    }
+                    associes1[u] = -1;
+                    associes2[v] = -1;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return les sommets de g2 susceptibles d'être associés à u : les voisins de l'image d'un voisin déjà
+         * associé de u s'il y en a un, sinon les sommets de même couleur
+         */
+        private Collection<Integer> candidats(int u) {
+            for (int h = g1.debut(u); h < g1.fin(u); h++) {
+                int w = associes1[g1.cible(h)];
+                if (w != -1) {
+                    Set<Integer> voisins = new LinkedHashSet<>();
+                    for (int h2 = g2.debut(w); h2 < g2.fin(w); h2++) {
+                        voisins.add(g2.cible(h2));
+                    }
+                    return voisins;
+                }
+            }
+            return sommetsParCouleur.get(c1[u]);
+        }
+
+        /**
+         * Vérifie que l'association u -> v est cohérente avec les associations déjà faites : mêmes nombres
+         * d'arêtes entre u et chaque sommet associé w qu'entre v et l'image de w, mêmes nombres de boucles, et pas
+         * d'arête de v vers un sommet associé qui n'ait pas d'antécédent.
+         */
+        private boolean compatibles(int u, int v) {
+            if (!Objects.equals(multiplicites1.get(cle(g1, u, u)), multiplicites2.get(cle(g2, v, v)))) {
+                return false;
+            }
+            int vers1 = 0;
+            for (int h = g1.debut(u); h < g1.fin(u); h++) {
+                int w = g1.cible(h);
+                if (w != u && associes1[w] != -1) {
+                    vers1++;
+                    if (!multiplicites1.get(cle(g1, u, w)).equals(multiplicites2.get(cle(g2, v, associes1[w])))) {
+                        return false;
+                    }
+                }
+            }
+            int vers2 = 0;
+            for (int h = g2.debut(v); h < g2.fin(v); h++) {
+                int x = g2.cible(h);
+                if (x != v && associes2[x] != -1) {
+                    vers2++;
+                }
+            }
+            return vers1 == vers2;
+        }
+    }
+}
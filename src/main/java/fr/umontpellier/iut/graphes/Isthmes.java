@@ -0,0 +1,73 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Recherche de tous les isthmes (ponts) d'un graphe en un seul parcours en profondeur, en O(|V| + |E|)
+ * (algorithme de Tarjan, avec les « points bas » des sommets).
+ * <p>
+ * Le parcours est itératif (pas de récursion, donc pas de débordement de pile sur les grands graphes). Il ignore
+ * l'arête par laquelle on est arrivé sur un sommet, et non le sommet père : deux arêtes parallèles ne sont donc
+ * jamais des isthmes, et une boucle n'en est jamais un.
+ */
+public final class Isthmes {
+    private Isthmes() {
+    }
+
+    /**
+     * @param g le graphe
+     * @return un tableau indexé par les numéros des arêtes de g : la case e vaut true ssi l'arête e est un isthme
+     */
+    public static boolean[] calculer(GrapheCompact g) {
+        int n = g.nbSommets();
+        boolean[] isthmes = new boolean[g.nbAretes()];
+        // ordres[u] : rang de découverte de u (-1 si pas encore vu) ; bas[u] : plus petit rang accessible depuis
+        // le sous-arbre de u par au plus une arête de retour
+        int[] ordres = new int[n];
+        Arrays.fill(ordres, -1);
+        int[] bas = new int[n];
+        int[] aretesPeres = new int[n];
+        int[] prochaines = new int[n];
+        int[] pile = new int[n];
+        int rang = 0;
+        for (int racine = 0; racine < n; racine++) {
+            if (ordres[racine] != -1) {
+                continue;
+            }
+            int hauteur = 0;
+            pile[hauteur++] = racine;
+            ordres[racine] = bas[racine] = rang++;
+            aretesPeres[racine] = -1;
+            prochaines[racine] = g.debut(racine);
+            while (hauteur > 0) {
+                int u = pile[hauteur - 1];
+                if (prochaines[u] < g.fin(u)) {
+                    int h = prochaines[u]++;
+                    int e = g.numeroArete(h);
+                    if (e == aretesPeres[u]) {
+                        continue;
+                    }
+                    int v = g.cible(h);
+                    if (ordres[v] == -1) {
+                        ordres[v] = bas[v] = rang++;
+                        aretesPeres[v] = e;
+                        prochaines[v] = g.debut(v);
+                        pile[hauteur++] = v;
+                    } else {
+                        bas[u] = Math.min(bas[u], ordres[v]);
+                    }
+                } else {
+                    hauteur--;
+                    if (hauteur > 0) {
+                        int pere = pile[hauteur - 1];
+                        bas[pere] = Math.min(bas[pere], bas[u]);
+                        if (bas[u] > ordres[pere]) {
+                            isthmes[aretesPeres[u]] = true;
+                        }
+                    }
+                }
+            }
+        }
+        return isthmes;
+    }
+}
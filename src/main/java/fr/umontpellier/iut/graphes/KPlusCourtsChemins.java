@@ -0,0 +1,228 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Les k plus courts chemins élémentaires (sans répétition de sommet) entre deux sommets, par l'algorithme de Yen.
+ * <p>
+ * Chaque chemin trouvé engendre des chemins « déviés » : pour chaque sommet de déviation du chemin, on garde le
+ * début du chemin (la racine), on interdit les sommets de la racine et les arêtes qui prolongent cette racine dans
+ * les chemins déjà trouvés, et on cherche un plus court chemin de la déviation à l'arrivée. Plusieurs
+ * améliorations évitent les calculs inutiles :
+ * <ul>
+ *     <li>un chemin n'est dévié qu'à partir de son propre sommet de déviation (amélioration de Lawler), les
+ *     déviations antérieures ayant déjà été engendrées par son parent ;</li>
+ *     <li>les distances à l'arrivée dans le graphe sans interdiction, calculées une fois, minorent les
+ *     distances dans les graphes avec interdictions : elles servent d'heuristique exacte à un A* pour chaque
+ *     déviation, et permettent d'écarter sans recherche une déviation dont la racine plus ce minorant dépasse
+ *     déjà le dernier candidat utile ;</li>
+ *     <li>on ne garde que les candidats qui peuvent encore faire partie des k chemins.</li>
+ * </ul>
+ * Les interdictions sont des masques d'arêtes (ensembles de bits), et les recherches réutilisent l'espace de
+ * travail de {@link Dijkstra} du thread courant.
+ */
+public final class KPlusCourtsChemins {
+    private KPlusCourtsChemins() {
+    }
+
+    /**
+     * Chemin candidat : ses sommets et ses arêtes (indices denses et numéros), sa longueur, et l'indice du sommet
+     * à partir duquel il s'écarte de son parent
+     */
+    private record Candidat(int[] sommets, int[] aretes, int longueur, int deviation, long rang) {
+    }
+
+    private static final Comparator<Candidat> ORDRE = Comparator.comparingInt(Candidat::longueur)
+            .thenComparingInt(c -> c.aretes().length).thenComparingLong(Candidat::rang);
+
+    /**
+     * Calcule les k plus courts chemins élémentaires entre deux sommets.
+     *
+     * @param g           le graphe
+     * @param depart      l'identifiant du sommet de départ
+     * @param arrivee     l'identifiant du sommet d'arrivée
+     * @param k           le nombre de chemins souhaités
+     * @param ponderation le poids des arêtes
+     * @return au plus k chemins, par longueur croissante (moins s'il n'y a pas k chemins élémentaires ; vide si l'un
+     * des sommets n'est pas dans le graphe ou s'ils ne sont pas reliés). Deux chemins qui ne diffèrent que par une
+     * arête parallèle sont deux chemins différents.
+     */
+    public static List<Chemin> calculer(GrapheCompact g, int depart, int arrivee, int k, Ponderation ponderation) {
+        return calculer(g, null, depart, arrivee, k, ponderation);
+    }
+
+    /**
+     * Comme {@link #calculer(GrapheCompact, int, int, int, Ponderation)}, en n'empruntant que les arêtes dont le
+     * numéro est dans le masque (ensemble de bits, null pour toutes les arêtes)
+     */
+    static List<Chemin> calculer(GrapheCompact g, long[] masque, int depart, int arrivee, int k,
+                                 Ponderation ponderation) {
+        List<Chemin> chemins = new ArrayList<>();
+        int s = g.indice(depart);
+        int t = g.indice(arrivee);
+        if (s < 0 || t < 0 || k <= 0) {
+            return chemins;
+        }
+        long[] base = new long[(g.nbAretes() + 63) >>> 6];
+        for (int e = 0; e < g.nbAretes(); e++) {
+            if (Dijkstra.contient(masque, e)) {
+                base[e >>> 6] |= 1L << e;
+            }
+        }
+        Dijkstra.Espace e = Dijkstra.espace();
+        Dijkstra.executer(g, base, t, -1, ponderation, e);
+        if (!e.atteint(s)) {
+            return chemins;
+        }
+        int[] versArrivee = new int[g.nbSommets()];
+        for (int u = 0; u < versArrivee.length; u++) {
+            versArrivee[u] = e.distance(u);
+        }
+
+        List<Candidat> trouves = new ArrayList<>();
+        TreeSet<Candidat> candidats = new TreeSet<>(ORDRE);
+        Set<List<Integer>> dejaVus = new HashSet<>();
+        long rang = 0;
+        Candidat premier = rechercher(g, base, new int[]{s}, new int[0], 0, t, versArrivee, ponderation,
+                Dijkstra.INFINI, rang++);
+        candidats.add(premier);
+        dejaVus.add(cle(premier));
+        while (trouves.size() < k && !candidats.isEmpty()) {
+            Candidat chemin = candidats.pollFirst();
+            trouves.add(chemin);
+            int besoin = k - trouves.size();
+            if (besoin == 0) {
+                break;
+            }
+            int coutRacine = 0;
+            for (int i = 0; i < chemin.deviation; i++) {
+                coutRacine += ponderation.poids(g.arete(chemin.aretes[i]));
+            }
+            for (int i = chemin.deviation; i < chemin.sommets.length - 1; i++) {
+                int deviation = chemin.sommets[i];
+                int seuil = seuil(candidats, besoin);
+                if (coutRacine <= seuil && versArrivee[deviation] <= seuil - coutRacine) {
+                    long[] interdits = base.clone();
+                    for (Candidat autre : trouves) {
+                        if (autre.aretes.length > i && Arrays.equals(autre.aretes, 0, i, chemin.aretes, 0, i)) {
+                            interdits[autre.aretes[i] >>> 6] &= ~(1L << autre.aretes[i]);
+                        }
+                    }
+                    for (int j = 0; j < i; j++) {
+                        int u = chemin.sommets[j];
+                        for (int h = g.debut(u); h < g.fin(u); h++) {
+                            interdits[g.numeroArete(h) >>> 6] &= ~(1L << g.numeroArete(h));
+                        }
+                    }
+                    Candidat devie = rechercher(g, interdits, Arrays.copyOf(chemin.sommets, i + 1),
+                            Arrays.copyOf(chemin.aretes, i), coutRacine, t, versArrivee, ponderation, seuil, rang++);
+                    if (devie != null && dejaVus.add(cle(devie))) {
+                        candidats.add(devie);
+                        while (candidats.size() > besoin) {
+                            candidats.pollLast();
+                        }
+                    }
+                }
+                coutRacine += ponderation.poids(g.arete(chemin.aretes[i]));
+            }
+        }
+        for (Candidat c : trouves) {
+            chemins.add(versChemin(g, c));
+        }
+        return chemins;
+    }
+
+    /**
+     * @return la longueur au-delà de laquelle un nouveau candidat ne peut plus faire partie des chemins restant à
+     * trouver ({@link Dijkstra#INFINI} s'il n'y a pas encore assez de candidats)
+     */
+    private static int seuil(TreeSet<Candidat> candidats, int besoin) {
+        return candidats.size() < besoin ? Dijkstra.INFINI : candidats.last().longueur;
+    }
+
+    private static List<Integer> cle(Candidat c) {
+        List<Integer> cle = new ArrayList<>(c.aretes.length);
+        for (int e : c.aretes) {
+            cle.add(e);
+        }
+        return cle;
+    }
+
+    /**
+     * Prolonge une racine (dont le dernier sommet est la déviation) par un plus court chemin jusqu'à t dans le
+     * masque, par A* avec pour heuristique les distances à t sans interdiction.
+     *
+     * @return le candidat obtenu, ou null si t n'est pas accessible ou si le chemin serait plus long que seuil
+     */
+    private static Candidat rechercher(GrapheCompact g, long[] masque, int[] racine, int[] aretesRacine,
+                                       int coutRacine, int t, int[] versArrivee, Ponderation ponderation, int seuil,
+                                       long rang) {
+        int source = racine[racine.length - 1];
+        Dijkstra.Espace e = Dijkstra.espace();
+        e.preparer(g.nbSommets());
+        TasIndexe tas = e.tas;
+        e.versions[source] = e.version;
+        e.distances[source] = coutRacine;
+        e.peres[source] = -1;
+        e.demiAretes[source] = -1;
+        tas.insererOuDiminuer(source, coutRacine + versArrivee[source]);
+        boolean trouve = false;
+        while (!tas.estVide()) {
+            if (tas.priorite(tas.minimum()) > seuil) {
+                break;
+            }
+            int u = tas.extraireMin();
+            if (u == t) {
+                trouve = true;
+                break;
+            }
+            int du = e.distances[u];
+            for (int h = g.debut(u); h < g.fin(u); h++) {
+                if (!Dijkstra.contient(masque, g.numeroArete(h))) {
+                    continue;
+                }
+                int v = g.cible(h);
+                if (versArrivee[v] == Dijkstra.INFINI) {
+                    continue;
+                }
+                int d = du + ponderation.poids(g.arete(g.numeroArete(h)));
+                if (!e.atteint(v) || d < e.distances[v]) {
+                    e.versions[v] = e.version;
+                    e.distances[v] = d;
+                    e.peres[v] = u;
+                    e.demiAretes[v] = h;
+                    tas.insererOuDiminuer(v, d + versArrivee[v]);
+                }
+            }
+        }
+        tas.vider();
+        if (!trouve) {
+            return null;
+        }
+        int nbNouveaux = 0;
+        for (int v = t; v != source; v = e.peres[v]) {
+            nbNouveaux++;
+        }
+        int[] sommets = Arrays.copyOf(racine, racine.length + nbNouveaux);
+        int[] aretes = Arrays.copyOf(aretesRacine, aretesRacine.length + nbNouveaux);
+        int position = nbNouveaux;
+        for (int v = t; v != source; v = e.peres[v]) {
+            sommets[racine.length - 1 + position] = v;
+            aretes[aretesRacine.length + position - 1] = g.numeroArete(e.demiAretes[v]);
+            position--;
+        }
+        return new Candidat(sommets, aretes, e.distances[t], racine.length - 1, rang);
+    }
+
+    private static Chemin versChemin(GrapheCompact g, Candidat c) {
+        List<Integer> sommets = new ArrayList<>(c.sommets.length);
+        for (int u : c.sommets) {
+            sommets.add(g.identifiant(u));
+        }
+        List<Arete> aretes = new ArrayList<>(c.aretes.length);
+        for (int e : c.aretes) {
+            aretes.add(g.arete(e));
+        }
+        return new Chemin(sommets, aretes, c.longueur);
+    }
+}
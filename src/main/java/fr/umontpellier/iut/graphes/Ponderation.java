@@ -0,0 +1,30 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Fonction de poids des arêtes utilisée par les algorithmes de plus courts chemins.
+ * Les poids doivent être positifs ou nuls.
+ */
+@FunctionalInterface
+public interface Ponderation {
+    /**
+     * Poids égal à la longueur de la route de l'arête (1 si l'arête n'a pas de route)
+     */
+    Ponderation LONGUEUR = Arete::longueurRoute;
+
+    /**
+     * Toutes les arêtes ont un poids de 1 (on compte le nombre d'arêtes d'un chemin)
+     */
+    Ponderation SAUT = arete -> 1;
+
+    /**
+     * Poids égal au nombre de pions (wagons et bateaux) nécessaires pour capturer la route de l'arête
+     * (1 si l'arête n'a pas de route)
+     */
+    Ponderation PIONS = arete -> arete.route() == null ? 1
+            : arete.route().getNbPionsWagon() + arete.route().getNbPionsBateau();
+
+    /**
+     * @return le poids de l'arête
+     */
+    int poids(Arete arete);
+}
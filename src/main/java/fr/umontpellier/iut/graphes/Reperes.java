@@ -0,0 +1,304 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recherche de plus courts chemins point à point par l'algorithme A* guidé par des repères (méthode ALT :
+ * « A*, Landmarks, Triangle inequality »).
+ * <p>
+ * On choisit quelques sommets repères L et on calcule une fois pour toutes leurs distances d(L, ·) à tous les
+ * sommets d'un graphe de référence. Par l'inégalité triangulaire, |d(L, t) - d(L, u)| minore la distance de u à t,
+ * et le maximum de ces minorants sur les repères sert d'heuristique (admissible et cohérente) à A*. La recherche
+ * n'explore alors guère que les sommets proches d'un plus court chemin, au lieu de la boule entière de Dijkstra.
+ * <p>
+ * Les minorants restent valables pour tout sous-graphe du graphe de référence (retirer des arêtes ne fait
+ * qu'allonger les distances) et pour toute pondération au moins égale, arête par arête, à celle des repères : on
+ * peut donc calculer les repères sur le plateau complet et chercher à chaque tour dans le graphe des routes libres
+ * et des routes du joueur. Ils ne le sont plus si une arête devient moins chère (par exemple une route possédée
+ * comptée pour 0).
+ * <p>
+ * Une variante bidirectionnelle est proposée : deux A* simultanés (depuis le départ et depuis l'arrivée), avec la
+ * moyenne des deux potentiels pour qu'ils restent cohérents entre eux.
+ */
+public final class Reperes {
+    /**
+     * Nombre de repères utilisé par défaut
+     */
+    public static final int NB_REPERES = 8;
+
+    /**
+     * Deuxième espace de travail par thread, pour la recherche arrière de la variante bidirectionnelle
+     */
+    private static final ThreadLocal<Dijkstra.Espace> ESPACES_ARRIERE = ThreadLocal.withInitial(Dijkstra.Espace::new);
+
+    private final GrapheCompact graphe;
+    private final Ponderation ponderation;
+    private final int n;
+    /**
+     * Indices denses des repères
+     */
+    private final int[] reperes;
+    /**
+     * distances[k * n + u] est la distance du k-ième repère au sommet d'indice u ({@link Dijkstra#INFINI} si u
+     * n'est pas accessible depuis ce repère)
+     */
+    private final int[] distances;
+
+    /**
+     * Choisit les repères et calcule leurs distances, en O(k (|E| + |V|) log |V|).
+     * <p>
+     * Les repères sont choisis « les plus éloignés possible » : chaque nouveau repère est le sommet dont la distance
+     * aux repères déjà choisis est la plus grande (un sommet d'une autre classe de connexité étant infiniment loin,
+     * chaque classe reçoit un repère avant qu'une classe en reçoive un second).
+     *
+     * @param graphe      le graphe de référence
+     * @param ponderation le poids des arêtes
+     * @param nbReperes   le nombre de repères souhaité (au plus le nombre de sommets)
+     */
+    public Reperes(GrapheCompact graphe, Ponderation ponderation, int nbReperes) {
+        this.graphe = graphe;
+        this.ponderation = ponderation;
+        this.n = graphe.nbSommets();
+        int k = Math.min(nbReperes, n);
+        reperes = new int[k];
+        distances = new int[k * n];
+        // plusProches[u] : distance de u au repère le plus proche déjà choisi
+        long[] plusProches = new long[n];
+        Arrays.fill(plusProches, Long.MAX_VALUE);
+        Dijkstra.Espace e = Dijkstra.espace();
+        int suivant = 0;
+        for (int r = 0; r < k; r++) {
+            reperes[r] = suivant;
+            Dijkstra.executer(graphe, suivant, -1, ponderation, e);
+            for (int u = 0; u < n; u++) {
+                int d = e.distance(u);
+                distances[r * n + u] = d;
+                plusProches[u] = Math.min(plusProches[u], d);
+            }
+            for (int u = 0; u < n; u++) {
+                if (plusProches[u] > plusProches[suivant]) {
+                    suivant = u;
+                }
+            }
+        }
+    }
+
+    public Reperes(GrapheCompact graphe, Ponderation ponderation) {
+        this(graphe, ponderation, NB_REPERES);
+    }
+
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    public Ponderation getPonderation() {
+        return ponderation;
+    }
+
+    /**
+     * @return le nombre de repères
+     */
+    public int nbReperes() {
+        return reperes.length;
+    }
+
+    /**
+     * @return un minorant de la distance entre les sommets d'indices u et t, ou {@link Dijkstra#INFINI} si u et t ne
+     * sont pas dans la même classe de connexité du graphe de référence
+     */
+    int minorant(int u, int t) {
+        int minorant = 0;
+        for (int k = 0; k < reperes.length; k++) {
+            int du = distances[k * n + u];
+            int dt = distances[k * n + t];
+            if (du == Dijkstra.INFINI || dt == Dijkstra.INFINI) {
+                if (du != dt) {
+                    return Dijkstra.INFINI;
+                }
+            } else {
+                minorant = Math.max(minorant, Math.abs(dt - du));
+            }
+        }
+        return minorant;
+    }
+
+    /**
+     * Calcule un plus court chemin dans le graphe de référence par A* (pour la pondération des repères)
+     *
+     * @return un plus court chemin de depart à arrivee, ou null s'il n'y en a pas (voir
+     * {@link Dijkstra#plusCourtChemin(GrapheCompact, int, int, Ponderation)})
+     */
+    public Chemin plusCourtChemin(int depart, int arrivee) {
+        return plusCourtChemin(null, depart, arrivee, ponderation);
+    }
+
+    /**
+     * Calcule un plus court chemin par A*, en n'empruntant que les arêtes du masque (null pour toutes)
+     *
+     * @param ponderation une pondération au moins égale à celle des repères sur chaque arête
+     */
+    Chemin plusCourtChemin(long[] masque, int depart, int arrivee, Ponderation ponderation) {
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        if (s < 0 || t < 0 || minorant(s, t) == Dijkstra.INFINI) {
+            return null;
+        }
+        Dijkstra.Espace e = Dijkstra.espace();
+        e.preparer(n);
+        TasIndexe tas = e.tas;
+        e.versions[s] = e.version;
+        e.distances[s] = 0;
+        e.peres[s] = -1;
+        e.demiAretes[s] = -1;
+        tas.insererOuDiminuer(s, minorant(s, t));
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            if (u == t) {
+                break;
+            }
+            int du = e.distances[u];
+            for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+                if (!Dijkstra.contient(masque, graphe.numeroArete(h))) {
+                    continue;
+                }
+                int v = graphe.cible(h);
+                int d = du + ponderation.poids(graphe.arete(graphe.numeroArete(h)));
+                if (!e.atteint(v) || d < e.distances[v]) {
+                    e.versions[v] = e.version;
+                    e.distances[v] = d;
+                    e.peres[v] = u;
+                    e.demiAretes[v] = h;
+                    tas.insererOuDiminuer(v, d + minorant(v, t));
+                }
+            }
+        }
+        tas.vider();
+        return e.atteint(t) ? Dijkstra.chemin(graphe, e, t) : null;
+    }
+
+    /**
+     * Calcule un plus court chemin dans le graphe de référence par A* bidirectionnel (pour la pondération des
+     * repères)
+     *
+     * @return un plus court chemin de depart à arrivee, ou null s'il n'y en a pas
+     */
+    public Chemin plusCourtCheminBidirectionnel(int depart, int arrivee) {
+        return plusCourtCheminBidirectionnel(null, depart, arrivee, ponderation);
+    }
+
+    /**
+     * A* bidirectionnel, en n'empruntant que les arêtes du masque (null pour toutes).
+     * <p>
+     * Les deux recherches utilisent les potentiels p(v) = (π_t(v) - π_s(v)) / 2 et -p(v), où π_t et π_s sont les
+     * minorants vers l'arrivée et vers le départ : les coûts réduits sont alors les mêmes dans les deux sens, et
+     * l'on peut s'arrêter, comme pour un Dijkstra bidirectionnel, dès que la somme des deux plus petites clés
+     * atteint la longueur du meilleur chemin trouvé. Les clés sont doublées pour rester entières.
+     *
+     * @param ponderation une pondération au moins égale à celle des repères sur chaque arête
+     */
+    Chemin plusCourtCheminBidirectionnel(long[] masque, int depart, int arrivee, Ponderation ponderation) {
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        if (s < 0 || t < 0 || minorant(s, t) == Dijkstra.INFINI) {
+            return null;
+        }
+        if (s == t) {
+            return new Chemin(List.of(depart), List.of(), 0);
+        }
+        Dijkstra.Espace avant = Dijkstra.espace();
+        Dijkstra.Espace arriere = ESPACES_ARRIERE.get();
+        avant.preparer(n);
+        arriere.preparer(n);
+        initialiser(avant, s, potentiel(s, s, t));
+        initialiser(arriere, t, -potentiel(t, s, t));
+        // meilleur : longueur du meilleur chemin trouvé, passant par la demi-arête jonction
+        long meilleur = Dijkstra.INFINI;
+        int jonction = -1;
+        int depuis = -1;
+        while (!avant.tas.estVide() && !arriere.tas.estVide()) {
+            long cles = (long) avant.tas.priorite(avant.tas.minimum()) + arriere.tas.priorite(arriere.tas.minimum());
+            if (cles >= 2 * meilleur) {
+                break;
+            }
+            boolean versAvant = avant.tas.taille() <= arriere.tas.taille();
+            Dijkstra.Espace e = versAvant ? avant : arriere;
+            Dijkstra.Espace autre = versAvant ? arriere : avant;
+            int u = e.tas.extraireMin();
+            int du = e.distances[u];
+            for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+                if (!Dijkstra.contient(masque, graphe.numeroArete(h))) {
+                    continue;
+                }
+                int v = graphe.cible(h);
+                if (v == u) {
+                    continue;
+                }
+                int d = du + ponderation.poids(graphe.arete(graphe.numeroArete(h)));
+                if (!e.atteint(v) || d < e.distances[v]) {
+                    e.versions[v] = e.version;
+                    e.distances[v] = d;
+                    e.peres[v] = u;
+                    e.demiAretes[v] = h;
+                    int p = potentiel(v, s, t);
+                    e.tas.insererOuDiminuer(v, 2 * d + (versAvant ? p : -p));
+                }
+                if (autre.atteint(v) && (long) d + autre.distances[v] < meilleur) {
+                    meilleur = (long) d + autre.distances[v];
+                    jonction = h;
+                    depuis = versAvant ? u : v;
+                }
+            }
+        }
+        avant.tas.vider();
+        arriere.tas.vider();
+        if (jonction == -1) {
+            return null;
+        }
+        return raccorder(avant, arriere, jonction, depuis, (int) meilleur);
+    }
+
+    /**
+     * @return le double du potentiel de la recherche avant au sommet d'indice v : π_t(v) - π_s(v)
+     */
+    private int potentiel(int v, int s, int t) {
+        return minorant(v, t) - minorant(v, s);
+    }
+
+    private static void initialiser(Dijkstra.Espace e, int source, int cle) {
+        e.versions[source] = e.version;
+        e.distances[source] = 0;
+        e.peres[source] = -1;
+        e.demiAretes[source] = -1;
+        e.tas.insererOuDiminuer(source, cle);
+    }
+
+    /**
+     * @return le chemin formé du chemin de la recherche avant jusqu'à u, de la demi-arête jonction (de u vers son
+     * autre extrémité v), puis du chemin de la recherche arrière de v jusqu'à l'arrivée
+     */
+    private Chemin raccorder(Dijkstra.Espace avant, Dijkstra.Espace arriere, int jonction, int u, int longueur) {
+        Arete areteJonction = graphe.arete(graphe.numeroArete(jonction));
+        int v = graphe.indice(areteJonction.getAutreSommet(graphe.identifiant(u)));
+        List<Integer> sommets = new ArrayList<>();
+        List<Arete> aretes = new ArrayList<>();
+        for (int w = u; w != -1; w = avant.peres[w]) {
+            sommets.add(graphe.identifiant(w));
+            if (avant.peres[w] != -1) {
+                aretes.add(graphe.arete(graphe.numeroArete(avant.demiAretes[w])));
+            }
+        }
+        Collections.reverse(sommets);
+        Collections.reverse(aretes);
+        aretes.add(areteJonction);
+        for (int w = v; w != -1; w = arriere.peres[w]) {
+            sommets.add(graphe.identifiant(w));
+            if (arriere.peres[w] != -1) {
+                aretes.add(graphe.arete(graphe.numeroArete(arriere.demiAretes[w])));
+            }
+        }
+        return new Chemin(sommets, aretes, longueur);
+    }
+}
@@ -0,0 +1,144 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Tests de graphicité des suites de degrés : une suite d'entiers est graphique s'il existe un graphe simple
+ * (sans boucle ni arête parallèle) dont les sommets ont exactement ces degrés.
+ * <p>
+ * Le test utilise le théorème d'Erdős–Gallai : une suite décroissante d1 >= ... >= dn de somme paire est graphique
+ * ssi pour tout k, d1 + ... + dk <= k(k-1) + min(d(k+1), k) + ... + min(dn, k). Une fois la suite triée, toutes
+ * les inégalités sont vérifiées en O(n) grâce aux sommes préfixes ; le coût total est celui du tri.
+ */
+public final class SequenceDegres {
+    private SequenceDegres() {
+    }
+
+    /**
+     * Test d'Erdős–Gallai en O(n log n) (tri par comparaisons)
+     *
+     * @return true ssi la suite est la suite des degrés d'un graphe simple
+     */
+    public static boolean estGraphique(int[] degres) {
+        int[] decroissants = degres.clone();
+        Arrays.sort(decroissants);
+        for (int i = 0, j = decroissants.length - 1; i < j; i++, j--) {
+            int tmp = decroissants[i];
+            decroissants[i] = decroissants[j];
+            decroissants[j] = tmp;
+        }
+        return erdosGallai(decroissants);
+    }
+
+    /**
+     * Test d'Erdős–Gallai en O(n) : un degré d'un graphe simple à n sommets est au plus n-1, la suite peut donc
+     * être triée par dénombrement
+     *
+     * @return true ssi la suite est la suite des degrés d'un graphe simple
+     */
+    public static boolean estGraphiqueTriDenombrement(int[] degres) {
+        int n = degres.length;
+        int[] effectifs = new int[n];
+        for (int d : degres) {
+            if (d < 0 || d >= n) {
+                return false;
+            }
+            effectifs[d]++;
+        }
+        int[] decroissants = new int[n];
+        int k = 0;
+        for (int d = n - 1; d >= 0; d--) {
+            for (int e = 0; e < effectifs[d]; e++) {
+                decroissants[k++] = d;
+            }
+        }
+        return erdosGallai(decroissants);
+    }
+
+    /**
+     * @param decroissants une suite triée dans l'ordre décroissant
+     */
+    private static boolean erdosGallai(int[] decroissants) {
+        int n = decroissants.length;
+        if (n == 0) {
+            return true;
+        }
+        if (decroissants[n - 1] < 0 || decroissants[0] >= n) {
+            return false;
+        }
+        long[] prefixes = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefixes[i + 1] = prefixes[i] + decroissants[i];
+        }
+        if (prefixes[n] % 2 != 0) {
+            return false;
+        }
+        // q : nombre de termes >= k ; il ne fait que diminuer quand k augmente
+        int q = n;
+        for (int k = 1; k <= n; k++) {
+            while (q > 0 && decroissants[q - 1] < k) {
+                q--;
+            }
+            // parmi les termes d'indice > k, ceux d'indice < q valent au moins k et comptent pour k
+            long droite = (long) k * (k - 1) + (long) k * Math.max(0, q - k) + prefixes[n] - prefixes[Math.max(k, q)];
+            if (prefixes[k] > droite) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Teste un lot de suites en parallèle (chacune avec {@link #estGraphiqueTriDenombrement(int[])})
+     *
+     * @return un tableau dont la case i indique si la i-ème suite est graphique
+     */
+    public static boolean[] estGraphiqueParLot(List<int[]> sequences) {
+        boolean[] resultats = new boolean[sequences.size()];
+        IntStream.range(0, sequences.size()).parallel()
+                .forEach(i -> resultats[i] = estGraphiqueTriDenombrement(sequences.get(i)));
+        return resultats;
+    }
+
+    /**
+     * Construit un graphe simple réalisant la suite, par l'algorithme de Havel–Hakimi : le sommet de plus grand
+     * degré restant est relié aux sommets de plus grands degrés restants suivants, en O(m log n).
+     *
+     * @return un graphe de sommets 0..n-1 dans lequel le sommet i est de degré degres[i], ou null si la suite
+     * n'est pas graphique
+     */
+    public static Graphe realiser(int[] degres) {
+        if (!estGraphique(degres)) {
+            return null;
+        }
+        int n = degres.length;
+        Graphe g = new Graphe(n);
+        int[] restants = degres.clone();
+        PriorityQueue<Integer> file = new PriorityQueue<>(Math.max(1, n),
+                Comparator.<Integer>comparingInt(v -> restants[v]).reversed().thenComparingInt(v -> v));
+        for (int v = 0; v < n; v++) {
+            if (restants[v] > 0) {
+                file.add(v);
+            }
+        }
+        List<Integer> voisins = new ArrayList<>();
+        while (!file.isEmpty()) {
+            int v = file.poll();
+            voisins.clear();
+            for (int k = restants[v]; k > 0; k--) {
+                // la suite étant graphique, il reste toujours assez de sommets
+                voisins.add(file.poll());
+            }
+            restants[v] = 0;
+            for (int w : voisins) {
+                g.ajouterArete(new Arete(v, w));
+                restants[w]--;
+                if (restants[w] > 0) {
+                    file.add(w);
+                }
+            }
+        }
+        return g;
+    }
+}
@@ -0,0 +1,457 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Vue d'un sous-graphe d'un {@link GrapheCompact}, qui partage les tableaux du graphe d'origine au lieu de les
+ * copier : le sous-graphe est décrit par deux ensembles de bits, l'un sur les indices denses des sommets, l'autre
+ * sur les numéros des arêtes (une arête n'est dans la vue que si ses deux extrémités y sont). Construire une vue
+ * coûte O(|V| / 64 + |E|), et les parcours filtrent les arêtes au fil de l'eau.
+ * <p>
+ * Trois sortes de vues sont proposées : le sous-graphe induit par un ensemble de sommets, le sous-graphe des
+ * arêtes qui vérifient une condition, et le sous-graphe des arêtes qui portent certaines routes (par exemple les
+ * routes d'un joueur, les routes libres, ou les deux). Les vues se combinent par {@link #union(SousGraphe)}.
+ * <p>
+ * Une vue peut être modifiée comme un {@link Graphe} : à la première modification, elle est recopiée dans un
+ * Graphe qui lui est propre (copie à l'écriture), et toutes les opérations portent ensuite sur cette copie. Le
+ * graphe d'origine n'est jamais modifié.
+ */
+public final class SousGraphe {
+    private final GrapheCompact base;
+    /**
+     * Ensemble de bits des indices denses des sommets de la vue
+     */
+    private final long[] sommets;
+    /**
+     * Ensemble de bits des numéros des arêtes de la vue
+     */
+    private final long[] aretes;
+    private final int nbSommets;
+    private final int nbAretes;
+    /**
+     * Copie de la vue, créée à la première modification (null tant que la vue n'est pas modifiée)
+     */
+    private Graphe copie;
+
+    private SousGraphe(GrapheCompact base, long[] sommets, long[] aretes) {
+        this.base = base;
+        this.sommets = sommets;
+        this.aretes = aretes;
+        // une arête n'est gardée que si ses deux extrémités sont dans la vue
+        int m = 0;
+        for (int e = 0; e < base.nbAretes(); e++) {
+            if (contientBit(aretes, e)) {
+                Arete a = base.arete(e);
+                if (contientBit(sommets, base.indice(a.i())) && contientBit(sommets, base.indice(a.j()))) {
+                    m++;
+                } else {
+                    aretes[e >>> 6] &= ~(1L << e);
+                }
+            }
+        }
+        int n = 0;
+        for (long mot : sommets) {
+            n += Long.bitCount(mot);
+        }
+        this.nbSommets = n;
+        this.nbAretes = m;
+    }
+
+    private static boolean contientBit(long[] bits, int k) {
+        return (bits[k >>> 6] & 1L << k) != 0;
+    }
+
+    private static long[] tous(int taille) {
+        long[] bits = new long[(taille + 63) >>> 6];
+        for (int k = 0; k < taille; k++) {
+            bits[k >>> 6] |= 1L << k;
+        }
+        return bits;
+    }
+
+    /**
+     * @return le sous-graphe de base induit par les sommets de X qui sont dans base
+     */
+    public static SousGraphe induit(GrapheCompact base, Collection<Integer> X) {
+        long[] sommets = new long[(base.nbSommets() + 63) >>> 6];
+        for (int v : X) {
+            int u = base.indice(v);
+            if (u >= 0) {
+                sommets[u >>> 6] |= 1L << u;
+            }
+        }
+        return new SousGraphe(base, sommets, tous(base.nbAretes()));
+    }
+
+    /**
+     * @return le sous-graphe de base formé de tous ses sommets et des arêtes qui vérifient le filtre
+     */
+    public static SousGraphe parAretes(GrapheCompact base, Predicate<Arete> filtre) {
+        long[] aretes = new long[(base.nbAretes() + 63) >>> 6];
+        for (int e = 0; e < base.nbAretes(); e++) {
+            if (filtre.test(base.arete(e))) {
+                aretes[e >>> 6] |= 1L << e;
+            }
+        }
+        return new SousGraphe(base, tous(base.nbSommets()), aretes);
+    }
+
+    /**
+     * @return le sous-graphe de base formé de tous ses sommets et des arêtes qui portent l'une des routes
+     */
+    public static SousGraphe parRoutes(GrapheCompact base, Collection<Route> routes) {
+        Set<Route> ensemble = routes instanceof Set<Route> s ? s : new HashSet<>(routes);
+        return parAretes(base, a -> ensemble.contains(a.route()));
+    }
+
+    /**
+     * @return la vue qui contient les sommets et les arêtes de this et de autre (prérequis : même graphe de base,
+     * vues non modifiées)
+     */
+    public SousGraphe union(SousGraphe autre) {
+        if (autre.base != base || copie != null || autre.copie != null) {
+            throw new IllegalArgumentException("union de vues de graphes différents ou modifiées");
+        }
+        long[] s = sommets.clone();
+        long[] a = aretes.clone();
+        for (int k = 0; k < s.length; k++) {
+            s[k] |= autre.sommets[k];
+        }
+        for (int k = 0; k < a.length; k++) {
+            a[k] |= autre.aretes[k];
+        }
+        return new SousGraphe(base, s, a);
+    }
+
+    /**
+     * @return true ssi la vue a été modifiée (et porte donc sur sa propre copie)
+     */
+    public boolean estCopiee() {
+        return copie != null;
+    }
+
+    /**
+     * @return un nouveau Graphe, indépendant de la vue, qui a les mêmes sommets et les mêmes arêtes
+     */
+    public Graphe toGraphe() {
+        if (copie != null) {
+            Graphe g = new Graphe(copie.ensembleAretes());
+            copie.ensembleSommets().forEach(g::ajouterSommet);
+            return g;
+        }
+        Graphe g = new Graphe();
+        for (int u = 0; u < base.nbSommets(); u++) {
+            if (contientBit(sommets, u)) {
+                g.ajouterSommet(base.identifiant(u));
+            }
+        }
+        for (int e = 0; e < base.nbAretes(); e++) {
+            if (contientBit(aretes, e)) {
+                g.ajouterArete(base.arete(e));
+            }
+        }
+        return g;
+    }
+
+    private Graphe copie() {
+        if (copie == null) {
+            copie = toGraphe();
+        }
+        return copie;
+    }
+
+    public int nbSommets() {
+        return copie != null ? copie.nbSommets() : nbSommets;
+    }
+
+    public int nbAretes() {
+        return copie != null ? copie.nbAretes() : nbAretes;
+    }
+
+    public boolean contientSommet(int v) {
+        if (copie != null) {
+            return copie.contientSommet(v);
+        }
+        int u = base.indice(v);
+        return u >= 0 && contientBit(sommets, u);
+    }
+
+    public boolean existeArete(Arete a) {
+        if (copie != null) {
+            return copie.existeArete(a);
+        }
+        int u = base.indice(a.i());
+        if (u < 0) {
+            return false;
+        }
+        for (int h = base.debut(u); h < base.fin(u); h++) {
+            int e = base.numeroArete(h);
+            if (contientBit(aretes, e) && base.arete(e).equals(a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return l'ensemble des sommets de la vue
+     */
+    public Set<Integer> ensembleSommets() {
+        if (copie != null) {
+            return copie.ensembleSommets();
+        }
+        Set<Integer> ensemble = new LinkedHashSet<>();
+        for (int u = 0; u < base.nbSommets(); u++) {
+            if (contientBit(sommets, u)) {
+                ensemble.add(base.identifiant(u));
+            }
+        }
+        return ensemble;
+    }
+
+    /**
+     * @return l'ensemble des arêtes de la vue
+     */
+    public Set<Arete> ensembleAretes() {
+        if (copie != null) {
+            return copie.ensembleAretes();
+        }
+        Set<Arete> ensemble = new HashSet<>();
+        for (int e = 0; e < base.nbAretes(); e++) {
+            if (contientBit(aretes, e)) {
+                ensemble.add(base.arete(e));
+            }
+        }
+        return ensemble;
+    }
+
+    /**
+     * @return l'ensemble des voisins de v dans la vue (vide si v n'est pas dans la vue)
+     */
+    public Set<Integer> getVoisins(int v) {
+        if (copie != null) {
+            return copie.getVoisins(v);
+        }
+        Set<Integer> voisins = new HashSet<>();
+        int u = base.indice(v);
+        if (u >= 0 && contientBit(sommets, u)) {
+            for (int h = base.debut(u); h < base.fin(u); h++) {
+                if (contientBit(aretes, base.numeroArete(h))) {
+                    voisins.add(base.identifiant(base.cible(h)));
+                }
+            }
+        }
+        return voisins;
+    }
+
+    /**
+     * @return le nombre de voisins distincts de v dans la vue
+     */
+    public int degre(int v) {
+        return copie != null ? copie.degre(v) : getVoisins(v).size();
+    }
+
+    /**
+     * @return la classe de connexité de v dans la vue (vide si v n'est pas dans la vue), par un parcours en
+     * largeur qui ne suit que les arêtes de la vue
+     */
+    public Set<Integer> getClasseConnexite(int v) {
+        if (copie != null) {
+            return copie.getClasseConnexite(v);
+        }
+        Set<Integer> classe = new HashSet<>();
+        int depart = base.indice(v);
+        if (depart < 0 || !contientBit(sommets, depart)) {
+            return classe;
+        }
+        boolean[] vus = new boolean[base.nbSommets()];
+        int[] file = new int[base.nbSommets()];
+        int debut = 0;
+        int fin = 0;
+        file[fin++] = depart;
+        vus[depart] = true;
+        while (debut < fin) {
+            int u = file[debut++];
+            classe.add(base.identifiant(u));
+            for (int h = base.debut(u); h < base.fin(u); h++) {
+                int w = base.cible(h);
+                if (!vus[w] && contientBit(aretes, base.numeroArete(h))) {
+                    vus[w] = true;
+                    file[fin++] = w;
+                }
+            }
+        }
+        return classe;
+    }
+
+    /**
+     * @return true ssi i et j sont des sommets de la vue reliés par un chemin de la vue
+     */
+    public boolean sontConnectes(int i, int j) {
+        if (copie != null) {
+            return copie.sontConnectes(i, j);
+        }
+        return contientSommet(j) && getClasseConnexite(i).contains(j);
+    }
+
+    /**
+     * @return true ssi la vue est connexe (une vue sans sommet n'est pas connexe)
+     */
+    public boolean estConnexe() {
+        if (copie != null) {
+            return copie.estConnexe();
+        }
+        if (nbSommets == 0) {
+            return false;
+        }
+        for (int u = 0; u < base.nbSommets(); u++) {
+            if (contientBit(sommets, u)) {
+                return getClasseConnexite(base.identifiant(u)).size() == nbSommets;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return un plus court chemin de la vue entre deux sommets, ou null s'il n'y en a pas (voir {@link Dijkstra})
+     */
+    public Chemin plusCourtChemin(int depart, int arrivee, Ponderation ponderation) {
+        if (copie != null) {
+            return copie.plusCourtChemin(depart, arrivee, ponderation);
+        }
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return null;
+        }
+        return Dijkstra.plusCourtChemin(base, aretes, depart, arrivee, ponderation);
+    }
+
+    /**
+     * @return un plus court chemin de la vue entre deux sommets, ou null s'il n'y en a pas, par A* guidé par des
+     * repères calculés sur le graphe de base de la vue (voir {@link Reperes}). Prérequis : la pondération est au
+     * moins égale à celle des repères sur chaque arête.
+     */
+    public Chemin plusCourtChemin(int depart, int arrivee, Reperes reperes, Ponderation ponderation) {
+        if (copie != null || reperes.getGraphe() != base) {
+            return plusCourtChemin(depart, arrivee, ponderation);
+        }
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return null;
+        }
+        return reperes.plusCourtCheminBidirectionnel(aretes, depart, arrivee, ponderation);
+    }
+
+    /**
+     * @return les k plus courts chemins élémentaires de la vue entre deux sommets, par longueur croissante (voir
+     * {@link KPlusCourtsChemins})
+     */
+    public List<Chemin> kPlusCourtsChemins(int depart, int arrivee, int k, Ponderation ponderation) {
+        if (copie != null) {
+            return copie.kPlusCourtsChemins(depart, arrivee, k, ponderation);
+        }
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return new ArrayList<>();
+        }
+        return KPlusCourtsChemins.calculer(base, aretes, depart, arrivee, k, ponderation);
+    }
+
+    /**
+     * @return la frontière de Pareto des chemins de la vue entre deux sommets pour deux critères (voir
+     * {@link CheminsPareto})
+     */
+    public List<CheminsPareto.Solution> cheminsPareto(int depart, int arrivee, Ponderation premier,
+                                                      Ponderation second) {
+        if (copie != null) {
+            return copie.cheminsPareto(depart, arrivee, premier, second);
+        }
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return new ArrayList<>();
+        }
+        return CheminsPareto.frontiere(base, aretes, depart, arrivee, premier, second, Dijkstra.INFINI,
+                Dijkstra.INFINI);
+    }
+
+    /**
+     * @return un chemin de la vue de coût total minimal parmi ceux qui respectent les deux budgets, ou null s'il
+     * n'y en a pas (voir {@link CheminsPareto})
+     */
+    public CheminsPareto.Solution plusCourtCheminSousContraintes(int depart, int arrivee, Ponderation premier,
+                                                                 Ponderation second, int maxPremier, int maxSecond) {
+        if (copie != null) {
+            return copie.plusCourtCheminSousContraintes(depart, arrivee, premier, second, maxPremier, maxSecond);
+        }
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return null;
+        }
+        return CheminsPareto.plusCourtCheminSousContraintes(base, aretes, depart, arrivee, premier, second,
+                maxPremier, maxSecond);
+    }
+
+    /**
+     * @return un arbre de Steiner de la vue reliant les terminaux, ou null s'il n'y en a pas (voir
+     * {@link ArbreSteiner})
+     */
+    public List<Arete> arbreSteiner(Collection<Integer> terminaux, Ponderation ponderation) {
+        if (copie != null) {
+            return copie.arbreSteiner(terminaux, ponderation);
+        }
+        for (int t : terminaux) {
+            if (!contientSommet(t)) {
+                return null;
+            }
+        }
+        return ArbreSteiner.calculer(base, aretes, terminaux, ponderation);
+    }
+
+    /**
+     * @return une forêt couvrante minimale de la vue (algorithme de Kruskal, voir {@link ArbreCouvrant})
+     */
+    public List<Arete> arbreCouvrantKruskal(Ponderation ponderation) {
+        if (copie != null) {
+            return ArbreCouvrant.kruskal(copie.getGrapheCompact(), ponderation);
+        }
+        return ArbreCouvrant.kruskal(base, aretes, ponderation);
+    }
+
+    /**
+     * @return une forêt de la vue qui relie entre eux les sommets de chaque groupe (voir {@link ArbreCouvrant})
+     */
+    public List<Arete> foretTerminaux(Collection<? extends Collection<Integer>> groupes, Ponderation ponderation) {
+        if (copie != null) {
+            return copie.foretTerminaux(groupes, ponderation);
+        }
+        return ArbreCouvrant.foretTerminaux(base, aretes, groupes, ponderation);
+    }
+
+    /**
+     * @return une coupe minimale de la vue entre deux sommets, vide s'ils ne sont pas reliés (voir
+     * {@link FlotMaximal})
+     */
+    public List<Arete> coupeMinimale(int depart, int arrivee, Ponderation capacites) {
+        if (copie != null) {
+            return copie.coupeMinimale(depart, arrivee, capacites);
+        }
+        FlotMaximal flot = new FlotMaximal(base);
+        flot.fixerCapacites(aretes, capacites);
+        flot.calculer(depart, arrivee);
+        return flot.coupeMinimale();
+    }
+
+    public void ajouterSommet(int v) {
+        copie().ajouterSommet(v);
+    }
+
+    public void ajouterArete(Arete a) {
+        copie().ajouterArete(a);
+    }
+
+    public void supprimerArete(Arete a) {
+        copie().supprimerArete(a);
+    }
+
+    public void supprimerSommet(int v) {
+        copie().supprimerSommet(v);
+    }
+}
@@ -0,0 +1,296 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Table des plus courts chemins entre tous les couples de sommets d'un {@link GrapheCompact} : distances et
+ * arbres de plus courts chemins, calculés une fois pour toutes (un Dijkstra par source, en parallèle).
+ * <p>
+ * Une table est immuable : elle peut être partagée entre plusieurs parties et plusieurs threads. Pour tenir
+ * compte de routes qui ne sont plus disponibles, {@link #sansAretes(Collection)} construit une nouvelle table
+ * en ne recalculant que les lignes dont l'arbre de plus courts chemins utilisait une arête retirée.
+ * <p>
+ * Les tableaux sont indexés par les indices denses du graphe compact : la case {@code s * n + u} concerne le
+ * sommet d'indice u vu depuis la source d'indice s.
+ */
+public final class TableDistances {
+    /**
+     * Nombre maximal de sommets d'une table : les tableaux ont n * n cases, qui doivent tenir dans un int
+     */
+    public static final int NB_SOMMETS_MAX = 46340;
+    /**
+     * Nombre maximal de tables partagées gardées en mémoire (voir {@link #partagee})
+     */
+    static final int NB_PARTAGEES_MAX = 8;
+    /**
+     * Données déjà calculées, partagées entre les graphes de même forme (voir {@link #partagee}). Seules les
+     * NB_PARTAGEES_MAX dernières utilisées sont gardées. Tous les accès se font en tenant le verrou de la map.
+     */
+    private static final Map<Signature, Donnees> PARTAGEES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Signature, Donnees> plusAncienne) {
+            return size() > NB_PARTAGEES_MAX;
+        }
+    };
+
+    private final GrapheCompact graphe;
+    private final Ponderation ponderation;
+    private final int n;
+    /**
+     * distances[s * n + u] est la distance de s à u ({@link Dijkstra#INFINI} si u n'est pas accessible)
+     */
+    private final int[] distances;
+    /**
+     * peres[s * n + u] est le sommet qui précède u sur un plus court chemin de s à u (-1 pour s et pour les
+     * sommets inaccessibles). Comme le graphe n'est pas orienté, c'est aussi le sommet qui suit u sur un plus
+     * court chemin de u à s.
+     */
+    private final int[] peres;
+
+    /**
+     * Tableaux d'une table, qui ne sont plus jamais modifiés une fois remplis
+     */
+    private record Donnees(int[] distances, int[] peres) {
+    }
+
+    /**
+     * Forme d'un graphe pondéré indépendamment des identifiants de ses sommets et de l'ordre de ses arêtes :
+     * nombre de sommets et liste triée des triplets (indice, indice, poids), chacun sur 21 bits d'un long
+     */
+    private static final class Signature {
+        private static final int BITS = 21;
+        private final int n;
+        private final long[] aretes;
+
+        private Signature(int n, long[] aretes) {
+            this.n = n;
+            this.aretes = aretes;
+        }
+
+        /**
+         * @return la signature de g, ou null si un indice ou un poids ne tient pas sur 21 bits (deux graphes
+         * différents pourraient alors avoir la même signature)
+         */
+        static Signature de(GrapheCompact g, Ponderation ponderation) {
+            if (g.nbSommets() > 1 << BITS) {
+                return null;
+            }
+            long[] aretes = new long[g.nbAretes()];
+            for (int e = 0; e < aretes.length; e++) {
+                Arete a = g.arete(e);
+                long u = g.indice(Math.min(a.i(), a.j()));
+                long v = g.indice(Math.max(a.i(), a.j()));
+                int poids = ponderation.poids(a);
+                if (poids < 0 || poids >= 1 << BITS) {
+                    return null;
+                }
+                aretes[e] = (u << 2 * BITS) | (v << BITS) | poids;
+            }
+            Arrays.sort(aretes);
+            return new Signature(g.nbSommets(), aretes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature s && n == s.n && Arrays.equals(aretes, s.aretes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * n + Arrays.hashCode(aretes);
+        }
+    }
+
+    /**
+     * Calcule la table de tous les plus courts chemins de g, en O(|V| (|V| + |E|) log |V|) réparti sur les cœurs
+     * disponibles.
+     *
+     * @param g           le graphe, d'au plus {@link #NB_SOMMETS_MAX} sommets
+     * @param ponderation le poids des arêtes
+     * @throws IllegalArgumentException si g a trop de sommets
+     */
+    public TableDistances(GrapheCompact g, Ponderation ponderation) {
+        this(g, ponderation, calculer(g, ponderation));
+    }
+
+    private TableDistances(GrapheCompact g, Ponderation ponderation, Donnees donnees) {
+        this.graphe = g;
+        this.ponderation = ponderation;
+        this.n = g.nbSommets();
+        this.distances = donnees.distances();
+        this.peres = donnees.peres();
+    }
+
+    /**
+     * Renvoie la table de g, en réutilisant les tableaux déjà calculés pour un graphe de même forme (mêmes
+     * nombres de sommets, mêmes arêtes entre sommets de mêmes indices denses, mêmes poids). C'est le cas des
+     * plateaux construits par la même méthode : leurs villes ont des identifiants différents mais créés dans le
+     * même ordre.
+     * <p>
+     * Seules les dernières tables utilisées sont gardées (voir {@link #NB_PARTAGEES_MAX}). Une table dont un poids
+     * ne tient pas sur 21 bits est calculée sans être partagée.
+     *
+     * @throws IllegalArgumentException si g a plus de {@link #NB_SOMMETS_MAX} sommets
+     */
+    public static TableDistances partagee(GrapheCompact g, Ponderation ponderation) {
+        Signature signature = Signature.de(g, ponderation);
+        if (signature == null) {
+            return new TableDistances(g, ponderation);
+        }
+        Donnees donnees;
+        synchronized (PARTAGEES) {
+            donnees = PARTAGEES.get(signature);
+        }
+        if (donnees == null) {
+            // calcul hors du verrou : les autres formes restent accessibles pendant ce temps
+            Donnees calculees = calculer(g, ponderation);
+            synchronized (PARTAGEES) {
+                donnees = PARTAGEES.putIfAbsent(signature, calculees);
+            }
+            if (donnees == null) {
+                donnees = calculees;
+            }
+        }
+        return new TableDistances(g, ponderation, donnees);
+    }
+
+    /**
+     * @return le nombre de tables partagées actuellement gardées en mémoire
+     */
+    static int nbPartagees() {
+        synchronized (PARTAGEES) {
+            return PARTAGEES.size();
+        }
+    }
+
+    private static Donnees calculer(GrapheCompact g, Ponderation ponderation) {
+        int n = g.nbSommets();
+        if (n > NB_SOMMETS_MAX) {
+            throw new IllegalArgumentException("trop de sommets pour une table de distances : " + n);
+        }
+        int[] distances = new int[n * n];
+        int[] peres = new int[n * n];
+        IntStream.range(0, n).parallel().forEach(s -> remplirLigne(g, ponderation, s, distances, peres));
+        return new Donnees(distances, peres);
+    }
+
+    private static void remplirLigne(GrapheCompact g, Ponderation ponderation, int s, int[] distances, int[] peres) {
+        int n = g.nbSommets();
+        Dijkstra.Espace e = Dijkstra.espace();
+        Dijkstra.executer(g, s, -1, ponderation, e);
+        for (int u = 0; u < n; u++) {
+            distances[s * n + u] = e.distance(u);
+            peres[s * n + u] = e.atteint(u) ? e.peres[u] : -1;
+        }
+    }
+
+    /**
+     * @return le graphe sur lequel la table a été calculée
+     */
+    public GrapheCompact getGraphe() {
+        return graphe;
+    }
+
+    /**
+     * @return la distance entre les sommets d'identifiants depart et arrivee, ou {@link Dijkstra#INFINI} si
+     * arrivee n'est pas accessible depuis depart ou si l'un des deux n'est pas un sommet
+     */
+    public int distance(int depart, int arrivee) {
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        return s < 0 || t < 0 ? Dijkstra.INFINI : distances[s * n + t];
+    }
+
+    /**
+     * @return la distance entre les sommets d'indices denses s et t (ou {@link Dijkstra#INFINI})
+     */
+    public int distanceIndices(int s, int t) {
+        return distances[s * n + t];
+    }
+
+    /**
+     * @return un plus court chemin de depart à arrivee (identifiants), ou null si l'un des sommets n'est pas dans
+     * le graphe ou si arrivee n'est pas accessible depuis depart
+     */
+    public Chemin chemin(int depart, int arrivee) {
+        int s = graphe.indice(depart);
+        int t = graphe.indice(arrivee);
+        if (s < 0 || t < 0 || distances[s * n + t] == Dijkstra.INFINI) {
+            return null;
+        }
+        List<Integer> sommets = new ArrayList<>();
+        List<Arete> aretes = new ArrayList<>();
+        sommets.add(depart);
+        // on remonte l'arbre de racine t : le père de u y est le sommet suivant de u vers t
+        for (int u = s; u != t; u = peres[t * n + u]) {
+            int v = peres[t * n + u];
+            aretes.add(meilleureArete(u, v));
+            sommets.add(graphe.identifiant(v));
+        }
+        return new Chemin(sommets, aretes, distances[s * n + t]);
+    }
+
+    /**
+     * @return une arête de poids minimal entre les sommets d'indices u et v (prérequis : ils sont adjacents)
+     */
+    private Arete meilleureArete(int u, int v) {
+        Arete meilleure = null;
+        for (int h = graphe.debut(u); h < graphe.fin(u); h++) {
+            if (graphe.cible(h) == v) {
+                Arete a = graphe.arete(graphe.numeroArete(h));
+                if (meilleure == null || ponderation.poids(a) < ponderation.poids(meilleure)) {
+                    meilleure = a;
+                }
+            }
+        }
+        return meilleure;
+    }
+
+    /**
+     * Construit la table du même graphe privé de certaines arêtes (par exemple les routes capturées par les
+     * adversaires). Seules les lignes dont l'arbre de plus courts chemins emprunte une arête retirée sont
+     * recalculées, les autres sont recopiées. La table courante n'est pas modifiée.
+     *
+     * @param retirees les arêtes à retirer (celles qui ne sont pas dans le graphe sont ignorées)
+     */
+    public TableDistances sansAretes(Collection<Arete> retirees) {
+        Set<Arete> ensembleRetirees = new HashSet<>(retirees);
+        List<Arete> restantes = new ArrayList<>();
+        List<Arete> effectivementRetirees = new ArrayList<>();
+        for (int e = 0; e < graphe.nbAretes(); e++) {
+            Arete a = graphe.arete(e);
+            (ensembleRetirees.contains(a) ? effectivementRetirees : restantes).add(a);
+        }
+        if (effectivementRetirees.isEmpty()) {
+            return this;
+        }
+        GrapheCompact g = new GrapheCompact(graphe.ensembleSommets(), restantes);
+        int[] nouvellesDistances = distances.clone();
+        int[] nouveauxPeres = peres.clone();
+        IntStream.range(0, n).parallel()
+                .filter(s -> utiliseUneArete(s, effectivementRetirees))
+                .forEach(s -> remplirLigne(g, ponderation, s, nouvellesDistances, nouveauxPeres));
+        return new TableDistances(g, ponderation, new Donnees(nouvellesDistances, nouveauxPeres));
+    }
+
+    /**
+     * @return true si l'arbre de plus courts chemins de source s peut emprunter l'une des arêtes (test prudent :
+     * une arête parallèle de même poids suffirait, mais la ligne sera quand même recalculée)
+     */
+    private boolean utiliseUneArete(int s, List<Arete> aretes) {
+        for (Arete a : aretes) {
+            int u = graphe.indice(a.i());
+            int v = graphe.indice(a.j());
+            int poids = ponderation.poids(a);
+            if (estArcDeLArbre(s, u, v, poids) || estArcDeLArbre(s, v, u, poids)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean estArcDeLArbre(int s, int pere, int fils, int poids) {
+        return peres[s * n + fils] == pere && distances[s * n + fils] - distances[s * n + pere] == poids;
+    }
+}
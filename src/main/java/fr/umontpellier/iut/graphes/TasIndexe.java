@@ -0,0 +1,143 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * File de priorité (tas binaire minimum) sur des éléments 0..n-1 avec des priorités entières.
+ * Chaque élément connaît sa position dans le tas, ce qui permet de diminuer sa priorité en O(log n)
+ * (opération nécessaire à l'algorithme de Dijkstra).
+ */
+public class TasIndexe {
+    /**
+     * Éléments du tas, rangés de 0 à taille-1
+     */
+    private int[] tas;
+    /**
+     * positions[e] est la position de l'élément e dans tas, ou -1 s'il n'est pas dans le tas
+     */
+    private int[] positions;
+    /**
+     * priorites[e] est la priorité de l'élément e (significative seulement s'il est dans le tas)
+     */
+    private int[] priorites;
+    private int taille;
+
+    /**
+     * Construit un tas vide pouvant contenir les éléments 0..capacite-1
+     */
+    public TasIndexe(int capacite) {
+        tas = new int[capacite];
+        positions = new int[capacite];
+        Arrays.fill(positions, -1);
+        priorites = new int[capacite];
+    }
+
+    /**
+     * @return le nombre d'éléments que le tas peut contenir
+     */
+    public int capacite() {
+        return positions.length;
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * @return true ssi l'élément e est dans le tas
+     */
+    public boolean contient(int e) {
+        return positions[e] != -1;
+    }
+
+    /**
+     * Insère e avec la priorité p, ou diminue sa priorité si e est déjà dans le tas avec une priorité plus grande
+     */
+    public void insererOuDiminuer(int e, int p) {
+        if (positions[e] == -1) {
+            tas[taille] = e;
+            positions[e] = taille;
+            priorites[e] = p;
+            monter(taille++);
+        } else if (p < priorites[e]) {
+            priorites[e] = p;
+            monter(positions[e]);
+        }
+    }
+
+    /**
+     * @return la priorité de l'élément e (prérequis : e est dans le tas)
+     */
+    public int priorite(int e) {
+        return priorites[e];
+    }
+
+    /**
+     * @return l'élément de plus petite priorité, sans le retirer (prérequis : le tas n'est pas vide)
+     */
+    public int minimum() {
+        return tas[0];
+    }
+
+    /**
+     * Retire et renvoie l'élément de plus petite priorité (prérequis : le tas n'est pas vide)
+     */
+    public int extraireMin() {
+        int min = tas[0];
+        positions[min] = -1;
+        taille--;
+        if (taille > 0) {
+            tas[0] = tas[taille];
+            positions[tas[0]] = 0;
+            descendre(0);
+        }
+        return min;
+    }
+
+    /**
+     * Vide le tas, en temps proportionnel au nombre d'éléments qu'il contient
+     */
+    public void vider() {
+        for (int k = 0; k < taille; k++) {
+            positions[tas[k]] = -1;
+        }
+        taille = 0;
+    }
+
+    private void monter(int k) {
+        int e = tas[k];
+        while (k > 0) {
+            int parent = (k - 1) / 2;
+            if (priorites[tas[parent]] <= priorites[e]) {
+                break;
+            }
+            tas[k] = tas[parent];
+            positions[tas[k]] = k;
+            k = parent;
+        }
+        tas[k] = e;
+        positions[e] = k;
+    }
+
+    private void descendre(int k) {
+        int e = tas[k];
+        while (2 * k + 1 < taille) {
+            int fils = 2 * k + 1;
+            if (fils + 1 < taille && priorites[tas[fils + 1]] < priorites[tas[fils]]) {
+                fils++;
+            }
+            if (priorites[tas[fils]] >= priorites[e]) {
+                break;
+            }
+            tas[k] = tas[fils];
+            positions[tas[k]] = k;
+            k = fils;
+        }
+        tas[k] = e;
+        positions[e] = k;
+    }
+}
@@ -0,0 +1,190 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Structure d'ensembles disjoints (union-find) sur des sommets identifiés par des entiers positifs ou nuls,
+ * avec compression de chemins et union par rang.
+ * <p>
+ * En plus des opérations classiques, chaque classe est chaînée circulairement (tableau suivant), ce qui permet
+ * d'énumérer les éléments d'une classe en temps proportionnel à sa taille, et le nombre de classes est maintenu.
+ * Les opérations trouver et unir sont en temps quasi constant (amorti O(α(n))).
+ */
+public class UnionFind {
+    /**
+     * parents[v] est le parent de v dans sa forêt, v s'il est racine, et -1 si v n'est pas un élément
+     */
+    private int[] parents;
+    /**
+     * rangs[r] est un majorant de la hauteur de l'arbre de racine r
+     */
+    private int[] rangs;
+    /**
+     * suivants[v] est l'élément qui suit v dans la liste circulaire de sa classe
+     */
+    private int[] suivants;
+    /**
+     * tailles[r] est le nombre d'éléments de la classe de racine r
+     */
+    private int[] tailles;
+    /**
+     * Nombre d'éléments
+     */
+    private int nbElements;
+    /**
+     * Nombre de classes
+     */
+    private int nbClasses;
+
+    /**
+     * Construit une structure vide
+     */
+    public UnionFind() {
+        this(0);
+    }
+
+    /**
+     * Construit une structure vide, dimensionnée pour des éléments de 0 à capacite-1
+     */
+    public UnionFind(int capacite) {
+        parents = new int[capacite];
+        Arrays.fill(parents, -1);
+        rangs = new int[capacite];
+        suivants = new int[capacite];
+        tailles = new int[capacite];
+    }
+
+    /**
+     * Ajoute v comme nouvelle classe réduite à lui-même, s'il n'est pas déjà présent
+     */
+    public void ajouter(int v) {
+        if (v >= parents.length) {
+            int capacite = Math.max(v + 1, 2 * parents.length);
+            int ancienne = parents.length;
+            parents = Arrays.copyOf(parents, capacite);
+            Arrays.fill(parents, ancienne, capacite, -1);
+            rangs = Arrays.copyOf(rangs, capacite);
+            suivants = Arrays.copyOf(suivants, capacite);
+            tailles = Arrays.copyOf(tailles, capacite);
+        }
+        if (parents[v] == -1) {
+            parents[v] = v;
+            rangs[v] = 0;
+            suivants[v] = v;
+            tailles[v] = 1;
+            nbElements++;
+            nbClasses++;
+        }
+    }
+
+    /**
+     * @return true ssi v est un élément de la structure
+     */
+    public boolean contient(int v) {
+        return v >= 0 && v < parents.length && parents[v] != -1;
+    }
+
+    /**
+     * @return le représentant de la classe de v (prérequis : v est un élément)
+     */
+    public int trouver(int v) {
+        int racine = v;
+        while (parents[racine] != racine) {
+            racine = parents[racine];
+        }
+        // compression de chemin
+        while (parents[v] != racine) {
+            int parent = parents[v];
+            parents[v] = racine;
+            v = parent;
+        }
+        return racine;
+    }
+
+    /**
+     * Réunit les classes de a et b (les éléments absents sont ajoutés)
+     *
+     * @return true si les deux classes étaient différentes
+     */
+    public boolean unir(int a, int b) {
+        ajouter(a);
+        ajouter(b);
+        int ra = trouver(a);
+        int rb = trouver(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (rangs[ra] < rangs[rb]) {
+            int tmp = ra;
+            ra = rb;
+            rb = tmp;
+        }
+        parents[rb] = ra;
+        if (rangs[ra] == rangs[rb]) {
+            rangs[ra]++;
+        }
+        tailles[ra] += tailles[rb];
+        // fusion des deux listes circulaires
+        int tmp = suivants[ra];
+        suivants[ra] = suivants[rb];
+        suivants[rb] = tmp;
+        nbClasses--;
+        return true;
+    }
+
+    /**
+     * @return true ssi a et b sont des éléments de la même classe
+     */
+    public boolean sontConnectes(int a, int b) {
+        return contient(a) && contient(b) && trouver(a) == trouver(b);
+    }
+
+    /**
+     * @return le nombre de classes
+     */
+    public int nbClasses() {
+        return nbClasses;
+    }
+
+    /**
+     * @return le nombre d'éléments
+     */
+    public int nbElements() {
+        return nbElements;
+    }
+
+    /**
+     * @return le nombre d'éléments de la classe de v (0 si v n'est pas un élément)
+     */
+    public int taille(int v) {
+        return contient(v) ? tailles[trouver(v)] : 0;
+    }
+
+    /**
+     * @return les éléments de la classe de v, en temps proportionnel à sa taille (vide si v n'est pas un élément)
+     */
+    public Set<Integer> classe(int v) {
+        Set<Integer> classe = new HashSet<>();
+        if (contient(v)) {
+            int w = v;
+            do {
+                classe.add(w);
+                w = suivants[w];
+            } while (w != v);
+        }
+        return classe;
+    }
+
+    /**
+     * @return l'ensemble des classes, en O(n)
+     */
+    public Set<Set<Integer>> classes() {
+        Set<Set<Integer>> classes = new HashSet<>();
+        for (int v = 0; v < parents.length; v++) {
+            if (parents[v] == v) {
+                classes.add(classe(v));
+            }
+        }
+        return classes;
+    }
+}
@@ -1,12 +1,17 @@
 package fr.umontpellier.iut.rails;
 
 import com.google.gson.Gson;
+import fr.umontpellier.iut.graphes.Arete;
+import fr.umontpellier.iut.graphes.FlotMaximal;
+import fr.umontpellier.iut.graphes.Intermediarite;
+import fr.umontpellier.iut.graphes.Ponderation;
 import fr.umontpellier.iut.gui.GameServer;
 import fr.umontpellier.iut.rails.data.*;
 
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
 
 public class Jeu implements Runnable {
     /**
@@ -41,6 +46,22 @@ public class Jeu implements Runnable {
      * Pile des cartes "Destination"
      */
     private final List<Destination> pileDestinations;
+    /**
+     * Toutes les cartes destination du jeu, telles qu'elles étaient avant la première pioche
+     */
+    private final List<Destination> destinations;
+    /**
+     * Centralité des routes libres pour les destinations du jeu (voir {@link #getRoutesDisputees()})
+     */
+    private Intermediarite intermediarite;
+    /**
+     * Routes déjà retirées de intermediarite
+     */
+    private final Set<Route> routesRetireesIntermediarite = new HashSet<>();
+    /**
+     * Réseau de flot du plateau, partagé par les joueurs (voir {@link #getFlots()})
+     */
+    private FlotMaximal flots;
     /**
      * File d'attente des instructions recues par le serveur
      */
@@ -67,7 +88,7 @@ public class Jeu implements Runnable {
         // création des villes et des routes
         this.plateau = Plateau.makePlateauMonde();
         portsLibres = plateau.getPorts();
-        routesLibres = plateau.getRoutes();
+        routesLibres = new ArrayList<>(plateau.getRoutes());
 
         // création des piles de pioche et défausses des cartes Transport (wagon et
         // bateau)
@@ -107,6 +128,7 @@ public class Jeu implements Runnable {
 
         // création des destinations
         pileDestinations = Destination.makeDestinationsMonde();
+        destinations = List.copyOf(pileDestinations);
         Collections.shuffle(pileDestinations);
 
         // création des joueurs
@@ -165,6 +187,66 @@ public class Jeu implements Runnable {
         return null;
     }
 
+    /**
+     * Renvoie, pour chaque route libre, le nombre de destinations du jeu dont les plus
+     * courts chemins (en nombre de pions) entre les routes libres l'empruntent
+     * (centralité d'intermédiarité pondérée par les cartes destination, voir
+     * {@link Intermediarite}). Les routes qui ne servent à aucune destination sont
+     * omises.
+     * <p>
+     * La centralité est calculée une fois sur le plateau, puis mise à jour après
+     * chaque capture en ne recalculant que les villes de départ dont les plus courts
+     * chemins passaient par les routes capturées.
+     */
+    public Map<Route, Double> getRoutesDisputees() {
+        if (intermediarite == null || !Collections.disjoint(routesLibres, routesRetireesIntermediarite)) {
+            // une route a été rendue (ne se produit pas en cours de partie) : on repart du plateau
+            List<List<Integer>> trajets = new ArrayList<>();
+            for (Destination d : destinations) {
+                trajets.add(d.getVilles().stream().map(nom -> plateau.getVille(nom).getId()).toList());
+            }
+            intermediarite = new Intermediarite(plateau.getGrapheCompact(), Ponderation.PIONS, trajets);
+            routesRetireesIntermediarite.clear();
+        }
+        Set<Route> libres = new HashSet<>(routesLibres);
+        List<Arete> retirees = new ArrayList<>();
+        for (Route r : plateau.getRoutes()) {
+            if (!libres.contains(r) && routesRetireesIntermediarite.add(r)) {
+                retirees.add(Plateau.areteDe(r));
+            }
+        }
+        intermediarite.retirerAretes(retirees);
+        Map<Route, Double> routesDisputees = new HashMap<>();
+        intermediarite.centralites().forEach((a, centralite) -> routesDisputees.put(a.route(), centralite));
+        return routesDisputees;
+    }
+
+    /**
+     * Renvoie le réseau de flot du graphe de toutes les routes du plateau. Il est créé
+     * une seule fois, et chaque joueur y fixe ses capacités avant de l'utiliser (voir
+     * {@link Joueur#routesCritiquesPourDestinations()}).
+     */
+    FlotMaximal getFlots() {
+        if (flots == null) {
+            flots = new FlotMaximal(plateau.getGrapheCompact());
+        }
+        return flots;
+    }
+
+    /**
+     * Renvoie, pour chaque joueur, les routes critiques de chacune de ses destinations
+     * incomplètes (voir {@link Joueur#routesCritiquesPourDestinations()}). Tous les
+     * calculs réutilisent le même réseau de flot : ses capacités sont fixées une fois
+     * par joueur, puis chaque destination ne coûte qu'un calcul de flot.
+     */
+    public Map<Joueur, Map<Destination, List<Route>>> getRoutesCritiques() {
+        Map<Joueur, Map<Destination, List<Route>>> routesCritiques = new LinkedHashMap<>();
+        for (Joueur j : joueurs) {
+            routesCritiques.put(j, j.routesCritiquesPourDestinations());
+        }
+        return routesCritiques;
+    }
+
     /**
      * Renvoie une copie de la liste des cartes transport visibles du jeu
      */
@@ -493,6 +575,8 @@ public class Jeu implements Runnable {
                 Map.entry("piocheBateau", pilesDeCartesBateau.dataMap()),
                 Map.entry("cartesTransportVisibles", cartesTransportVisibles),
                 Map.entry("nbDestinations", pileDestinations.size()),
+                Map.entry("routesDisputees", getRoutesDisputees().entrySet().stream()
+                        .collect(Collectors.toMap(e -> e.getKey().getNom(), Map.Entry::getValue))),
                 Map.entry("instruction", instruction),
                 Map.entry("boutons", boutons),
                 Map.entry("log", log));
@@ -2,8 +2,20 @@ package fr.umontpellier.iut.rails;
 
 import java.util.*;
 
+import fr.umontpellier.iut.graphes.ArbreCouvrant;
 import fr.umontpellier.iut.graphes.Arete;
+import fr.umontpellier.iut.graphes.Chemin;
+import fr.umontpellier.iut.graphes.CheminsPareto;
+import fr.umontpellier.iut.graphes.Dijkstra;
+import fr.umontpellier.iut.graphes.DistancesDecrementales;
+import fr.umontpellier.iut.graphes.FlotMaximal;
 import fr.umontpellier.iut.graphes.Graphe;
+import fr.umontpellier.iut.graphes.GrapheBits;
+import fr.umontpellier.iut.graphes.GrapheCompact;
+import fr.umontpellier.iut.graphes.Ponderation;
+import fr.umontpellier.iut.graphes.SousGraphe;
+import fr.umontpellier.iut.graphes.TableDistances;
+import fr.umontpellier.iut.graphes.UnionFind;
 import fr.umontpellier.iut.rails.data.*;
 
 public class Joueur {
@@ -11,6 +23,11 @@ public class Joueur {
         JAUNE, ROUGE, BLEU, VERT, ROSE;
     }
 
+    /**
+     * Nombre de chemins proposés pour chaque destination incomplète (voir {@link #alternativesPourDestination})
+     */
+    private static final int NB_ALTERNATIVES = 5;
+
     /**
      * Jeu auquel le joueur est rattaché
      */
@@ -65,6 +82,37 @@ public class Joueur {
      * perdus lors des échanges de pions)
      */
     private int score;
+    /**
+     * Classes de connexité du réseau des routes du joueur, sur les indices denses des villes dans le graphe compact
+     * du plateau (voir {@link #getConnexions()})
+     */
+    private UnionFind connexions;
+    /**
+     * Nombre de routes, au début de la liste routes, déjà prises en compte dans connexions
+     */
+    private int nbRoutesConnexions;
+    /**
+     * Table des plus courts chemins du plateau privé des routes capturées par les adversaires
+     * (voir {@link #getTableDistances()})
+     */
+    private TableDistances tableDistances;
+    /**
+     * Routes adverses déjà retirées de tableDistances
+     */
+    private final Set<Route> routesAdversesTable = new HashSet<>();
+    /**
+     * Plus courts chemins (en pions à capturer) du plateau privé des routes capturées par
+     * les adversaires (voir {@link #getDistances()})
+     */
+    private DistancesDecrementales distances;
+    /**
+     * Routes du joueur au moment de la construction de distances (elles y coûtent 0)
+     */
+    private Set<Route> routesJoueurDistances = new HashSet<>();
+    /**
+     * Routes adverses déjà retirées de distances
+     */
+    private final Set<Route> routesAdversesDistances = new HashSet<>();
 
     public Joueur(String nom, Jeu jeu, CouleurJouer couleur) {
         this.nom = nom;
@@ -648,49 +696,54 @@ public class Joueur {
             this.nbPionsWagon -= r.getNbPionsWagon();
             this.score += r.getScore();
             routes.add(r);
+            getConnexions();
         }
     }
 
-    private Set<String> getNomsVillesVoisines(String nomVille) {
-        Set<String> nomsVillesVoisines = new HashSet<>();
-        for (Route r : routes) {
-            if (r.getVille1().nom().equals(nomVille)) {
-                nomsVillesVoisines.add(r.getVille2().nom());
-            } else if (r.getVille2().nom().equals(nomVille)) {
-                nomsVillesVoisines.add(r.getVille1().nom());
-            }
+    /**
+     * Renvoie les classes de connexité du réseau des routes du joueur, tenues à jour à chaque capture de route.
+     * Les routes ajoutées à la fin de la liste depuis le dernier appel sont réunies une à une. Une union ne se
+     * défaisant pas, les classes ne sont recalculées que si la liste a raccourci (route retirée) : les routes ne
+     * sont jamais remplacées en cours de partie.
+     */
+    private UnionFind getConnexions() {
+        GrapheCompact plateau = jeu.getPlateau().getGrapheCompact();
+        if (connexions == null || routes.size() < nbRoutesConnexions) {
+            connexions = new UnionFind(plateau.nbSommets());
+            nbRoutesConnexions = 0;
+        }
+        for (; nbRoutesConnexions < routes.size(); nbRoutesConnexions++) {
+            Route r = routes.get(nbRoutesConnexions);
+            connexions.unir(plateau.indice(r.getVille1().getId()), plateau.indice(r.getVille2().getId()));
         }
-        return nomsVillesVoisines;
+        return connexions;
+    }
+
+    /**
+     * Renvoie l'identifiant de la ville du plateau qui porte ce nom, ou -1 s'il n'y en a pas
+     */
+    private int identifiantVille(String nomVille) {
+        Ville v = jeu.getPlateau().getVille(nomVille);
+        return v == null ? -1 : v.getId();
     }
 
     boolean villesSontConnectees(String nomVille1, String nomVille2) {
-        List<String> frontiere = new ArrayList<>();
-        Set<String> dejaVues = new HashSet<>();
-        frontiere.add(nomVille1);
-        dejaVues.add(nomVille1);
-
-        while (!frontiere.isEmpty()) {
-            String nomVille = frontiere.remove(0);
-            if (nomVille.equals(nomVille2)) {
-                return true;
-            }
-            for (String nomVilleVoisine : getNomsVillesVoisines(nomVille)) {
-                if (!dejaVues.contains(nomVilleVoisine)) {
-                    frontiere.add(nomVilleVoisine);
-                    dejaVues.add(nomVilleVoisine);
-                }
-            }
+        if (nomVille1.equals(nomVille2)) {
+            return true;
         }
-        return false;
+        GrapheCompact plateau = jeu.getPlateau().getGrapheCompact();
+        return getConnexions().sontConnectes(plateau.indice(identifiantVille(nomVille1)),
+                plateau.indice(identifiantVille(nomVille2)));
     }
 
+    /**
+     * Une destination est complète si toutes ses villes sont reliées par les routes du joueur : une recherche de
+     * représentant par ville
+     */
     boolean destinationEstComplete(Destination d) {
-        // ATTENTION : cette méthode est incomplète, car elle ne gère pas complètement
-        // les Destinations Itinéraire (elle n'est pas forcément la plus adaptée si on
-        // veut utiliser des graphes...).
-        // Elle est à réécrire en utilisant les Graphes
-        for (int i = 0; i < d.getVilles().size() - 1; i++) {
-            if (!villesSontConnectees(d.getVilles().get(i), d.getVilles().get(i + 1))) {
+        List<String> villes = d.getVilles();
+        for (int i = 1; i < villes.size(); i++) {
+            if (!villesSontConnectees(villes.get(0), villes.get(i))) {
                 return false;
             }
         }
@@ -744,7 +797,18 @@ public class Joueur {
         List<Destination> destinationsIncompletes = destinations.stream().filter(d -> !destinationEstComplete(d))
                 .toList();
         List<List<String>> routesPourDestinationsIncompletes = new ArrayList<>();
+        List<List<List<String>>> alternativesPourDestinationsIncompletes = new ArrayList<>();
+        List<List<String>> routesCritiquesPourDestinationsIncompletes = new ArrayList<>();
+        List<Integer> longueursPourDestinationsIncompletes = new ArrayList<>();
+        List<List<String>> trajetsPourDestinationsIncompletes = new ArrayList<>();
+        Map<Destination, List<Route>> routesCritiques = routesCritiquesPourDestinations();
         for (Destination d : destinationsIncompletes) {
+            longueursPourDestinationsIncompletes.add(longueurTrajetPourDestination(d));
+            trajetsPourDestinationsIncompletes.add(trajetPourDestination(d).stream().map(Route::getNom).toList());
+            routesCritiquesPourDestinationsIncompletes.add(routesCritiques.getOrDefault(d, List.of()).stream()
+                    .map(Route::getNom).toList());
+            alternativesPourDestinationsIncompletes.add(alternativesPourDestination(d, NB_ALTERNATIVES).stream()
+                    .map(alternative -> alternative.stream().map(Route::getNom).toList()).toList());
             Collection<Route> routes = routesEnSurbrillancePourDestination(d);
             if (routes == null) {
                 routesPourDestinationsIncompletes.add(new ArrayList<>());
@@ -762,6 +826,10 @@ public class Joueur {
                 Map.entry("pionsBateau", nbPionsBateau),
                 Map.entry("pionsBateauReserve", nbPionsBateauEnReserve),
                 Map.entry("routesPourDestinations", routesPourDestinationsIncompletes),
+                Map.entry("alternativesPourDestinations", alternativesPourDestinationsIncompletes),
+                Map.entry("routesCritiquesPourDestinations", routesCritiquesPourDestinationsIncompletes),
+                Map.entry("longueursPourDestinations", longueursPourDestinationsIncompletes),
+                Map.entry("trajetsPourDestinations", trajetsPourDestinationsIncompletes),
                 Map.entry("destinationsIncompletes", destinationsIncompletes),
                 Map.entry("destinationsCompletes", destinationsCompletes),
                 Map.entry("main", cartesTransport.stream().sorted().toList()),
@@ -770,30 +838,297 @@ public class Joueur {
                 Map.entry("routes", routes.stream().map(Route::getNom).toList()));
     }
 
+    /**
+     * Renvoie les routes capturées par les adversaires du joueur
+     */
+    private Set<Route> getRoutesAdverses() {
+        Set<Route> routesAdverses = new HashSet<>();
+        for (Joueur j : jeu.getJoueurs()) {
+            if (j != this) {
+                routesAdverses.addAll(j.routes);
+            }
+        }
+        return routesAdverses;
+    }
+
+    /**
+     * Renvoie la table des plus courts chemins (en nombre de pions) entre les villes,
+     * en n'utilisant que les routes qui ne sont pas capturées par les adversaires.
+     * <p>
+     * La table est dérivée de celle du plateau et mise à jour incrémentalement : seules
+     * les routes capturées par les adversaires depuis le dernier appel sont retirées, et
+     * seules les lignes de la table qui les utilisaient sont recalculées.
+     */
+    TableDistances getTableDistances() {
+        Set<Route> routesAdverses = getRoutesAdverses();
+        if (tableDistances == null || !routesAdverses.containsAll(routesAdversesTable)) {
+            // une route adverse a été rendue (ne se produit pas en cours de partie) : on repart du plateau
+            tableDistances = jeu.getPlateau().getTableDistances();
+            routesAdversesTable.clear();
+        }
+        routesAdverses.removeAll(routesAdversesTable);
+        if (!routesAdverses.isEmpty()) {
+            tableDistances = tableDistances.sansAretes(routesAdverses.stream().map(Plateau::areteDe).toList());
+            routesAdversesTable.addAll(routesAdverses);
+        }
+        return tableDistances;
+    }
+
+    /**
+     * Renvoie les plus courts chemins entre les villes par des routes que le joueur
+     * possède ou peut encore capturer, pondérés par le coût de capture (voir
+     * {@link #coutCapture(Set)}).
+     * <p>
+     * La structure est reconstruite lorsque les routes du joueur changent, puisque leur
+     * coût change ; sinon, les routes capturées par les adversaires depuis le dernier
+     * appel en sont simplement retirées, et seuls les arbres de plus courts chemins qui
+     * les empruntaient sont réparés (voir {@link DistancesDecrementales}).
+     */
+    DistancesDecrementales getDistances() {
+        Set<Route> routesAdverses = getRoutesAdverses();
+        if (distances == null || !routesJoueurDistances.equals(new HashSet<>(routes))
+                || !routesAdverses.containsAll(routesAdversesDistances)) {
+            routesJoueurDistances = new HashSet<>(routes);
+            distances = new DistancesDecrementales(jeu.getPlateau().getGrapheCompact(),
+                    coutCapture(routesJoueurDistances));
+            routesAdversesDistances.clear();
+        }
+        routesAdverses.removeAll(routesAdversesDistances);
+        for (Route r : routesAdverses) {
+            distances.retirerArete(Plateau.areteDe(r));
+            routesAdversesDistances.add(r);
+        }
+        return distances;
+    }
+
+    /**
+     * Renvoie le nombre de pions du plus court trajet qui relie les villes de la
+     * destination (dans l'ordre pour un itinéraire) par des routes que le joueur possède
+     * ou peut encore capturer, ses propres routes comptant pour leur nombre de pions.
+     * C'est la longueur du trajet quel que soit le propriétaire des routes, lue dans la
+     * table de {@link #getTableDistances()} sans nouveau calcul de plus court chemin.
+     *
+     * @return la longueur du trajet, ou -1 si les villes ne peuvent plus être reliées
+     */
+    public int longueurTrajetPourDestination(Destination d) {
+        TableDistances table = getTableDistances();
+        List<String> villes = d.getVilles();
+        int longueur = 0;
+        for (int k = 0; k + 1 < villes.size(); k++) {
+            int distance = table.distance(identifiantVille(villes.get(k)), identifiantVille(villes.get(k + 1)));
+            if (distance == Dijkstra.INFINI) {
+                return -1;
+            }
+            longueur += distance;
+        }
+        return longueur;
+    }
+
+    /**
+     * Renvoie les routes d'un plus court trajet (en nombre de pions) qui relie les villes
+     * de la destination, dans l'ordre pour un itinéraire, par des routes que le joueur
+     * possède ou peut encore capturer. Contrairement à
+     * {@link #routesPourCompleterDestination(Destination)}, les routes du joueur comptent
+     * pour leur nombre de pions : le trajet est le plus court sur le plateau, et chaque
+     * étape est cherchée par A* guidé par les repères du plateau (voir
+     * {@link Plateau#getReperes()}), dont les bornes restent valables puisque les routes
+     * utilisables gardent leur longueur.
+     * <p>
+     * La méthode renvoie une liste vide si les villes ne peuvent plus être reliées.
+     */
+    public List<Route> trajetPourDestination(Destination d) {
+        Plateau plateau = jeu.getPlateau();
+        SousGraphe grapheUtilisable = getGrapheUtilisable();
+        List<String> villes = d.getVilles();
+        List<Route> trajet = new ArrayList<>();
+        for (int k = 0; k + 1 < villes.size(); k++) {
+            Chemin etape = grapheUtilisable.plusCourtChemin(identifiantVille(villes.get(k)),
+                    identifiantVille(villes.get(k + 1)), plateau.getReperes(), Ponderation.PIONS);
+            if (etape == null) {
+                return new ArrayList<>();
+            }
+            for (Arete a : etape.aretes()) {
+                trajet.add(a.route());
+            }
+        }
+        return trajet;
+    }
+
+    /**
+     * Renvoie false si les villes de la destination ne sont plus toutes reliées par
+     * des routes que le joueur possède ou peut encore capturer : un seul parcours en
+     * largeur sur les bits des villes du plateau (voir {@link GrapheBits})
+     */
+    private boolean destinationEstRealisable(Destination d) {
+        List<Route> routesUtilisables = jeu.getRoutesLibres();
+        routesUtilisables.addAll(routes);
+        return GrapheBits.parRoutes(jeu.getPlateau().getGrapheCompact(), routesUtilisables)
+                .sontTousConnectes(d.getVilles().stream().map(this::identifiantVille).toList());
+    }
+
     /**
      * Renvoie une collection contenant un plus court ensemble de routes (en nombre
      * total de pions utilisés) que le joueur peut capturer pour compléter la
      * destination passée en paramètre
      * <p>
+     * Pour une destination entre deux villes, c'est un plus court chemin lu dans
+     * {@link #getDistances()} ; pour un itinéraire, un arbre de Steiner des villes.
+     * <p>
      * La méthode renvoie une collection vide si la destination est déjà complète ou
      * s'il n'est pas possible de la compléter
      */
     public Collection<Route> routesPourCompleterDestination(Destination d) {
-        // Cette fonction est à réécrire entièrement
+        if (destinationEstComplete(d) || !destinationEstRealisable(d)) {
+            return new ArrayList<>();
+        }
+        Set<Route> routesJoueur = new HashSet<>(routes);
+        List<String> villes = new ArrayList<>(new LinkedHashSet<>(d.getVilles()));
+        if (villes.size() == 2) {
+            Chemin chemin = getDistances().chemin(identifiantVille(villes.get(0)), identifiantVille(villes.get(1)));
+            return chemin == null ? new ArrayList<>() : routesACapturer(chemin.aretes(), routesJoueur);
+        }
+        List<Integer> terminaux = new ArrayList<>();
+        for (String nomVille : d.getVilles()) {
+            terminaux.add(identifiantVille(nomVille));
+        }
+        List<Arete> arbre = getGrapheUtilisable().arbreSteiner(terminaux, coutCapture(routesJoueur));
+        if (arbre == null) {
+            return new ArrayList<>();
+        }
+        return routesACapturer(arbre, routesJoueur);
+    }
 
-        Graphe g = jeu.getPlateau() .getGraphe();
-        List<Route> routes = new ArrayList<>();
-        List<Integer> villeAParcourir = new ArrayList<>();
-        for (int i = 0; i < jeu.getPortsLibres().size(); i++) {
-            if (d.getVilles().contains(jeu.getPortsLibres().get(i).nom())) {
-                villeAParcourir.add(jeu.getPortsLibres().get(i).getId());
+    /**
+     * Renvoie un ensemble de routes que le joueur peut capturer pour compléter
+     * toutes ses destinations incomplètes à la fois, en partageant les routes
+     * communes à plusieurs destinations.
+     * <p>
+     * Les routes sont extraites d'une forêt couvrante minimale des routes utilisables
+     * (en nombre de pions, les routes du joueur ne coûtant rien, voir
+     * {@link ArbreCouvrant}) : c'est une estimation rapide, qui peut être plus chère
+     * que l'optimum. Les destinations qui ne peuvent plus être complétées sont ignorées.
+     */
+    public Collection<Route> routesPourRelierDestinations() {
+        List<List<Integer>> groupes = new ArrayList<>();
+        for (Destination d : destinations) {
+            if (!destinationEstComplete(d) && destinationEstRealisable(d)) {
+                groupes.add(d.getVilles().stream().map(this::identifiantVille).toList());
             }
         }
-        List<Integer> parcours =  g.parcoursSansRepetition(villeAParcourir);
-        for (int i = 0; i < parcours.size() - 1; i++) {
-            routes.add(g.getRoute(parcours.get(i), parcours.get(i + 1)));
+        if (groupes.isEmpty()) {
+            return new ArrayList<>();
         }
-        return routes;
+        Set<Route> routesJoueur = new HashSet<>(routes);
+        return routesACapturer(getGrapheUtilisable().foretTerminaux(groupes, coutCapture(routesJoueur)),
+                routesJoueur);
+    }
+
+    /**
+     * Renvoie le graphe des routes que le joueur peut utiliser : les routes libres et ses propres routes
+     */
+    private SousGraphe getGrapheUtilisable() {
+        List<Route> routesUtilisables = jeu.getRoutesLibres();
+        routesUtilisables.addAll(routes);
+        return jeu.getPlateau().getSousGraphe(routesUtilisables);
+    }
+
+    /**
+     * Renvoie le coût de capture des routes : leur nombre de pions, et 0 pour les routes du joueur
+     */
+    private static Ponderation coutCapture(Set<Route> routesJoueur) {
+        return a -> routesJoueur.contains(a.route()) ? 0 : Ponderation.PIONS.poids(a);
+    }
+
+    private static List<Route> routesACapturer(List<Arete> aretes, Set<Route> routesJoueur) {
+        List<Route> routesACapturer = new ArrayList<>();
+        for (Arete a : aretes) {
+            if (!routesJoueur.contains(a.route())) {
+                routesACapturer.add(a.route());
+            }
+        }
+        return routesACapturer;
+    }
+
+    /**
+     * Renvoie jusqu'à k ensembles de routes différents que le joueur peut capturer pour
+     * compléter la destination passée en paramètre, du moins cher au plus cher (en
+     * nombre total de pions). Ils servent à proposer d'autres chemins lorsqu'un adversaire
+     * bloque le meilleur.
+     * <p>
+     * Pour une destination entre deux villes, la première proposition est celle de
+     * {@link #routesPourCompleterDestination(Destination)}, suivie des routes à capturer sur
+     * les k plus courts chemins (voir {@link Graphe#kPlusCourtsChemins}) qui en diffèrent ;
+     * pour un itinéraire, seule la
+     * solution de {@link #routesPourCompleterDestination(Destination)} est proposée. La
+     * méthode renvoie une liste vide si la destination est déjà complète ou s'il n'est pas
+     * possible de la compléter.
+     */
+    public List<Collection<Route>> alternativesPourDestination(Destination d, int k) {
+        List<Collection<Route>> alternatives = new ArrayList<>();
+        if (destinationEstComplete(d) || !destinationEstRealisable(d)) {
+            return alternatives;
+        }
+        Collection<Route> meilleure = routesPourCompleterDestination(d);
+        if (meilleure.isEmpty() || k <= 0) {
+            return alternatives;
+        }
+        alternatives.add(meilleure);
+        List<String> villes = new ArrayList<>(new LinkedHashSet<>(d.getVilles()));
+        if (villes.size() != 2) {
+            return alternatives;
+        }
+        Set<Route> routesJoueur = new HashSet<>(routes);
+        Set<Set<Route>> dejaProposees = new HashSet<>();
+        dejaProposees.add(new HashSet<>(meilleure));
+        for (Chemin c : getGrapheUtilisable().kPlusCourtsChemins(identifiantVille(villes.get(0)),
+                identifiantVille(villes.get(1)), k, coutCapture(routesJoueur))) {
+            List<Route> solution = routesACapturer(c.aretes(), routesJoueur);
+            if (alternatives.size() < k && dejaProposees.add(new HashSet<>(solution))) {
+                alternatives.add(solution);
+            }
+        }
+        return alternatives;
+    }
+
+    /**
+     * Renvoie, pour chaque destination incomplète qui peut encore être complétée, les
+     * routes critiques : un plus petit ensemble de routes libres dont la capture par les
+     * adversaires rendrait la destination impossible (coupe minimale, voir
+     * {@link FlotMaximal}). Leur nombre est aussi le nombre de chemins sans route libre
+     * commune qui relient encore les villes de la destination, les routes du joueur ne
+     * pouvant pas être coupées. Pour un itinéraire, c'est la coupe de l'étape la plus
+     * fragile qui est renvoyée.
+     * <p>
+     * Le calcul utilise le réseau de flot partagé du jeu (voir {@link Jeu#getFlots()}),
+     * dont les capacités sont fixées une fois pour toutes les destinations du joueur.
+     */
+    public Map<Destination, List<Route>> routesCritiquesPourDestinations() {
+        Map<Destination, List<Route>> routesCritiques = new LinkedHashMap<>();
+        FlotMaximal flots = null;
+        for (Destination d : destinations) {
+            if (destinationEstComplete(d) || !destinationEstRealisable(d)) {
+                continue;
+            }
+            if (flots == null) {
+                flots = jeu.getFlots();
+                Set<Route> routesJoueur = new HashSet<>(routes);
+                Set<Route> routesLibres = new HashSet<>(jeu.getRoutesLibres());
+                flots.fixerCapacites(a -> routesJoueur.contains(a.route()) ? Dijkstra.INFINI
+                        : routesLibres.contains(a.route()) ? 1 : 0);
+            }
+            List<String> villes = d.getVilles();
+            int plusPetitFlot = Dijkstra.INFINI;
+            List<Route> coupe = new ArrayList<>();
+            for (int k = 0; k + 1 < villes.size(); k++) {
+                int flot = flots.calculer(identifiantVille(villes.get(k)), identifiantVille(villes.get(k + 1)));
+                if (flot > 0 && flot < plusPetitFlot) {
+                    plusPetitFlot = flot;
+                    coupe = flots.coupeMinimale().stream().map(Arete::route).toList();
+                }
+            }
+            routesCritiques.put(d, coupe);
+        }
+        return routesCritiques;
     }
 
     /**
@@ -802,28 +1137,44 @@ public class Joueur {
      * destination passée en paramètre en utilisant les pions dont le joueur dispose
      * actuellement
      * <p>
+     * Pour une destination entre deux villes, le plus court chemin de
+     * {@link #routesPourCompleterDestination(Destination)} est gardé s'il tient dans les
+     * deux budgets (pions wagons et pions bateaux) ; sinon le chemin est cherché
+     * directement sous ces budgets (voir {@link CheminsPareto}) ;
+     * pour un itinéraire, la solution de {@link #routesPourCompleterDestination(Destination)}
+     * est gardée si le joueur a assez de pions de chaque sorte.
+     * <p>
      * La méthode renvoie une collection vide si la destination est déjà complète ou
      * s'il n'est pas possible de la compléter.
      */
     public Collection<Route> routesPourCompleterDestinationAvecPions(Destination d) {
-        // Cette fonction est à réécrire entièrement
-        Collection<Route> entrepot = routesPourCompleterDestination(d);
-
-        int cptCarteWagon = 0;
-        int cptCarteBateau = 0;
-        for (Route r : entrepot) {
-            if (r.estMaritime()) {
-                cptCarteBateau += 1;
-            } else {
-                cptCarteWagon += 1;
-            }
+        if (destinationEstComplete(d) || !destinationEstRealisable(d)) {
+            return new ArrayList<>();
         }
-
-        if (cptCarteWagon > nbPionsWagon || cptCarteBateau > nbPionsBateau) {
+        Collection<Route> plusCourte = routesPourCompleterDestination(d);
+        int pionsWagon = 0;
+        int pionsBateau = 0;
+        for (Route r : plusCourte) {
+            pionsWagon += r.getNbPionsWagon();
+            pionsBateau += r.getNbPionsBateau();
+        }
+        if (pionsWagon <= nbPionsWagon && pionsBateau <= nbPionsBateau) {
+            return plusCourte;
+        }
+        List<String> villes = new ArrayList<>(new LinkedHashSet<>(d.getVilles()));
+        if (villes.size() != 2) {
+            return new ArrayList<>();
+        }
+        Set<Route> routesJoueur = new HashSet<>(routes);
+        CheminsPareto.Solution solution = getGrapheUtilisable().plusCourtCheminSousContraintes(
+                identifiantVille(villes.get(0)), identifiantVille(villes.get(1)),
+                a -> routesJoueur.contains(a.route()) ? 0 : a.route().getNbPionsWagon(),
+                a -> routesJoueur.contains(a.route()) ? 0 : a.route().getNbPionsBateau(),
+                nbPionsWagon, nbPionsBateau);
+        if (solution == null) {
             return new ArrayList<>();
-        } else {
-            return entrepot;
         }
+        return routesACapturer(solution.chemin().aretes(), routesJoueur);
     }
 
     /**
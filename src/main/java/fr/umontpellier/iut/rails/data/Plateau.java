@@ -2,6 +2,11 @@ package fr.umontpellier.iut.rails.data;
 
 import fr.umontpellier.iut.graphes.Arete;
 import fr.umontpellier.iut.graphes.Graphe;
+import fr.umontpellier.iut.graphes.GrapheCompact;
+import fr.umontpellier.iut.graphes.Ponderation;
+import fr.umontpellier.iut.graphes.Reperes;
+import fr.umontpellier.iut.graphes.SousGraphe;
+import fr.umontpellier.iut.graphes.TableDistances;
 import fr.umontpellier.iut.rails.Route;
 import fr.umontpellier.iut.rails.RouteMaritime;
 import fr.umontpellier.iut.rails.RoutePaire;
@@ -19,10 +24,55 @@ public class Plateau {
      * Liste des routes
      */
     private final List<Route> routes;
+    /**
+     * Villes indexées par leur nom
+     */
+    private final Map<String, Ville> villesParNom = new HashMap<>();
+    /**
+     * Graphe de toutes les routes du plateau, construit une seule fois puis figé (voir {@link Graphe#figer()})
+     */
+    private final Graphe graphe;
+    /**
+     * Représentation compacte de graphe
+     */
+    private final GrapheCompact grapheCompact;
+    /**
+     * Table des plus courts chemins (en nombre de pions) entre toutes les villes, calculée à la première demande
+     */
+    private TableDistances tableDistances;
+    /**
+     * Repères (en nombre de pions) pour les recherches A* sur le plateau, calculés à la première demande
+     */
+    private Reperes reperes;
 
+    /**
+     * Construit le plateau et l'indexe une fois pour toutes : villes par nom, et graphe figé de toutes les routes.
+     * Les champs étant finaux, un plateau peut ensuite être lu par plusieurs threads ; la table des distances et les
+     * repères, calculés à la première demande, sont protégés par le verrou du plateau.
+     * <p>
+     * Cet index est propre au plateau et n'est pas partagé entre les parties : chaque partie a ses propres villes
+     * (dont les identifiants viennent d'un compteur global) et ses propres routes. Seuls les tableaux de distances,
+     * qui ne dépendent que de la forme du graphe, sont partagés par toute la JVM (voir {@link #getTableDistances()}).
+     */
     public Plateau(List<Ville> villes, List<Route> routes) {
         this.villes = villes;
         this.routes = routes;
+        for (Ville v : villes) {
+            villesParNom.put(v.nom(), v);
+        }
+        graphe = getGraphe(routes).figer();
+        grapheCompact = graphe.getGrapheCompact();
+    }
+
+    public List<Ville> getVilles() {
+        return villes;
+    }
+
+    /**
+     * Renvoie la ville du plateau qui porte le nom passé en paramètre, ou null s'il n'y en a pas
+     */
+    public Ville getVille(String nom) {
+        return villesParNom.get(nom);
     }
 
     public List<Ville> getPorts() {
@@ -230,11 +280,16 @@ public class Plateau {
     }
 
     /**
-     * Construit le graphe de routes à partir des données du plateau.
+     * Renvoie le graphe de routes du plateau.
      * Les sommets du graphe correspondent aux identifiants des villes (qui sont des entiers).
+     * <p>
+     * Le graphe est construit une seule fois par plateau et figé : il ne peut pas être
+     * modifié, et il peut être lu par plusieurs threads. Pour travailler sur une partie des routes,
+     * utiliser {@link #getSousGraphe(Collection)} (ou {@link #getGraphe(Collection)} pour
+     * obtenir un graphe modifiable).
      */
     public Graphe getGraphe() {
-        return getGraphe(this.routes);
+        return graphe;
     }
 
     /**
@@ -242,6 +297,52 @@ public class Plateau {
      * Les sommets du graphe correspondent aux identifiants des villes (qui sont des entiers).
      */
     public Graphe getGraphe(Collection<Route> ensembleDeRoutes) {
-        return new Graphe(ensembleDeRoutes.stream().map(r -> new Arete(r.getVille1().getId(), r.getVille2().getId(), r)).collect(Collectors.toList()));
+        return new Graphe(ensembleDeRoutes.stream().map(Plateau::areteDe).collect(Collectors.toList()));
+    }
+
+    /**
+     * Renvoie l'arête qui représente une route dans les graphes construits par le plateau
+     */
+    public static Arete areteDe(Route r) {
+        return new Arete(r.getVille1().getId(), r.getVille2().getId(), r);
+    }
+
+    /**
+     * Renvoie la représentation compacte du graphe de toutes les routes du plateau (construite une seule fois)
+     */
+    public GrapheCompact getGrapheCompact() {
+        return grapheCompact;
+    }
+
+    /**
+     * Renvoie une vue du graphe du plateau restreint à un ensemble de routes (par exemple les routes libres et
+     * celles d'un joueur), sans recopier le graphe (voir {@link SousGraphe})
+     */
+    public SousGraphe getSousGraphe(Collection<Route> ensembleDeRoutes) {
+        return SousGraphe.parRoutes(getGrapheCompact(), ensembleDeRoutes);
+    }
+
+    /**
+     * Renvoie la table des plus courts chemins (en nombre de pions) entre toutes les villes du plateau.
+     * Elle est calculée une seule fois, et ses tableaux sont partagés avec les plateaux de même forme (tous ceux
+     * construits par {@link #makePlateauMonde()}).
+     */
+    public synchronized TableDistances getTableDistances() {
+        if (tableDistances == null) {
+            tableDistances = TableDistances.partagee(getGrapheCompact(), Ponderation.PIONS);
+        }
+        return tableDistances;
+    }
+
+    /**
+     * Renvoie les repères (en nombre de pions) calculés sur le graphe de toutes les routes du plateau. Ils restent
+     * valables quand des routes sont capturées : on les utilise pour chercher des plus courts chemins en nombre de
+     * pions dans les vues renvoyées par {@link #getSousGraphe(Collection)} (voir {@link Reperes}).
+     */
+    public synchronized Reperes getReperes() {
+        if (reperes == null) {
+            reperes = new Reperes(getGrapheCompact(), Ponderation.PIONS);
+        }
+        return reperes;
     }
 }
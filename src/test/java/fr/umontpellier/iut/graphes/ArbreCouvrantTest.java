@@ -0,0 +1,112 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static fr.umontpellier.iut.graphes.GraphesDeTest.grapheAleatoire;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbreCouvrantTest {
+    private static final Ponderation POIDS = a -> (a.i() * 7 + a.j() * 3) % 5;
+
+    private static int poids(List<Arete> aretes) {
+        return aretes.stream().mapToInt(POIDS::poids).sum();
+    }
+
+    /**
+     * @return les arêtes d'un chemin de u à v dans la forêt, ou null s'il n'y en a pas
+     */
+    private static List<Arete> cheminDansForet(List<Arete> foret, int u, int v) {
+        Graphe arbre = new Graphe(foret);
+        if (!arbre.contientSommet(u) || !arbre.contientSommet(v)) {
+            return null;
+        }
+        Chemin c = arbre.plusCourtChemin(u, v, Ponderation.SAUT);
+        return c == null ? null : c.aretes();
+    }
+
+    /**
+     * Vérifie que foret est une forêt couvrante minimale de g : une forêt qui a autant de composantes que g, et dont
+     * aucune arête ne peut être échangée contre une arête plus légère hors de la forêt (propriété des cycles)
+     */
+    private static void assertForetCouvranteMinimale(Graphe g, List<Arete> foret) {
+        UnionFind classes = new UnionFind();
+        for (Arete a : foret) {
+            assertTrue(g.existeArete(a));
+            assertTrue(classes.unir(a.i(), a.j()), "cycle dans la forêt");
+        }
+        assertEquals(g.nbSommets() - g.nbClassesConnexite(), foret.size());
+        for (Arete a : g.ensembleAretes()) {
+            if (a.i() == a.j() || foret.contains(a)) {
+                continue;
+            }
+            List<Arete> cycle = cheminDansForet(foret, a.i(), a.j());
+            assertNotNull(cycle);
+            for (Arete b : cycle) {
+                assertTrue(POIDS.poids(b) <= POIDS.poids(a));
+            }
+        }
+    }
+
+    @Test
+    void test_foret_des_terminaux_partage_les_routes_et_ignore_les_sommets_absents() {
+        Ville a = new Ville("A", false);
+        Ville b = new Ville("B", false);
+        Ville c = new Ville("C", false);
+        Route ab = new RouteMaritime(a, b, Couleur.ROUGE, 2);
+        Route bc = new RouteMaritime(b, c, Couleur.ROUGE, 2);
+        Route ac = new RouteMaritime(a, c, Couleur.ROUGE, 3);
+        Graphe g = new Graphe(List.of(new Arete(0, 1, ab), new Arete(1, 2, bc), new Arete(0, 2, ac)));
+        // Kruskal garde 0-1 et 1-2 ; le groupe {0, 2} les emprunte toutes les deux, le groupe {0, 1} la première
+        assertEquals(4, g.arbreCouvrantKruskal().stream().mapToInt(Arete::longueurRoute).sum());
+        assertEquals(4, g.arbreCouvrantPrim().stream().mapToInt(Arete::longueurRoute).sum());
+        List<Arete> foret = g.foretTerminaux(List.of(List.of(0, 2), List.of(0, 1, 9)), Ponderation.LONGUEUR);
+        assertEquals(Set.of(ab, bc), ArbreCouvrant.routes(foret));
+        assertTrue(g.foretTerminaux(List.of(List.of(1), List.of(9, 9)), Ponderation.LONGUEUR).isEmpty());
+        // dans la vue privée de 1-2, le groupe {0, 2} passe par la route directe
+        SousGraphe vue = g.sousGrapheParAretes(x -> x.route() != bc);
+        assertEquals(Set.of(ac), ArbreCouvrant.routes(vue.foretTerminaux(List.of(List.of(0, 2)),
+                Ponderation.LONGUEUR)));
+        assertEquals(2, vue.arbreCouvrantKruskal(Ponderation.LONGUEUR).size());
+    }
+
+    @Test
+    void test_forets_minimales_sur_graphes_aleatoires() {
+        Random random = new Random(23);
+        for (int essai = 0; essai < 200; essai++) {
+            int n = 1 + random.nextInt(25);
+            Graphe g = grapheAleatoire(random, n);
+            List<Arete> kruskal = ArbreCouvrant.kruskal(g.getGrapheCompact(), POIDS);
+            List<Arete> prim = ArbreCouvrant.prim(g.getGrapheCompact(), POIDS);
+            assertForetCouvranteMinimale(g, kruskal);
+            assertForetCouvranteMinimale(g, prim);
+            assertEquals(poids(kruskal), poids(prim));
+
+            // la forêt des terminaux est la partie de l'arbre de Kruskal utile aux groupes
+            List<List<Integer>> groupes = new ArrayList<>();
+            Set<Integer> terminaux = new HashSet<>();
+            for (int k = random.nextInt(4); k > 0; k--) {
+                List<Integer> groupe = random.ints(1 + random.nextInt(3), 0, n).boxed().toList();
+                groupes.add(groupe);
+                terminaux.addAll(groupe);
+            }
+            List<Arete> foret = ArbreCouvrant.foretTerminaux(g.getGrapheCompact(), groupes, POIDS);
+            assertTrue(kruskal.containsAll(foret));
+            for (List<Integer> groupe : groupes) {
+                for (int t : groupe) {
+                    assertEquals(g.sontConnectes(groupe.get(0), t),
+                            groupe.get(0) == t || cheminDansForet(foret, groupe.get(0), t) != null);
+                }
+            }
+            Graphe reduit = new Graphe(foret);
+            for (int v : reduit.ensembleSommets()) {
+                assertTrue(reduit.degre(v) > 1 || terminaux.contains(v), "feuille sans terminal");
+            }
+        }
+    }
+}
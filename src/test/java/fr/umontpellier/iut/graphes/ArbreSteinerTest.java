@@ -0,0 +1,129 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbreSteinerTest {
+    private static int poidsTotal(Collection<Arete> aretes, Ponderation ponderation) {
+        return aretes.stream().mapToInt(ponderation::poids).sum();
+    }
+
+    private static boolean relie(Collection<Arete> aretes, Collection<Integer> terminaux) {
+        UnionFind classes = new UnionFind();
+        terminaux.forEach(classes::ajouter);
+        aretes.forEach(a -> classes.unir(a.i(), a.j()));
+        int premier = terminaux.iterator().next();
+        return terminaux.stream().allMatch(t -> classes.sontConnectes(premier, t));
+    }
+
+    /**
+     * Poids minimal d'un sous-ensemble d'arêtes qui relie les terminaux (énumération de tous les sous-ensembles)
+     */
+    private static int optimumForceBrute(Graphe g, List<Integer> terminaux, Ponderation ponderation) {
+        List<Arete> aretes = new ArrayList<>(g.ensembleAretes());
+        int meilleur = Integer.MAX_VALUE;
+        for (int masque = 0; masque < 1 << aretes.size(); masque++) {
+            List<Arete> choisies = new ArrayList<>();
+            for (int e = 0; e < aretes.size(); e++) {
+                if ((masque >> e & 1) == 1) {
+                    choisies.add(aretes.get(e));
+                }
+            }
+            if (relie(choisies, terminaux)) {
+                meilleur = Math.min(meilleur, poidsTotal(choisies, ponderation));
+            }
+        }
+        return meilleur;
+    }
+
+    @Test
+    void test_etoile_moins_chere_que_les_plus_courts_chemins_enchaines() {
+        // trois terminaux autour d'un centre : l'étoile coûte 3, enchaîner 1-2 puis 2-3 en passant par 0 aussi,
+        // mais le chemin direct 1-2 coûte 2 et détourne l'enchaînement
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(0, 2));
+        g.ajouterArete(new Arete(0, 3));
+        g.ajouterArete(new Arete(1, 2));
+        Ponderation ponderation = a -> a.incidenteA(0) ? 1 : 2;
+        List<Arete> arbre = g.arbreSteiner(List.of(1, 2, 3), ponderation);
+        assertEquals(3, poidsTotal(arbre, ponderation));
+        assertTrue(relie(arbre, List.of(1, 2, 3)));
+    }
+
+    @Test
+    void test_cas_particuliers() {
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 2));
+        assertTrue(g.arbreSteiner(List.of(1), Ponderation.SAUT).isEmpty());
+        assertTrue(g.arbreSteiner(List.of(1, 1), Ponderation.SAUT).isEmpty());
+        assertEquals(2, g.arbreSteiner(List.of(0, 2), Ponderation.SAUT).size());
+        assertNull(g.arbreSteiner(List.of(0, 2, 3), Ponderation.SAUT));
+        assertNull(g.arbreSteiner(List.of(0, 42), Ponderation.SAUT));
+    }
+
+    @Test
+    void test_approximation_sur_une_roue() {
+        // au-delà de NB_TERMINAUX_EXACT terminaux : une roue dont les rayons coûtent 1 et la jante 3, les
+        // terminaux étant les sommets de la jante. Le meilleur arbre est l'étoile des rayons (poids n).
+        int n = ArbreSteiner.NB_TERMINAUX_EXACT + 2;
+        Graphe roue = new Graphe(n + 1);
+        List<Integer> jante = new ArrayList<>();
+        for (int v = 1; v <= n; v++) {
+            roue.ajouterArete(new Arete(0, v));
+            roue.ajouterArete(new Arete(v, v % n + 1));
+            jante.add(v);
+        }
+        Ponderation ponderation = a -> a.incidenteA(0) ? 1 : 3;
+        List<Arete> arbre = roue.arbreSteiner(jante, ponderation);
+        assertTrue(relie(arbre, jante));
+        assertTrue(poidsTotal(arbre, ponderation) <= 2 * n);
+        // un arbre : pas de cycle
+        UnionFind classes = new UnionFind();
+        for (Arete a : arbre) {
+            assertTrue(classes.unir(a.i(), a.j()));
+        }
+    }
+
+    @Test
+    void test_parcours_enchaine() {
+        Graphe g = new Graphe(5);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 2));
+        g.ajouterArete(new Arete(2, 3));
+        assertEquals(List.of(0, 1, 2, 1, 0), g.parcoursSansRepetition(List.of(0, 2, 0)));
+        assertEquals(List.of(3, 2), g.parcoursSansRepetition(List.of(3, 2)));
+        assertTrue(g.parcoursSansRepetition(List.of(0, 4)).isEmpty());
+    }
+
+    @Test
+    void test_optimal_sur_petits_graphes_aleatoires() {
+        Random random = new Random(13);
+        for (int essai = 0; essai < 100; essai++) {
+            int n = 3 + random.nextInt(5);
+            Graphe g = new Graphe(n);
+            Map<Arete, Integer> poids = new HashMap<>();
+            for (int k = 0; k < 10; k++) {
+                Arete a = new Arete(random.nextInt(n), random.nextInt(n));
+                g.ajouterArete(a);
+                poids.putIfAbsent(a, random.nextInt(5));
+            }
+            Ponderation ponderation = poids::get;
+            List<Integer> sommets = new ArrayList<>(g.ensembleSommets());
+            Collections.shuffle(sommets, random);
+            List<Integer> terminaux = sommets.subList(0, 3 + random.nextInt(n - 2));
+            List<Arete> arbre = g.arbreSteiner(terminaux, ponderation);
+            int optimum = optimumForceBrute(g, terminaux, ponderation);
+            if (optimum == Integer.MAX_VALUE) {
+                assertNull(arbre);
+            } else {
+                assertTrue(relie(arbre, terminaux));
+                assertEquals(optimum, poidsTotal(arbre, ponderation));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static fr.umontpellier.iut.graphes.GraphesDeTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheminsParetoTest {
+    private static final Ponderation WAGONS = a -> (a.i() * 3 + a.j() * 5) % 4;
+    private static final Ponderation BATEAUX = a -> (a.i() + a.j() * 2) % 3 == 0 ? 2 + a.i() % 2 : 0;
+
+    /**
+     * @return les coûts (premier, second) de tous les chemins élémentaires de depart à arrivee (énumération
+     * exhaustive)
+     */
+    private static Set<List<Integer>> coutsParEnumeration(Graphe g, int depart, int arrivee) {
+        Set<List<Integer>> couts = new HashSet<>();
+        for (List<Arete> chemin : chemins(g, depart, arrivee)) {
+            couts.add(List.of(chemin.stream().mapToInt(WAGONS::poids).sum(),
+                    chemin.stream().mapToInt(BATEAUX::poids).sum()));
+        }
+        return couts;
+    }
+
+    /**
+     * @return les coûts non dominés, par premier coût croissant
+     */
+    private static List<List<Integer>> frontiere(Set<List<Integer>> couts) {
+        List<List<Integer>> frontiere = new ArrayList<>();
+        for (List<Integer> c : couts) {
+            boolean domine = false;
+            for (List<Integer> autre : couts) {
+                if (!autre.equals(c) && autre.get(0) <= c.get(0) && autre.get(1) <= c.get(1)) {
+                    domine = true;
+                    break;
+                }
+            }
+            if (!domine) {
+                frontiere.add(c);
+            }
+        }
+        frontiere.sort(Comparator.comparing(c -> c.get(0)));
+        return frontiere;
+    }
+
+    private static void assertSolutionValide(CheminsPareto.Solution s, int depart, int arrivee) {
+        List<Integer> sommets = s.chemin().sommets();
+        assertEquals(depart, (int) sommets.get(0));
+        assertEquals(arrivee, (int) sommets.get(sommets.size() - 1));
+        assertEquals(sommets.size(), new HashSet<>(sommets).size());
+        int premier = 0;
+        int second = 0;
+        for (int k = 0; k < s.chemin().aretes().size(); k++) {
+            Arete a = s.chemin().aretes().get(k);
+            assertEquals((int) sommets.get(k + 1), a.getAutreSommet(sommets.get(k)));
+            premier += WAGONS.poids(a);
+            second += BATEAUX.poids(a);
+        }
+        assertEquals(premier, s.premier());
+        assertEquals(second, s.second());
+        assertEquals(premier + second, s.chemin().longueur());
+    }
+
+    @Test
+    void test_sous_graphe_et_cas_particuliers() {
+        Graphe g = new Graphe(4);
+        Arete terre = new Arete(0, 1);
+        Arete mer = new Arete(0, 2);
+        g.ajouterArete(terre);
+        g.ajouterArete(mer);
+        g.ajouterArete(new Arete(1, 2));
+        Ponderation wagons = a -> a == mer ? 0 : 3;
+        Ponderation bateaux = a -> a == mer ? 4 : 0;
+        assertEquals(List.of(List.of(0, 4), List.of(6, 0)), g.cheminsPareto(0, 2, wagons, bateaux).stream()
+                .map(c -> List.of(c.premier(), c.second())).toList());
+        assertEquals(List.of(mer), g.plusCourtCheminSousContraintes(0, 2, wagons, bateaux, 10, 10).chemin().aretes());
+        assertEquals(6, g.plusCourtCheminSousContraintes(0, 2, wagons, bateaux, 10, 3).premier());
+        assertNull(g.plusCourtCheminSousContraintes(0, 2, wagons, bateaux, 5, 3));
+
+        SousGraphe vue = g.sousGrapheParAretes(a -> a != mer);
+        assertEquals(1, vue.cheminsPareto(0, 2, wagons, bateaux).size());
+        assertTrue(vue.cheminsPareto(0, 3, wagons, bateaux).isEmpty());
+        assertEquals(List.of(2), g.cheminsPareto(2, 2, wagons, bateaux).get(0).chemin().sommets());
+        assertTrue(g.cheminsPareto(0, 9, wagons, bateaux).isEmpty());
+    }
+
+    @Test
+    void test_aretes_paralleles_de_couts_differents() {
+        // deux routes entre les mêmes villes : l'une en wagons, l'autre en bateaux
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Arete terre = new Arete(0, 1, new RouteMaritime(a, b, Couleur.ROUGE, 3));
+        Arete mer = new Arete(0, 1, new RouteMaritime(a, b, Couleur.VERT, 2));
+        Graphe g = new Graphe(List.of(terre, mer));
+        Ponderation wagons = x -> x.equals(terre) ? 3 : 0;
+        Ponderation bateaux = x -> x.equals(mer) ? 2 : 0;
+        assertEquals(List.of(List.of(0, 2), List.of(3, 0)), g.cheminsPareto(0, 1, wagons, bateaux).stream()
+                .map(c -> List.of(c.premier(), c.second())).toList());
+        assertEquals(List.of(terre), g.plusCourtCheminSousContraintes(0, 1, wagons, bateaux, 3, 1).chemin().aretes());
+        assertEquals(List.of(mer), g.plusCourtCheminSousContraintes(0, 1, wagons, bateaux, 2, 2).chemin().aretes());
+    }
+
+    @Test
+    void test_identique_a_l_enumeration_sur_graphes_aleatoires() {
+        Random random = new Random(18);
+        for (int essai = 0; essai < 300; essai++) {
+            int n = 2 + random.nextInt(8);
+            Graphe g = grapheAleatoire(random, n);
+            ajouterAretesParalleles(random, g, random.nextInt(3));
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            Set<List<Integer>> couts = coutsParEnumeration(g, s, t);
+            List<CheminsPareto.Solution> solutions = g.cheminsPareto(s, t, WAGONS, BATEAUX);
+            assertEquals(frontiere(couts), solutions.stream().map(c -> List.of(c.premier(), c.second())).toList());
+            for (CheminsPareto.Solution solution : solutions) {
+                assertSolutionValide(solution, s, t);
+            }
+
+            int maxWagons = random.nextInt(8);
+            int maxBateaux = random.nextInt(6);
+            OptionalInt attendu = couts.stream()
+                    .filter(c -> c.get(0) <= maxWagons && c.get(1) <= maxBateaux)
+                    .mapToInt(c -> c.get(0) + c.get(1)).min();
+            CheminsPareto.Solution obtenu = g.plusCourtCheminSousContraintes(s, t, WAGONS, BATEAUX, maxWagons,
+                    maxBateaux);
+            if (attendu.isEmpty()) {
+                assertNull(obtenu);
+            } else {
+                assertSolutionValide(obtenu, s, t);
+                assertEquals(attendu.getAsInt(), obtenu.chemin().longueur());
+                assertTrue(obtenu.premier() <= maxWagons && obtenu.second() <= maxBateaux);
+            }
+        }
+    }
+}
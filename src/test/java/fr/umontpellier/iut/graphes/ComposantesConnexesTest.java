@@ -0,0 +1,66 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComposantesConnexesTest {
+    @Test
+    void test_identique_a_l_union_find_sequentiel() {
+        Random random = new Random(21);
+        for (int essai = 0; essai < 200; essai++) {
+            int n = 1 + random.nextInt(20);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(n + 2); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            assertEquals(g.getEnsembleClassesConnexite(), g.getEnsembleClassesConnexiteParallele());
+        }
+    }
+
+    @Test
+    void test_numeros_dans_l_ordre_des_plus_petits_sommets() {
+        Graphe g = new Graphe();
+        g.ajouterArete(new Arete(7, 3));
+        g.ajouterArete(new Arete(5, 9));
+        g.ajouterArete(new Arete(9, 2));
+        g.ajouterSommet(4);
+        // indices denses : 2->0, 3->1, 4->2, 5->3, 7->4, 9->5
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 0}, ComposantesConnexes.calculer(g.getGrapheCompact()));
+        assertArrayEquals(new int[0], ComposantesConnexes.calculer(new Graphe().getGrapheCompact()));
+    }
+
+    @Test
+    void test_grand_graphe_en_parallele() {
+        int n = 4 * ComposantesConnexes.SEUIL_PARALLELE;
+        List<Arete> aretes = new ArrayList<>();
+        // des chaînes de 100 sommets, la chaîne c étant reliée à la chaîne c + 1 quand c est multiple de 3 ; les
+        // arêtes arrivent dans l'ordre inverse
+        for (int v = 0; v < n; v++) {
+            if (v % 100 != 99 && v + 1 < n) {
+                aretes.add(new Arete(v, v + 1));
+            }
+        }
+        for (int c = 0; c + 1 < n / 100; c += 3) {
+            aretes.add(new Arete(100 * c + 50, 100 * (c + 1)));
+        }
+        Collections.reverse(aretes);
+        Set<Integer> sommets = new HashSet<>();
+        for (int v = 0; v < n; v++) {
+            sommets.add(v);
+        }
+        GrapheCompact g = new GrapheCompact(sommets, new ArrayList<>(new LinkedHashSet<>(aretes)));
+        UnionFind attendu = new UnionFind(n);
+        for (int v = 0; v < n; v++) {
+            attendu.ajouter(v);
+        }
+        aretes.forEach(a -> attendu.unir(a.i(), a.j()));
+        int[] numeros = ComposantesConnexes.calculer(g);
+        for (Arete a : aretes) {
+            assertEquals(numeros[a.i()], numeros[a.j()]);
+        }
+        assertEquals(attendu.nbClasses(), Arrays.stream(numeros).max().getAsInt() + 1);
+    }
+}
@@ -0,0 +1,155 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionTest {
+    private static Graphe grapheAleatoire(Random random, int n, int m) {
+        Graphe g = new Graphe(n);
+        for (int k = 0; k < m; k++) {
+            g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+        }
+        return g;
+    }
+
+    /**
+     * @return la taille d'une coupe minimale de g (énumération de toutes les bipartitions, boucles ignorées)
+     */
+    private static int coupeMinimaleParEnumeration(Graphe g) {
+        int n = g.nbSommets();
+        int min = Integer.MAX_VALUE;
+        for (int masque = 1; masque < (1 << (n - 1)); masque++) {
+            int coupe = 0;
+            for (Arete a : g.ensembleAretes()) {
+                if (((masque >> a.i()) & 1) != ((masque >> a.j()) & 1)) {
+                    coupe++;
+                }
+            }
+            min = Math.min(min, coupe);
+        }
+        return min;
+    }
+
+    @Test
+    void test_memes_graphes_que_fusionner_sommets() {
+        Random random = new Random(21);
+        for (int essai = 0; essai < 200; essai++) {
+            int n = 1 + random.nextInt(12);
+            Graphe g = grapheAleatoire(random, n, random.nextInt(3 * n));
+            // fusionnerSommets garde les boucles d'origine, alors que la contraction efface toutes les boucles
+            new ArrayList<>(g.ensembleAretes()).stream().filter(a -> a.i() == a.j()).forEach(g::supprimerArete);
+            Contraction contraction = g.contraction();
+            for (int k = random.nextInt(n + 1); k > 0; k--) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                boolean fusion = contraction.representant(u) != contraction.representant(v);
+                assertEquals(fusion, contraction.contracter(u, v));
+            }
+            // le graphe contracté est celui obtenu en fusionnant chaque classe dans son plus petit sommet
+            Graphe fusionne = new Graphe(g.ensembleAretes());
+            g.ensembleSommets().forEach(fusionne::ajouterSommet);
+            for (int v : g.ensembleSommets()) {
+                fusionne.fusionnerSommets(contraction.representant(v), v);
+            }
+            assertEquals(fusionne, contraction.graphe());
+            assertEquals(fusionne.ensembleSommets(), contraction.graphe().ensembleSommets());
+            assertEquals(fusionne.nbSommets(), contraction.nbSommets());
+            for (int v : g.ensembleSommets()) {
+                assertTrue(contraction.sommetsFusionnes(v).contains(v));
+                assertEquals((int) Collections.min(contraction.sommetsFusionnes(v)), contraction.representant(v));
+            }
+        }
+    }
+
+    @Test
+    void test_multiplicites_et_aretes_restantes() {
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 2));
+        g.ajouterArete(new Arete(1, 2));
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(2, 3));
+        Contraction contraction = g.contraction();
+        assertTrue(contraction.contracter(1, 0));
+        assertFalse(contraction.contracter(0, 1));
+        assertFalse(contraction.contracter(0, 9));
+        assertEquals(Map.of(List.of(0, 2), 2, List.of(2, 3), 1), contraction.multiplicites());
+        assertEquals(3, contraction.aretesRestantes().size());
+        assertEquals(-1, contraction.representant(9));
+        assertTrue(contraction.sommetsFusionnes(9).isEmpty());
+    }
+
+    /**
+     * Vérifie que les arêtes de la coupe séparent bien g
+     */
+    private static void verifierCoupe(Graphe g, List<Arete> coupe) {
+        Set<Arete> restantes = new HashSet<>(g.ensembleAretes());
+        coupe.forEach(restantes::remove);
+        Graphe sansCoupe = new Graphe(restantes);
+        g.ensembleSommets().forEach(sansCoupe::ajouterSommet);
+        assertTrue(sansCoupe.nbClassesConnexite() >= 2);
+    }
+
+    /**
+     * @return un nombre d'essais de l'algorithme de Karger (n² ln n) qui trouve une coupe minimale d'un graphe à n
+     * sommets avec une probabilité d'au moins 1 - 1/n²
+     */
+    private static int nbEssais(int n) {
+        return (int) Math.ceil(n * n * Math.log(n));
+    }
+
+    @Test
+    void test_coupe_minimale_de_deux_cliques_reliees_par_deux_aretes() {
+        // deux cliques à 5 sommets, 0..4 et 5..9, reliées par 0-5 et 4-9
+        Graphe g = new Graphe(10);
+        for (int u = 0; u < 5; u++) {
+            for (int v = u + 1; v < 5; v++) {
+                g.ajouterArete(new Arete(u, v));
+                g.ajouterArete(new Arete(u + 5, v + 5));
+            }
+        }
+        g.ajouterArete(new Arete(0, 5));
+        g.ajouterArete(new Arete(4, 9));
+        List<Arete> coupe = Contraction.coupeMinimale(g.getGrapheCompact(), nbEssais(10), new Random(21));
+        assertEquals(Set.of(new Arete(0, 5), new Arete(4, 9)), new HashSet<>(coupe));
+        verifierCoupe(g, coupe);
+    }
+
+    @Test
+    void test_coupe_minimale_d_un_graphe_non_connexe() {
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(2, 3));
+        assertTrue(Contraction.coupeMinimale(g.getGrapheCompact(), 1, new Random(21)).isEmpty());
+        assertNull(Contraction.coupeMinimale(new Graphe(1).getGrapheCompact(), 10, new Random(21)));
+    }
+
+    @Test
+    void test_coupe_de_karger_jamais_plus_petite_que_la_coupe_minimale() {
+        Random random = new Random(21);
+        for (int essai = 0; essai < 100; essai++) {
+            int n = 2 + random.nextInt(7);
+            Graphe g = grapheAleatoire(random, n, random.nextInt(3 * n));
+            List<Arete> coupe = Contraction.coupeMinimale(g.getGrapheCompact(), nbEssais(n), random);
+            assertTrue(coupe.size() >= coupeMinimaleParEnumeration(g));
+            verifierCoupe(g, coupe);
+        }
+    }
+
+    @Test
+    void test_contraction_complete_d_un_grand_graphe() {
+        Random random = new Random(21);
+        int n = 5000;
+        Graphe g = grapheAleatoire(random, n, 3 * n);
+        for (int v = 1; v < n; v++) {
+            g.ajouterArete(new Arete(v - 1, v));
+        }
+        Contraction contraction = g.contraction();
+        contraction.contracterAleatoirement(1, random);
+        assertEquals(1, contraction.nbSommets());
+        assertTrue(contraction.aretesRestantes().isEmpty());
+        assertEquals(0, contraction.representant(n - 1));
+    }
+}
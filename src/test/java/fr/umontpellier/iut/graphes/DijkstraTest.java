@@ -0,0 +1,114 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DijkstraTest {
+    private Graphe graphe;
+
+    @BeforeEach
+    void setUp() {
+        // identifiants non contigus : 0, 3, 7, 10, 12
+        graphe = new Graphe();
+        graphe.ajouterArete(new Arete(0, 3));
+        graphe.ajouterArete(new Arete(3, 7));
+        graphe.ajouterArete(new Arete(7, 10));
+        graphe.ajouterArete(new Arete(0, 10));
+        graphe.ajouterSommet(12);
+    }
+
+    @Test
+    void test_tas_indexe_extrait_dans_l_ordre() {
+        TasIndexe tas = new TasIndexe(10);
+        int[] priorites = {5, 3, 9, 1, 7, 2, 8, 0, 6, 4};
+        for (int e = 0; e < priorites.length; e++) {
+            tas.insererOuDiminuer(e, priorites[e] + 10);
+        }
+        for (int e = 0; e < priorites.length; e++) {
+            tas.insererOuDiminuer(e, priorites[e]);
+        }
+        int precedente = -1;
+        while (!tas.estVide()) {
+            int e = tas.extraireMin();
+            assertTrue(priorites[e] > precedente);
+            precedente = priorites[e];
+        }
+        assertEquals(9, precedente);
+    }
+
+    @Test
+    void test_identifiants_non_contigus() {
+        List<Integer> parcours = graphe.parcoursSansRepetition(0, 7, false);
+        assertTrue(parcours.equals(List.of(0, 3, 7)) || parcours.equals(List.of(0, 10, 7)));
+        assertEquals(List.of(0, 10), graphe.parcoursSansRepetition(0, 10, false));
+        assertEquals(List.of(3), graphe.parcoursSansRepetition(3, 3, false));
+    }
+
+    @Test
+    void test_sommet_inaccessible_ou_absent() {
+        assertTrue(graphe.parcoursSansRepetition(0, 12, true).isEmpty());
+        assertTrue(graphe.parcoursSansRepetition(0, 42, true).isEmpty());
+        assertNull(graphe.plusCourtChemin(42, 0, Ponderation.SAUT));
+        int[] distances = Dijkstra.distances(graphe.getGrapheCompact(), 0, Ponderation.SAUT);
+        assertEquals(Dijkstra.INFINI, distances[graphe.getGrapheCompact().indice(12)]);
+        assertEquals(2, distances[graphe.getGrapheCompact().indice(7)]);
+    }
+
+    @Test
+    void test_ponderation_personnalisee() {
+        // l'arête 0-10 est très chère : le chemin passe par 3 et 7
+        Ponderation ponderation = a -> a.incidenteA(0) && a.incidenteA(10) ? 100 : 1;
+        Chemin chemin = graphe.plusCourtChemin(0, 10, ponderation);
+        assertEquals(List.of(0, 3, 7, 10), chemin.sommets());
+        assertEquals(3, chemin.aretes().size());
+        assertEquals(3, chemin.longueur());
+    }
+
+    @Test
+    void test_distances_identiques_a_bellman_ford_sur_graphes_aleatoires() {
+        Random random = new Random(42);
+        for (int essai = 0; essai < 50; essai++) {
+            int n = 2 + random.nextInt(30);
+            Graphe g = new Graphe(n);
+            Map<Arete, Integer> poids = new HashMap<>();
+            for (int k = 0; k < 2 * n; k++) {
+                Arete a = new Arete(random.nextInt(n), random.nextInt(n));
+                g.ajouterArete(a);
+                poids.putIfAbsent(a, random.nextInt(10));
+            }
+            Ponderation ponderation = poids::get;
+            GrapheCompact compact = g.getGrapheCompact();
+            for (int s = 0; s < n; s++) {
+                int[] attendues = new int[n];
+                Arrays.fill(attendues, Dijkstra.INFINI);
+                attendues[s] = 0;
+                for (int tour = 0; tour < n; tour++) {
+                    for (Arete a : g.ensembleAretes()) {
+                        int w = poids.get(a);
+                        if (attendues[a.i()] != Dijkstra.INFINI && attendues[a.i()] + w < attendues[a.j()]) {
+                            attendues[a.j()] = attendues[a.i()] + w;
+                        }
+                        if (attendues[a.j()] != Dijkstra.INFINI && attendues[a.j()] + w < attendues[a.i()]) {
+                            attendues[a.i()] = attendues[a.j()] + w;
+                        }
+                    }
+                }
+                assertArrayEquals(attendues, Dijkstra.distances(compact, s, ponderation));
+                int t = random.nextInt(n);
+                Chemin chemin = g.plusCourtChemin(s, t, ponderation);
+                if (attendues[t] == Dijkstra.INFINI) {
+                    assertNull(chemin);
+                } else {
+                    assertEquals(attendues[t], chemin.longueur());
+                    assertEquals(attendues[t], chemin.aretes().stream().mapToInt(poids::get).sum());
+                    assertEquals(s, (int) chemin.sommets().get(0));
+                    assertEquals(t, (int) chemin.sommets().get(chemin.sommets().size() - 1));
+                }
+            }
+        }
+    }
+}
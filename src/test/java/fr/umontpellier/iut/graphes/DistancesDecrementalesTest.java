@@ -0,0 +1,81 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistancesDecrementalesTest {
+    @Test
+    void test_memes_distances_que_dijkstra_apres_chaque_retrait() {
+        Random random = new Random(19);
+        for (int essai = 0; essai < 60; essai++) {
+            int n = 2 + random.nextInt(40);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(3 * n); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            // des poids nuls, comme les routes déjà possédées par un joueur
+            Ponderation ponderation = a -> (a.i() * 7 + a.j() * 3) % 4;
+            DistancesDecrementales distances = new DistancesDecrementales(g.getGrapheCompact(), ponderation);
+            int[] sources = random.ints(3, 0, n).toArray();
+            for (int s : sources) {
+                distances.distance(s, random.nextInt(n));
+            }
+            List<Arete> restantes = new ArrayList<>(g.ensembleAretes());
+            Collections.shuffle(restantes, random);
+            while (!restantes.isEmpty()) {
+                Arete retiree = restantes.remove(restantes.size() - 1);
+                assertTrue(distances.retirerArete(retiree));
+                assertFalse(distances.retirerArete(retiree));
+                assertFalse(distances.contientArete(retiree));
+                Set<Arete> presentes = new HashSet<>(restantes);
+                SousGraphe vue = g.sousGrapheParAretes(presentes::contains);
+                for (int s : sources) {
+                    for (int t = 0; t < n; t++) {
+                        Chemin attendu = vue.plusCourtChemin(s, t, ponderation);
+                        assertEquals(attendu == null ? Dijkstra.INFINI : attendu.longueur(), distances.distance(s, t));
+                        Chemin obtenu = distances.chemin(s, t);
+                        if (attendu == null) {
+                            assertNull(obtenu);
+                        } else {
+                            assertEquals(s, (int) obtenu.sommets().get(0));
+                            assertEquals(t, (int) obtenu.sommets().get(obtenu.sommets().size() - 1));
+                            assertTrue(presentes.containsAll(obtenu.aretes()));
+                            assertEquals(attendu.longueur(),
+                                    obtenu.aretes().stream().mapToInt(ponderation::poids).sum());
+                        }
+                    }
+                }
+            }
+            // un arbre n'est calculé qu'une fois par source, puis réparé
+            assertTrue(distances.nbSources() <= Arrays.stream(sources).distinct().count());
+        }
+    }
+
+    @Test
+    void test_chemin_depuis_l_arbre_de_l_arrivee_et_cas_particuliers() {
+        Graphe g = new Graphe(5);
+        Arete a01 = new Arete(0, 1);
+        Arete a12 = new Arete(1, 2);
+        Arete a02 = new Arete(0, 2);
+        g.ajouterArete(a01);
+        g.ajouterArete(a12);
+        g.ajouterArete(a02);
+        g.ajouterArete(new Arete(3, 4));
+        DistancesDecrementales distances = new DistancesDecrementales(g.getGrapheCompact(), Ponderation.SAUT);
+        assertEquals(1, distances.distance(2, 0));
+        // 2 est une source : le chemin de 0 à 2 est lu dans son arbre, sans ajouter 0
+        assertTrue(distances.retirerArete(a02));
+        assertEquals(List.of(0, 1, 2), distances.chemin(0, 2).sommets());
+        assertEquals(List.of(a01, a12), distances.chemin(0, 2).aretes());
+        assertEquals(1, distances.nbSources());
+        assertFalse(distances.retirerArete(new Arete(0, 3)));
+        assertTrue(distances.retirerArete(a12));
+        assertEquals(Dijkstra.INFINI, distances.distance(0, 2));
+        assertNull(distances.chemin(2, 0));
+        assertEquals(0, distances.distance(2, 2));
+        assertEquals(Dijkstra.INFINI, distances.distance(2, 9));
+    }
+}
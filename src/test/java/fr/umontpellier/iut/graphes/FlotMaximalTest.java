@@ -0,0 +1,113 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static fr.umontpellier.iut.graphes.GraphesDeTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlotMaximalTest {
+    private static final Ponderation CAPACITES = a -> (a.i() * 7 + a.j() * 3) % 4;
+
+    /**
+     * @return la capacité minimale d'une coupe entre s et t, en essayant tous les ensembles de sommets qui contiennent
+     * s et pas t
+     */
+    private static int coupeParEnumeration(Graphe g, int s, int t, Ponderation capacites) {
+        int n = g.nbSommets();
+        int min = Integer.MAX_VALUE;
+        for (int partie = 0; partie < 1 << n; partie++) {
+            if ((partie >> s & 1) == 0 || (partie >> t & 1) != 0) {
+                continue;
+            }
+            int capacite = 0;
+            for (Arete a : g.ensembleAretes()) {
+                if ((partie >> a.i() & 1) != (partie >> a.j() & 1)) {
+                    capacite += capacites.poids(a);
+                }
+            }
+            min = Math.min(min, capacite);
+        }
+        return min;
+    }
+
+    @Test
+    void test_flot_egal_a_la_coupe_minimale_par_enumeration() {
+        Random random = new Random(24);
+        for (int essai = 0; essai < 150; essai++) {
+            int n = 2 + random.nextInt(9);
+            Graphe g = grapheAleatoire(random, n);
+            ajouterAretesParalleles(random, g, random.nextInt(3));
+            Ponderation capacites = random.nextBoolean() ? Ponderation.SAUT : CAPACITES;
+            // le même réseau sert pour plusieurs paires de sommets
+            FlotMaximal flot = new FlotMaximal(g.getGrapheCompact(), capacites);
+            for (int k = 0; k < 5; k++) {
+                int s = random.nextInt(n);
+                int t = random.nextInt(n);
+                if (s == t) {
+                    assertEquals(0, flot.calculer(s, t));
+                    assertTrue(flot.coupeMinimale().isEmpty());
+                    continue;
+                }
+                int valeur = flot.calculer(s, t);
+                assertEquals(coupeParEnumeration(g, s, t, capacites), valeur);
+                List<Arete> coupe = flot.coupeMinimale();
+                assertEquals(valeur, coupe.stream().mapToInt(capacites::poids).sum());
+                Set<Arete> retirees = new HashSet<>(coupe);
+                assertFalse(g.sousGrapheParAretes(a -> capacites.poids(a) > 0 && !retirees.contains(a))
+                        .sontConnectes(s, t));
+            }
+        }
+    }
+
+    @Test
+    void test_aretes_infinies_sommets_absents_et_vues() {
+        Graphe g = new Graphe(4);
+        Arete a01 = new Arete(0, 1);
+        Arete a12 = new Arete(1, 2);
+        Arete a02 = new Arete(0, 2);
+        Arete a23 = new Arete(2, 3);
+        g.ajouterArete(a01);
+        g.ajouterArete(a12);
+        g.ajouterArete(a02);
+        g.ajouterArete(a23);
+        assertEquals(2, g.flotMaximal(0, 2, Ponderation.SAUT));
+        assertEquals(1, g.flotMaximal(0, 3, Ponderation.SAUT));
+        assertEquals(List.of(a23), g.coupeMinimale(0, 3, Ponderation.SAUT));
+        assertEquals(0, g.flotMaximal(0, 9, Ponderation.SAUT));
+        // 0-2 ne peut pas être coupée : 0 et 2 restent inséparables, et isoler 1 demande de couper 0-1 et 1-2
+        FlotMaximal flot = new FlotMaximal(g.getGrapheCompact(), a -> a.equals(a02) ? Dijkstra.INFINI : 1);
+        assertEquals(Dijkstra.INFINI, flot.calculer(0, 2));
+        assertTrue(flot.coupeMinimale().isEmpty());
+        assertEquals(2, flot.calculer(1, 0));
+        assertEquals(Set.of(a01, a12), new HashSet<>(flot.coupeMinimale()));
+        flot.fixerCapacites(Ponderation.SAUT);
+        assertTrue(flot.coupeMinimale().isEmpty());
+        // dans la vue privée de 0-2, le seul chemin de 0 à 2 passe par 1
+        SousGraphe vue = g.sousGrapheParAretes(a -> !a.equals(a02));
+        assertEquals(1, vue.coupeMinimale(0, 2, Ponderation.SAUT).size());
+    }
+
+    @Test
+    void test_aretes_paralleles_coupees_ensemble() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Arete rouge = new Arete(0, 1, new RouteMaritime(a, b, Couleur.ROUGE, 1));
+        Arete verte = new Arete(0, 1, new RouteMaritime(a, b, Couleur.VERT, 1));
+        Arete a12 = new Arete(1, 2);
+        Graphe g = new Graphe(List.of(rouge, verte, a12));
+        // séparer 0 de 1 demande de couper les deux routes parallèles
+        assertEquals(2, g.flotMaximal(0, 1, Ponderation.SAUT));
+        assertEquals(Set.of(rouge, verte), new HashSet<>(g.coupeMinimale(0, 1, Ponderation.SAUT)));
+        assertEquals(List.of(a12), g.coupeMinimale(0, 2, Ponderation.SAUT));
+        // une seule des deux routes ne peut pas être coupée : 0 et 1 restent inséparables
+        FlotMaximal flot = new FlotMaximal(g.getGrapheCompact(), x -> x.equals(rouge) ? Dijkstra.INFINI : 1);
+        assertEquals(Dijkstra.INFINI, flot.calculer(0, 1));
+        assertEquals(1, flot.calculer(0, 2));
+        assertEquals(List.of(a12), flot.coupeMinimale());
+    }
+}
@@ -0,0 +1,67 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrapheBitsTest {
+    @Test
+    void test_accessibilite_identique_au_graphe() {
+        Random random = new Random(34);
+        // jusqu'à 150 sommets : plusieurs mots par ensemble
+        for (int essai = 0; essai < 100; essai++) {
+            int n = 1 + random.nextInt(150);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(n + 1); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            GrapheBits bits = GrapheBits.de(g.getGrapheCompact());
+            for (int k = 0; k < 5; k++) {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                assertEquals(g.getClasseConnexite(i), bits.atteignables(i));
+                assertEquals(g.sontConnectes(i, j), bits.sontConnectes(i, j));
+                assertEquals(g.sontConnectes(i, j) && g.sontConnectes(j, k),
+                        bits.sontTousConnectes(List.of(i, j, k)));
+            }
+        }
+    }
+
+    @Test
+    void test_parcours_en_largeur_multi_sources() {
+        Graphe g = new Graphe();
+        for (int v = 1; v < 100; v++) {
+            g.ajouterArete(new Arete(v - 1, v));
+        }
+        g.ajouterSommet(200);
+        GrapheCompact compact = g.getGrapheCompact();
+        int[] distances = GrapheBits.de(compact).distances(List.of(0, 70));
+        for (int v = 0; v < 100; v++) {
+            assertEquals(Math.min(v, Math.abs(v - 70)), distances[compact.indice(v)]);
+        }
+        assertEquals(-1, distances[compact.indice(200)]);
+    }
+
+    @Test
+    void test_ajout_d_aretes_et_sommets_absents() {
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 2));
+        g.ajouterArete(new Arete(2, 3));
+        GrapheBits bits = GrapheBits.vide(g.getGrapheCompact());
+        assertTrue(bits.sontConnectes(2, 2));
+        assertFalse(bits.sontConnectes(0, 1));
+        bits.ajouterArete(new Arete(0, 1));
+        bits.ajouterArete(new Arete(2, 3));
+        assertTrue(bits.sontConnectes(1, 0));
+        assertFalse(bits.sontTousConnectes(List.of(0, 1, 2)));
+        bits.ajouterArete(new Arete(1, 2));
+        assertTrue(bits.sontTousConnectes(List.of(0, 1, 2, 3)));
+        assertTrue(bits.sontTousConnectes(List.of()));
+        assertFalse(bits.sontConnectes(0, 7));
+        assertFalse(bits.sontConnectes(-1, -1));
+        assertThrows(IllegalArgumentException.class, () -> bits.ajouterArete(new Arete(0, 9)));
+    }
+}
@@ -0,0 +1,105 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrapheCompactTest {
+    private Graphe grapheAbstrait;
+
+    @BeforeEach
+    void setUp() {
+        grapheAbstrait = new Graphe(5);
+        List<Arete> listeAretes = Arrays.asList(new Arete(0, 1),
+                new Arete(0, 4),
+                new Arete(1, 2),
+                new Arete(1, 4),
+                new Arete(2, 4),
+                new Arete(2, 5),
+                new Arete(3, 4),
+                new Arete(5, 1),
+                new Arete(5, 3));
+        listeAretes.forEach(a -> grapheAbstrait.ajouterArete(a));
+    }
+
+    @Test
+    void test_tailles() {
+        GrapheCompact compact = grapheAbstrait.getGrapheCompact();
+        assertEquals(6, compact.nbSommets());
+        assertEquals(9, compact.nbAretes());
+        assertEquals(18, compact.nbDemiAretes());
+        assertEquals(grapheAbstrait.ensembleSommets(), compact.ensembleSommets());
+    }
+
+    @Test
+    void test_voisins_et_degres_identiques_au_graphe() {
+        GrapheCompact compact = grapheAbstrait.getGrapheCompact();
+        assertEquals(Set.of(0, 2, 4, 5), compact.getVoisins(1));
+        assertEquals(4, compact.degre(1));
+        assertEquals(0, compact.degre(42));
+        assertTrue(compact.getVoisins(42).isEmpty());
+        for (int v : grapheAbstrait.ensembleSommets()) {
+            int u = compact.indice(v);
+            assertEquals(v, compact.identifiant(u));
+            Set<Integer> voisins = new HashSet<>();
+            for (int h = compact.debut(u); h < compact.fin(u); h++) {
+                voisins.add(compact.identifiant(compact.cible(h)));
+                assertTrue(compact.arete(compact.numeroArete(h)).incidenteA(v));
+            }
+            assertEquals(voisins, grapheAbstrait.getVoisins(v));
+        }
+    }
+
+    @Test
+    void test_aretes_paralleles_et_boucles() {
+        Graphe g = new Graphe(3);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 1));
+        GrapheCompact compact = g.getGrapheCompact();
+        assertEquals(2, compact.nbAretes());
+        assertEquals(3, compact.nbDemiAretes());
+        assertEquals(2, compact.degre(1));
+        assertEquals(0, compact.degre(2));
+    }
+
+    @Test
+    void test_compact_reconstruit_apres_modification() {
+        GrapheCompact avant = grapheAbstrait.getGrapheCompact();
+        assertSame(avant, grapheAbstrait.getGrapheCompact());
+        grapheAbstrait.ajouterArete(new Arete(0, 3));
+        GrapheCompact apres = grapheAbstrait.getGrapheCompact();
+        assertNotSame(avant, apres);
+        assertEquals(10, apres.nbAretes());
+        assertEquals(9, avant.nbAretes());
+        assertEquals(grapheAbstrait.getMapAretes(), apres.getMapAretes());
+    }
+
+    @Test
+    void test_numerotation_des_aretes_stable() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        List<Route> routes = List.of(new RouteMaritime(a, b, Couleur.ROUGE, 1),
+                new RouteMaritime(a, b, Couleur.VERT, 1),
+                new RouteMaritime(a, b, Couleur.JAUNE, 1));
+        Graphe g = new Graphe();
+        g.ajouterArete(new Arete(3, 2));
+        for (Route r : routes) {
+            g.ajouterArete(new Arete(1, 2, r));
+        }
+        g.ajouterArete(new Arete(0, 3));
+        GrapheCompact compact = g.getGrapheCompact();
+        // tri par (plus petite extrémité, plus grande extrémité), puis ordre d'ajout des arêtes parallèles
+        assertEquals(new Arete(0, 3), compact.arete(0));
+        for (int e = 0; e < routes.size(); e++) {
+            assertSame(routes.get(e), compact.arete(e + 1).route());
+        }
+        assertEquals(new Arete(2, 3), compact.arete(4));
+    }
+}
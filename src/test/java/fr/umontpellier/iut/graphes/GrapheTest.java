@@ -753,7 +753,8 @@ public class GrapheTest {
         grapheAbstrait.ajouterArete(new Arete(1, 2));
         grapheAbstrait.ajouterArete(new Arete(5, 4));
 
-        assertFalse(grapheAbstrait.estUneForet());
+        // 5-4 ajoute le sommet 5 sans fermer de cycle : 0-1-2, 3 et 4-5 restent des arbres
+        assertTrue(grapheAbstrait.estUneForet());
     }
 
     @Test
@@ -1223,4 +1224,315 @@ public class GrapheTest {
 
         assertTrue(Objects.equals(arete, arete2));
     }
+
+    @Test
+    public void testHashAretePareil() {
+        assertEquals(new Arete(1, 3).hashCode(), new Arete(3, 1).hashCode());
+    }
+
+    @Test
+    public void testIndexAretesSymetrique() {
+        grapheAbstrait = new Graphe(4);
+        grapheAbstrait.ajouterArete(new Arete(2, 0));
+        assertTrue(grapheAbstrait.existeArete(new Arete(0, 2)));
+        grapheAbstrait.ajouterArete(new Arete(0, 2));
+        assertEquals(1, grapheAbstrait.nbAretes());
+        grapheAbstrait.supprimerArete(new Arete(0, 2));
+        assertEquals(0, grapheAbstrait.nbAretes());
+        assertTrue(grapheAbstrait.getVoisins(2).isEmpty());
+    }
+
+    @Test
+    public void testSupprimerSommetMetAJourIndex() {
+        int nbAretes = grapheAbstrait.nbAretes();
+        grapheAbstrait.supprimerSommet(4);
+        assertEquals(nbAretes - 4, grapheAbstrait.nbAretes());
+        assertFalse(grapheAbstrait.existeArete(new Arete(0, 4)));
+        assertFalse(grapheAbstrait.getVoisins(0).contains(4));
+    }
+
+    @Test
+    public void testDegresMaintenusApresModifications() {
+        Random random = new Random(42);
+        Graphe g = new Graphe(20);
+        for (int k = 0; k < 2000; k++) {
+            Arete a = new Arete(random.nextInt(20), random.nextInt(20));
+            switch (random.nextInt(5)) {
+                case 0 -> g.supprimerArete(a);
+                case 1 -> g.supprimerSommet(a.i());
+                default -> g.ajouterArete(a);
+            }
+            int max = Integer.MIN_VALUE;
+            for (int v : g.ensembleSommets()) {
+                assertEquals(g.getVoisins(v).size(), g.degre(v));
+                max = Math.max(max, g.getVoisins(v).size());
+            }
+            assertEquals(max, g.degreMax());
+        }
+    }
+
+    @Test
+    public void testEstSimpleAvecAretesParalleles() {
+        grapheAbstrait = new Graphe(2);
+        grapheAbstrait.ajouterArete(new Arete(0, 1));
+        assertTrue(grapheAbstrait.estSimple());
+        Route route = new RouteMaritime(new Ville("Athina", true), new Ville("Marseille", true), Couleur.ROUGE, 2);
+        grapheAbstrait.ajouterArete(new Arete(0, 1, route));
+        assertFalse(grapheAbstrait.estSimple());
+        assertEquals(1, grapheAbstrait.degre(0));
+        grapheAbstrait.supprimerArete(new Arete(1, 0, route));
+        assertTrue(grapheAbstrait.estSimple());
+    }
+
+    @Test
+    public void testConnexiteIncrementale() {
+        grapheAbstrait = new Graphe(6);
+        assertEquals(6, grapheAbstrait.nbClassesConnexite());
+        grapheAbstrait.ajouterArete(new Arete(0, 1));
+        grapheAbstrait.ajouterArete(new Arete(2, 3));
+        assertEquals(4, grapheAbstrait.nbClassesConnexite());
+        assertTrue(grapheAbstrait.sontConnectes(1, 0));
+        assertFalse(grapheAbstrait.sontConnectes(1, 2));
+        grapheAbstrait.ajouterArete(new Arete(1, 2));
+        assertTrue(grapheAbstrait.sontConnectes(0, 3));
+        assertEquals(Set.of(0, 1, 2, 3), grapheAbstrait.getClasseConnexite(3));
+        grapheAbstrait.supprimerArete(new Arete(1, 2));
+        assertFalse(grapheAbstrait.sontConnectes(0, 3));
+        grapheAbstrait.ajouterArete(new Arete(4, 5));
+        assertEquals(Set.of(Set.of(0, 1), Set.of(2, 3), Set.of(4, 5)), grapheAbstrait.getEnsembleClassesConnexite());
+        assertFalse(grapheAbstrait.estConnexe());
+        grapheAbstrait.ajouterArete(new Arete(1, 2));
+        grapheAbstrait.ajouterArete(new Arete(3, 4));
+        assertTrue(grapheAbstrait.estConnexe());
+    }
+
+    @Test
+    public void testEstUnIsthmeNeModifiePasLeGraphe() {
+        grapheAbstrait = new Graphe(5);
+        grapheAbstrait.ajouterArete(new Arete(0, 1));
+        grapheAbstrait.ajouterArete(new Arete(1, 2));
+        grapheAbstrait.ajouterArete(new Arete(2, 0));
+        grapheAbstrait.ajouterArete(new Arete(2, 3));
+        grapheAbstrait.ajouterArete(new Arete(3, 3));
+        assertTrue(grapheAbstrait.estUnIsthme(new Arete(3, 2)));
+        assertFalse(grapheAbstrait.estUnIsthme(new Arete(0, 1)));
+        assertFalse(grapheAbstrait.estUnIsthme(new Arete(3, 3)));
+        assertFalse(grapheAbstrait.estUnIsthme(new Arete(3, 4)));
+        assertEquals(5, grapheAbstrait.nbAretes());
+        assertEquals(Set.of(new Arete(2, 3)), grapheAbstrait.getIsthmes());
+        // une arête parallèle supprime l'isthme
+        Route route = new RouteMaritime(new Ville("Athina", true), new Ville("Marseille", true), Couleur.ROUGE, 2);
+        grapheAbstrait.ajouterArete(new Arete(2, 3, route));
+        assertFalse(grapheAbstrait.estUnIsthme(new Arete(2, 3)));
+        assertTrue(grapheAbstrait.getIsthmes().isEmpty());
+    }
+
+    @Test
+    public void testIsthmesIdentiquesALaDefinition() {
+        Random random = new Random(3);
+        for (int essai = 0; essai < 100; essai++) {
+            int n = 1 + random.nextInt(12);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(2 * n); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            for (Arete a : g.ensembleAretes()) {
+                Graphe sansA = new Graphe(n);
+                g.ensembleAretes().stream().filter(b -> !b.equals(a)).forEach(sansA::ajouterArete);
+                assertEquals(sansA.nbClassesConnexite() > g.nbClassesConnexite(), g.estUnIsthme(a));
+            }
+        }
+    }
+
+    @Test
+    public void testForetIdentiqueALaDefinition() {
+        Random random = new Random(8);
+        for (int essai = 0; essai < 300; essai++) {
+            int n = 1 + random.nextInt(12);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(n + 1); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            // une forêt : chaque arête relie deux classes encore distinctes
+            UnionFind classes = new UnionFind(n);
+            boolean foret = true;
+            for (Arete a : g.ensembleAretes()) {
+                foret &= classes.unir(a.i(), a.j());
+            }
+            assertEquals(foret, g.estUneForet());
+            assertEquals(foret && g.estConnexe(), g.arbre());
+            List<Integer> cycle = g.trouverCycle();
+            assertEquals(foret, cycle == null);
+            if (cycle != null) {
+                assertEquals(cycle.size(), new HashSet<>(cycle).size());
+                for (int k = 0; k < cycle.size(); k++) {
+                    assertTrue(g.sontAdjacents(cycle.get(k), cycle.get((k + 1) % cycle.size())));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCycleTemoinBoucleEtAretesParalleles() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Graphe g = new Graphe(3);
+        g.ajouterArete(new Arete(0, 1, new RouteMaritime(a, b, Couleur.ROUGE, 1)));
+        g.ajouterArete(new Arete(1, 2));
+        assertNull(g.trouverCycle());
+        g.ajouterArete(new Arete(0, 1, new RouteMaritime(a, b, Couleur.VERT, 1)));
+        assertEquals(Set.of(0, 1), new HashSet<>(g.trouverCycle()));
+        assertFalse(g.estUneForet());
+        assertFalse(g.estUneChaine());
+
+        Graphe boucle = new Graphe(2);
+        boucle.ajouterArete(new Arete(0, 1));
+        boucle.ajouterArete(new Arete(1, 1));
+        assertEquals(List.of(1), boucle.trouverCycle());
+        assertFalse(boucle.estUneChaine());
+        assertFalse(boucle.arbre());
+    }
+
+    @Test
+    public void testChaineEtCycleDeCentMilleSommets() {
+        int n = 100000;
+        Graphe g = new Graphe(n);
+        for (int v = 1; v < n; v++) {
+            g.ajouterArete(new Arete(v - 1, v));
+        }
+        assertTrue(g.estUneChaine());
+        assertTrue(g.arbre());
+        assertTrue(g.estUneForet());
+        assertNull(g.trouverCycle());
+        assertFalse(g.estUnCycle());
+        g.ajouterArete(new Arete(n - 1, 0));
+        assertTrue(g.estUnCycle());
+        assertFalse(g.estUneChaine());
+        assertEquals(n, g.trouverCycle().size());
+    }
+
+    @Test
+    public void testDeuxTrianglesNeFormentPasUnCycle() {
+        Graphe g = new Graphe(6);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 2));
+        g.ajouterArete(new Arete(2, 0));
+        g.ajouterArete(new Arete(3, 4));
+        g.ajouterArete(new Arete(4, 5));
+        g.ajouterArete(new Arete(5, 3));
+        assertFalse(g.estUnCycle());
+        assertEquals(3, g.trouverCycle().size());
+    }
+
+    @Test
+    public void testFusionnerSommets() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Graphe g = new Graphe(5);
+        Arete route = new Arete(3, 4, new RouteMaritime(a, b, Couleur.ROUGE, 1));
+        g.ajouterArete(new Arete(1, 3));
+        g.ajouterArete(new Arete(3, 1));
+        g.ajouterArete(route);
+        g.ajouterArete(new Arete(3, 3));
+        g.ajouterArete(new Arete(1, 2));
+        g.ajouterArete(new Arete(0, 3));
+        g.fusionnerSommets(3, 1);
+        assertFalse(g.contientSommet(3));
+        assertEquals(4, g.nbSommets());
+        assertEquals(Set.of(0, 1, 2, 4), g.getVoisins(1));
+        assertTrue(g.existeArete(new Arete(1, 4, route.route())));
+        assertTrue(g.existeArete(new Arete(1, 1)));
+        assertEquals(4, g.nbAretes());
+
+        // rien ne change si l'un des sommets est absent
+        g.fusionnerSommets(1, 3);
+        g.fusionnerSommets(7, 1);
+        g.fusionnerSommets(2, 2);
+        assertEquals(4, g.nbSommets());
+        assertEquals(4, g.nbAretes());
+    }
+
+    @Test
+    public void testMapAretesEnLectureSeuleEtAJour() {
+        Graphe g = new Graphe(3);
+        g.ajouterArete(new Arete(0, 1));
+        Set<Arete> incidentesDeUn = g.getMapAretes().get(1);
+        assertThrows(UnsupportedOperationException.class, () -> incidentesDeUn.add(new Arete(1, 2)));
+        assertThrows(UnsupportedOperationException.class, incidentesDeUn::clear);
+        assertEquals(1, g.nbAretes());
+        g.ajouterArete(new Arete(1, 2));
+        assertEquals(2, g.getMapAretes().get(1).size());
+        g.ajouterSommet(7);
+        assertTrue(g.getMapAretes().get(7).isEmpty());
+        g.supprimerSommet(0);
+        assertFalse(g.getMapAretes().containsKey(0));
+    }
+
+    @Test
+    public void testGrapheFigePartageEntreThreads() throws Exception {
+        Graphe g = new Graphe(6);
+        for (int v = 1; v < 6; v++) {
+            g.ajouterArete(new Arete(v - 1, v));
+        }
+        g.ajouterArete(new Arete(0, 2));
+        assertSame(g, g.figer());
+        assertTrue(g.estFige());
+        assertThrows(UnsupportedOperationException.class, () -> g.ajouterArete(new Arete(0, 5)));
+        assertThrows(UnsupportedOperationException.class, () -> g.supprimerArete(new Arete(0, 1)));
+        assertThrows(UnsupportedOperationException.class, () -> g.ajouterSommet(9));
+        assertThrows(UnsupportedOperationException.class, () -> g.supprimerSommet(0));
+        assertThrows(UnsupportedOperationException.class, () -> g.fusionnerSommets(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> g.ensembleSommets().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> g.getMapAretes().get(1).clear());
+        assertThrows(UnsupportedOperationException.class, () -> g.getMapAretes().remove(1));
+        assertEquals(6, g.nbAretes());
+        assertEquals(2, g.getMapAretes().get(1).size());
+
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> erreurs = Collections.synchronizedList(new ArrayList<>());
+        for (int k = 0; k < 4; k++) {
+            Thread t = new Thread(() -> {
+                try {
+                    for (int r = 0; r < 1000; r++) {
+                        assertTrue(g.estConnexe());
+                        assertEquals(3, g.getIsthmes().size());
+                        assertEquals(List.of(0, 2, 3), g.parcoursSansRepetition(0, 3, false));
+                        SousGraphe sansDeux = g.sousGrapheParAretes(a -> a.i() != 2 && a.j() != 2);
+                        assertFalse(sansDeux.sontConnectes(1, 3));
+                        assertTrue(sansDeux.sontConnectes(3, 5));
+                    }
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(List.of(), erreurs);
+    }
+
+    @Test
+    public void testEmpreinteGardeeJusquALaProchaineModification() {
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 2));
+        Graphe h = new Graphe(List.of(new Arete(3, 2), new Arete(2, 1)));
+        h.ajouterSommet(7);
+        // même forme (un chemin de longueur 2 et un sommet isolé), sommets différents
+        assertEquals(g.empreinte(), h.empreinte());
+        assertEquals(g.forme(), h.forme());
+        long avant = g.empreinte();
+        g.ajouterArete(new Arete(2, 3));
+        assertNotEquals(avant, g.empreinte());
+        assertNotEquals(h.forme(), g.forme());
+        g.supprimerArete(new Arete(2, 3));
+        assertEquals(avant, g.empreinte());
+        Graphe copie = new Graphe(4);
+        g.ensembleAretes().forEach(copie::ajouterArete);
+        assertEquals(g, copie);
+        assertEquals(g.hashCode(), copie.hashCode());
+    }
 }
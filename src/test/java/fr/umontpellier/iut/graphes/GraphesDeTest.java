@@ -0,0 +1,72 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+
+import java.util.*;
+
+/**
+ * Outils communs aux tests du paquetage : graphes tirés au hasard, et énumération exhaustive des chemins
+ * élémentaires qui sert de référence aux algorithmes de chemins
+ */
+final class GraphesDeTest {
+    private static final Ville VILLE_1 = new Ville("Départ", false);
+    private static final Ville VILLE_2 = new Ville("Arrivée", false);
+
+    private GraphesDeTest() {
+    }
+
+    /**
+     * @return un graphe de sommets 0..n-1 et d'au plus 3n - 1 arêtes tirées au hasard (boucles comprises)
+     */
+    static Graphe grapheAleatoire(Random random, int n) {
+        Graphe g = new Graphe(n);
+        for (int k = random.nextInt(3 * n); k > 0; k--) {
+            g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+        }
+        return g;
+    }
+
+    /**
+     * Ajoute à g, nb fois, une arête parallèle à une arête de g tirée au hasard (hors boucles). Chaque nouvelle
+     * arête porte sa propre route, si bien qu'elle est différente de toutes les arêtes déjà présentes.
+     */
+    static void ajouterAretesParalleles(Random random, Graphe g, int nb) {
+        List<Arete> aretes = g.ensembleAretes().stream().filter(a -> a.i() != a.j()).toList();
+        if (aretes.isEmpty()) {
+            return;
+        }
+        for (int k = 0; k < nb; k++) {
+            Arete a = aretes.get(random.nextInt(aretes.size()));
+            g.ajouterArete(new Arete(a.i(), a.j(), new RouteMaritime(VILLE_1, VILLE_2, Couleur.GRIS, 1)));
+        }
+    }
+
+    /**
+     * @return tous les chemins élémentaires de depart à arrivee, chacun donné par sa liste d'arêtes (les arêtes
+     * parallèles donnent des chemins différents)
+     */
+    static List<List<Arete>> chemins(Graphe g, int depart, int arrivee) {
+        List<List<Arete>> chemins = new ArrayList<>();
+        enumerer(g, depart, arrivee, new HashSet<>(List.of(depart)), new ArrayList<>(), chemins);
+        return chemins;
+    }
+
+    private static void enumerer(Graphe g, int u, int arrivee, Set<Integer> visites, List<Arete> courant,
+                                 List<List<Arete>> chemins) {
+        if (u == arrivee) {
+            chemins.add(new ArrayList<>(courant));
+            return;
+        }
+        for (Arete a : g.getMapAretes().get(u)) {
+            int v = a.getAutreSommet(u);
+            if (visites.add(v)) {
+                courant.add(a);
+                enumerer(g, v, arrivee, visites, courant, chemins);
+                courant.remove(courant.size() - 1);
+                visites.remove(v);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static fr.umontpellier.iut.graphes.GraphesDeTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntermediariteTest {
+    private static final Ponderation POIDS = a -> 1 + (a.i() * 3 + a.j() * 5) % 3;
+
+    /**
+     * @return la centralité des arêtes calculée en énumérant tous les plus courts chemins de chaque trajet
+     */
+    private static Map<Arete, Double> centralitesParEnumeration(Graphe g, List<List<Integer>> trajets) {
+        Map<Arete, Double> centralites = new HashMap<>();
+        for (List<Integer> trajet : trajets) {
+            for (int k = 0; k + 1 < trajet.size(); k++) {
+                if (trajet.get(k).equals(trajet.get(k + 1))) {
+                    continue;
+                }
+                List<List<Arete>> chemins = chemins(g, trajet.get(k), trajet.get(k + 1));
+                int min = chemins.stream().mapToInt(c -> c.stream().mapToInt(POIDS::poids).sum()).min()
+                        .orElse(-1);
+                List<List<Arete>> plusCourts = chemins.stream()
+                        .filter(c -> c.stream().mapToInt(POIDS::poids).sum() == min).toList();
+                for (List<Arete> c : plusCourts) {
+                    for (Arete a : c) {
+                        centralites.merge(a, 1.0 / plusCourts.size(), Double::sum);
+                    }
+                }
+            }
+        }
+        return centralites;
+    }
+
+    private static void assertMemesCentralites(Map<Arete, Double> attendues, Map<Arete, Double> obtenues) {
+        assertEquals(attendues.keySet(), obtenues.keySet());
+        for (Arete a : attendues.keySet()) {
+            assertEquals(attendues.get(a), obtenues.get(a), 1e-9);
+        }
+    }
+
+    private static List<List<Integer>> trajetsAleatoires(Random random, int n) {
+        List<List<Integer>> trajets = new ArrayList<>();
+        for (int k = random.nextInt(6); k > 0; k--) {
+            List<Integer> trajet = new ArrayList<>();
+            for (int i = 2 + random.nextInt(2); i > 0; i--) {
+                trajet.add(random.nextInt(n));
+            }
+            trajets.add(trajet);
+        }
+        return trajets;
+    }
+
+    @Test
+    void test_boucles_itineraires_et_trajets_repetes() {
+        Graphe g = new Graphe(3);
+        Arete a01 = new Arete(0, 1);
+        Arete a12 = new Arete(1, 2);
+        g.ajouterArete(a01);
+        g.ajouterArete(a12);
+        g.ajouterArete(new Arete(2, 2));
+        // deux fois 0-2, et un itinéraire 2-1-0 ; le sommet 7 n'est pas dans le graphe
+        Intermediarite intermediarite = new Intermediarite(g.getGrapheCompact(), Ponderation.SAUT,
+                List.of(List.of(0, 2), List.of(0, 2), List.of(2, 1, 0), List.of(0, 7)));
+        assertEquals(3.0, intermediarite.centralite(a01), 1e-9);
+        assertEquals(3.0, intermediarite.centralite(a12), 1e-9);
+        assertEquals(Map.of(a01, 3.0, a12, 3.0), intermediarite.centralites());
+    }
+
+    @Test
+    void test_aretes_paralleles_se_partagent_les_trajets() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Arete rouge = new Arete(0, 1, new RouteMaritime(a, b, Couleur.ROUGE, 1));
+        Arete verte = new Arete(0, 1, new RouteMaritime(a, b, Couleur.VERT, 1));
+        Arete a12 = new Arete(1, 2);
+        Graphe g = new Graphe(List.of(rouge, verte, a12));
+        Intermediarite intermediarite = new Intermediarite(g.getGrapheCompact(), Ponderation.SAUT,
+                List.of(List.of(0, 2)));
+        assertEquals(Map.of(rouge, 0.5, verte, 0.5, a12, 1.0), intermediarite.centralites());
+        intermediarite.retirerAretes(List.of(verte));
+        assertEquals(Map.of(rouge, 1.0, a12, 1.0), intermediarite.centralites());
+    }
+
+    @Test
+    void test_identique_a_l_enumeration_puis_a_un_nouveau_calcul_apres_retraits() {
+        Random random = new Random(20);
+        for (int essai = 0; essai < 200; essai++) {
+            int n = 2 + random.nextInt(7);
+            Graphe g = grapheAleatoire(random, n);
+            ajouterAretesParalleles(random, g, random.nextInt(3));
+            List<List<Integer>> trajets = trajetsAleatoires(random, n);
+            Intermediarite intermediarite = new Intermediarite(g.getGrapheCompact(), POIDS, trajets);
+            assertMemesCentralites(centralitesParEnumeration(g, trajets), intermediarite.centralites());
+
+            List<Arete> restantes = new ArrayList<>(g.ensembleAretes());
+            Collections.shuffle(restantes, random);
+            while (!restantes.isEmpty()) {
+                List<Arete> retirees = new ArrayList<>();
+                for (int k = 1 + random.nextInt(3); k > 0 && !restantes.isEmpty(); k--) {
+                    retirees.add(restantes.remove(restantes.size() - 1));
+                }
+                intermediarite.retirerAretes(retirees);
+                Intermediarite attendue = new Intermediarite(new Graphe(restantes).getGrapheCompact(), POIDS,
+                        trajets);
+                assertMemesCentralites(attendue.centralites(), intermediarite.centralites());
+                for (Arete a : retirees) {
+                    assertEquals(0.0, intermediarite.centralite(a));
+                }
+            }
+        }
+    }
+}
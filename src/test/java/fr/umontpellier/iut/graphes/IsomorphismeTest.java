@@ -0,0 +1,228 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsomorphismeTest {
+    /**
+     * @return une copie de g dont le i-ème sommet (dans l'ordre de g) est renommé noms.get(i) + 1000
+     */
+    private static Graphe renommer(Graphe g, List<Integer> noms) {
+        Map<Integer, Integer> renommage = new HashMap<>();
+        int k = 0;
+        for (int v : g.ensembleSommets()) {
+            renommage.put(v, noms.get(k++) + 1000);
+        }
+        Graphe copie = new Graphe();
+        renommage.values().forEach(copie::ajouterSommet);
+        for (Arete a : g.ensembleAretes()) {
+            copie.ajouterArete(new Arete(renommage.get(a.i()), renommage.get(a.j()), a.route()));
+        }
+        return copie;
+    }
+
+    /**
+     * @return une copie de g dont les sommets sont renommés dans l'ordre inverse (décalés de 1000)
+     */
+    private static Graphe renommer(Graphe g) {
+        List<Integer> noms = new ArrayList<>(g.ensembleSommets());
+        Collections.reverse(noms);
+        return renommer(g, noms);
+    }
+
+    /**
+     * Graphe de Petersen : pentagone extérieur 0..4, pentagramme intérieur 5..9 et rayons i - (i + 5)
+     */
+    private static Graphe petersen() {
+        Graphe g = new Graphe(10);
+        for (int i = 0; i < 5; i++) {
+            g.ajouterArete(new Arete(i, (i + 1) % 5));
+            g.ajouterArete(new Arete(5 + i, 5 + (i + 2) % 5));
+            g.ajouterArete(new Arete(i, i + 5));
+        }
+        return g;
+    }
+
+    private static Graphe grapheAleatoire(Random random, int n, int m) {
+        Graphe g = new Graphe(n);
+        for (int k = 0; k < m; k++) {
+            g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+        }
+        return g;
+    }
+
+    private static long nbAretesEntre(Graphe g, int i, int j) {
+        return g.ensembleAretes().stream().filter(a -> a.incidenteA(i) && a.getAutreSommet(i) == j).count();
+    }
+
+    private static void verifierBijection(Graphe g1, Graphe g2, Map<Integer, Integer> bijection) {
+        assertEquals(g2.ensembleSommets(), new HashSet<>(bijection.values()));
+        for (int i : g1.ensembleSommets()) {
+            for (int j : g1.ensembleSommets()) {
+                assertEquals(nbAretesEntre(g1, i, j), nbAretesEntre(g2, bijection.get(i), bijection.get(j)));
+            }
+        }
+    }
+
+    private static boolean sontIsomorphesForceBrute(Graphe g1, Graphe g2) {
+        List<Integer> sommets1 = new ArrayList<>(g1.ensembleSommets());
+        List<Integer> sommets2 = new ArrayList<>(g2.ensembleSommets());
+        if (sommets1.size() != sommets2.size() || g1.nbAretes() != g2.nbAretes()) {
+            return false;
+        }
+        return permutations(g1, g2, sommets1, sommets2, new HashMap<>());
+    }
+
+    private static boolean permutations(Graphe g1, Graphe g2, List<Integer> sommets1, List<Integer> restants,
+                                        Map<Integer, Integer> bijection) {
+        if (restants.isEmpty()) {
+            for (int i : sommets1) {
+                for (int j : sommets1) {
+                    if (nbAretesEntre(g1, i, j) != nbAretesEntre(g2, bijection.get(i), bijection.get(j))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        int u = sommets1.get(bijection.size());
+        for (int v : new ArrayList<>(restants)) {
+            bijection.put(u, v);
+            restants.remove((Integer) v);
+            boolean trouve = permutations(g1, g2, sommets1, restants, bijection);
+            restants.add(v);
+            bijection.remove(u);
+            if (trouve) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void test_petersen_et_prisme_pentagonal() {
+        // deux graphes 3-réguliers à 10 sommets : seul le premier est isomorphe à Petersen
+        Graphe prisme = new Graphe(10);
+        for (int i = 0; i < 5; i++) {
+            prisme.ajouterArete(new Arete(i, (i + 1) % 5));
+            prisme.ajouterArete(new Arete(5 + i, 5 + (i + 1) % 5));
+            prisme.ajouterArete(new Arete(i, i + 5));
+        }
+        Graphe g = petersen();
+        Graphe renomme = renommer(g);
+        assertTrue(Graphe.sontIsomorphes(g, renomme));
+        verifierBijection(g, renomme, Isomorphisme.trouver(g.getGrapheCompact(), renomme.getGrapheCompact()));
+        assertFalse(Graphe.sontIsomorphes(g, prisme));
+        assertNull(Isomorphisme.trouver(g.getGrapheCompact(), prisme.getGrapheCompact()));
+    }
+
+    @Test
+    void test_aretes_paralleles_et_boucles_conservees() {
+        Graphe g1 = new Graphe(3);
+        g1.ajouterArete(new Arete(0, 1));
+        g1.ajouterArete(new Arete(0, 1, new RouteMaritime(new Ville("Athina", true), new Ville("Roma", true), Couleur.ROUGE, 1)));
+        g1.ajouterArete(new Arete(2, 2));
+        // même nombre d'arêtes et mêmes degrés, mais la boucle n'est pas sur le même sommet
+        Graphe g2 = new Graphe(3);
+        g2.ajouterArete(new Arete(0, 1));
+        g2.ajouterArete(new Arete(0, 1, new RouteMaritime(new Ville("Athina", true), new Ville("Roma", true), Couleur.ROUGE, 1)));
+        g2.ajouterArete(new Arete(1, 1));
+        assertTrue(Graphe.sontIsomorphes(g1, renommer(g1)));
+        assertFalse(Graphe.sontIsomorphes(g1, g2));
+    }
+
+    @Test
+    void test_graphes_reguliers_non_distingues_par_les_couleurs() {
+        // un cycle de longueur 6 et deux triangles : mêmes degrés, mêmes couleurs, mais pas isomorphes
+        Graphe cycle = new Graphe(6);
+        Graphe triangles = new Graphe(6);
+        for (int i = 0; i < 6; i++) {
+            cycle.ajouterArete(new Arete(i, (i + 1) % 6));
+            triangles.ajouterArete(new Arete(i, i / 3 * 3 + (i + 1) % 3));
+        }
+        assertFalse(Graphe.sontIsomorphes(cycle, triangles));
+        assertTrue(Graphe.sontIsomorphes(cycle, renommer(cycle)));
+        // l'empreinte les sépare grâce aux triangles
+        assertNotEquals(cycle.empreinte(), triangles.empreinte());
+        assertNotEquals(cycle.forme(), triangles.forme());
+        assertEquals(cycle.forme(), renommer(cycle).forme());
+    }
+
+    @Test
+    void test_formes_dedupliquent_les_graphes_isomorphes() {
+        Graphe chemin = new Graphe(3);
+        chemin.ajouterArete(new Arete(0, 1));
+        chemin.ajouterArete(new Arete(1, 2));
+        Graphe cheminDansLAutreSens = new Graphe(3);
+        cheminDansLAutreSens.ajouterArete(new Arete(2, 0));
+        cheminDansLAutreSens.ajouterArete(new Arete(0, 1));
+        Graphe triangle = new Graphe(3);
+        triangle.ajouterArete(new Arete(0, 1));
+        triangle.ajouterArete(new Arete(1, 2));
+        triangle.ajouterArete(new Arete(2, 0));
+        Graphe areteEtSommetIsole = new Graphe(3);
+        areteEtSommetIsole.ajouterArete(new Arete(1, 2));
+
+        Map<Forme, Integer> nbParForme = new HashMap<>();
+        for (Graphe g : List.of(chemin, triangle, cheminDansLAutreSens, renommer(triangle), areteEtSommetIsole,
+                petersen(), renommer(petersen()))) {
+            nbParForme.merge(new Forme(g.getGrapheCompact()), 1, Integer::sum);
+        }
+        assertEquals(4, nbParForme.size());
+        assertEquals(2, (int) nbParForme.get(chemin.forme()));
+        assertEquals(2, (int) nbParForme.get(triangle.forme()));
+        assertEquals(1, (int) nbParForme.get(areteEtSommetIsole.forme()));
+        assertEquals(2, (int) nbParForme.get(petersen().forme()));
+    }
+
+    @Test
+    void test_grand_graphe_renomme() {
+        // 400 sommets : une chaîne et des cordes v - v² mod 400
+        int n = 400;
+        Graphe g1 = new Graphe(n);
+        for (int v = 0; v < n; v++) {
+            if (v + 1 < n) {
+                g1.ajouterArete(new Arete(v, v + 1));
+            }
+            g1.ajouterArete(new Arete(v, v * v % n));
+        }
+        Graphe g2 = renommer(g1);
+        Map<Integer, Integer> bijection = Isomorphisme.trouver(g1.getGrapheCompact(), g2.getGrapheCompact());
+        assertNotNull(bijection);
+        for (Arete a : g1.ensembleAretes()) {
+            assertTrue(g2.sontAdjacents(bijection.get(a.i()), bijection.get(a.j())));
+        }
+        // on remplace l'arête 0-1 par une boucle : les graphes ne sont plus isomorphes
+        g2.supprimerArete(new Arete(bijection.get(0), bijection.get(1)));
+        g2.ajouterArete(new Arete(bijection.get(0), bijection.get(0)));
+        assertFalse(Graphe.sontIsomorphes(g1, g2));
+    }
+
+    @Test
+    void test_identique_a_la_force_brute_et_empreinte_invariante() {
+        Random random = new Random(11);
+        for (int essai = 0; essai < 300; essai++) {
+            int n = 1 + random.nextInt(6);
+            int m = random.nextInt(8);
+            Graphe g1 = grapheAleatoire(random, n, m);
+            Graphe g2 = grapheAleatoire(random, n, m);
+            boolean isomorphes = sontIsomorphesForceBrute(g1, g2);
+            assertEquals(isomorphes, Graphe.sontIsomorphes(g1, g2));
+            assertEquals(isomorphes, g1.forme().equals(g2.forme()));
+            if (g1.empreinte() != g2.empreinte()) {
+                assertFalse(isomorphes);
+            }
+            List<Integer> noms = new ArrayList<>(g1.ensembleSommets());
+            Collections.shuffle(noms, random);
+            Graphe renomme = renommer(g1, noms);
+            verifierBijection(g1, renomme, Isomorphisme.trouver(g1.getGrapheCompact(), renomme.getGrapheCompact()));
+            assertEquals(g1.empreinte(), renomme.empreinte());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static fr.umontpellier.iut.graphes.GraphesDeTest.chemins;
+import static org.junit.jupiter.api.Assertions.*;
+
+class KPlusCourtsCheminsTest {
+    /**
+     * @return les longueurs de tous les chemins élémentaires de depart à arrivee, par ordre croissant (énumération
+     * exhaustive, les arêtes parallèles donnant des chemins différents)
+     */
+    private static List<Integer> longueursParEnumeration(Graphe g, int depart, int arrivee, Ponderation ponderation) {
+        List<Integer> longueurs = new ArrayList<>();
+        for (List<Arete> chemin : chemins(g, depart, arrivee)) {
+            longueurs.add(chemin.stream().mapToInt(ponderation::poids).sum());
+        }
+        Collections.sort(longueurs);
+        return longueurs;
+    }
+
+    /**
+     * Vérifie que le chemin est élémentaire, relie depart à arrivee par des arêtes consécutives et a la longueur
+     * annoncée
+     */
+    private static void assertCheminValide(Chemin chemin, int depart, int arrivee, Ponderation ponderation) {
+        List<Integer> sommets = chemin.sommets();
+        assertEquals(depart, (int) sommets.get(0));
+        assertEquals(arrivee, (int) sommets.get(sommets.size() - 1));
+        assertEquals(sommets.size(), new HashSet<>(sommets).size());
+        assertEquals(sommets.size() - 1, chemin.aretes().size());
+        int longueur = 0;
+        for (int k = 0; k < chemin.aretes().size(); k++) {
+            Arete a = chemin.aretes().get(k);
+            assertEquals((int) sommets.get(k + 1), a.getAutreSommet(sommets.get(k)));
+            longueur += ponderation.poids(a);
+        }
+        assertEquals(chemin.longueur(), longueur);
+    }
+
+    @Test
+    void test_memes_longueurs_que_l_enumeration() {
+        Random random = new Random(17);
+        for (int essai = 0; essai < 200; essai++) {
+            int n = 2 + random.nextInt(8);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(2 * n + 1); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            Ponderation ponderation = a -> 1 + (a.i() * 5 + a.j() * 3) % 4;
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            int k = 1 + random.nextInt(8);
+            List<Integer> attendues = longueursParEnumeration(g, s, t, ponderation);
+            List<Chemin> chemins = g.kPlusCourtsChemins(s, t, k, ponderation);
+            assertEquals(attendues.subList(0, Math.min(k, attendues.size())),
+                    chemins.stream().map(Chemin::longueur).toList());
+            Set<List<Arete>> differents = new HashSet<>();
+            for (Chemin c : chemins) {
+                assertCheminValide(c, s, t, ponderation);
+                assertTrue(differents.add(c.aretes()));
+            }
+        }
+    }
+
+    @Test
+    void test_aretes_paralleles_et_sous_graphe() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Graphe g = new Graphe(4);
+        Arete a1 = new Arete(0, 1, new RouteMaritime(a, b, Couleur.ROUGE, 1));
+        Arete a2 = new Arete(0, 1, new RouteMaritime(a, b, Couleur.VERT, 1));
+        Arete a3 = new Arete(1, 2);
+        Arete a4 = new Arete(0, 2);
+        g.ajouterArete(a1);
+        g.ajouterArete(a2);
+        g.ajouterArete(a3);
+        g.ajouterArete(a4);
+        g.ajouterArete(new Arete(2, 2));
+        List<Chemin> chemins = g.kPlusCourtsChemins(0, 2, 10, Ponderation.SAUT);
+        assertEquals(List.of(1, 2, 2), chemins.stream().map(Chemin::longueur).toList());
+        assertEquals(List.of(a4), chemins.get(0).aretes());
+
+        SousGraphe vue = g.sousGrapheParAretes(arete -> arete != a4 && arete != a2);
+        chemins = vue.kPlusCourtsChemins(0, 2, 10, Ponderation.SAUT);
+        assertEquals(1, chemins.size());
+        assertEquals(List.of(a1, a3), chemins.get(0).aretes());
+        assertTrue(vue.kPlusCourtsChemins(0, 3, 10, Ponderation.SAUT).isEmpty());
+    }
+
+    @Test
+    void test_cas_particuliers() {
+        Graphe g = new Graphe(3);
+        g.ajouterArete(new Arete(0, 1));
+        assertEquals(List.of(List.of(1)),
+                g.kPlusCourtsChemins(1, 1, 3, Ponderation.SAUT).stream().map(Chemin::sommets).toList());
+        assertTrue(g.kPlusCourtsChemins(0, 2, 3, Ponderation.SAUT).isEmpty());
+        assertTrue(g.kPlusCourtsChemins(0, 7, 3, Ponderation.SAUT).isEmpty());
+        assertTrue(g.kPlusCourtsChemins(0, 1, 0, Ponderation.SAUT).isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReperesTest {
+    private static int longueur(Chemin chemin, Ponderation ponderation) {
+        return chemin.aretes().stream().mapToInt(ponderation::poids).sum();
+    }
+
+    /**
+     * Vérifie que le chemin relie bien depart à arrivee par des arêtes consécutives, et qu'il a la longueur annoncée
+     */
+    private static void assertCheminValide(Chemin chemin, int depart, int arrivee, Ponderation ponderation) {
+        assertEquals(depart, (int) chemin.sommets().get(0));
+        assertEquals(arrivee, (int) chemin.sommets().get(chemin.sommets().size() - 1));
+        assertEquals(chemin.sommets().size() - 1, chemin.aretes().size());
+        for (int k = 0; k < chemin.aretes().size(); k++) {
+            Arete a = chemin.aretes().get(k);
+            assertTrue(a.incidenteA(chemin.sommets().get(k)));
+            assertEquals((int) chemin.sommets().get(k + 1), a.getAutreSommet(chemin.sommets().get(k)));
+        }
+        assertEquals(chemin.longueur(), longueur(chemin, ponderation));
+    }
+
+    @Test
+    void test_cas_particuliers() {
+        Graphe g = new Graphe(4);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 1));
+        g.ajouterArete(new Arete(2, 3));
+        Reperes reperes = new Reperes(g.getGrapheCompact(), Ponderation.SAUT, 10);
+        // un repère par classe de connexité au moins, et jamais plus de repères que de sommets
+        assertEquals(4, reperes.nbReperes());
+        assertEquals(List.of(1), reperes.plusCourtChemin(1, 1).sommets());
+        assertEquals(List.of(1), reperes.plusCourtCheminBidirectionnel(1, 1).sommets());
+        assertEquals(List.of(1, 0), reperes.plusCourtCheminBidirectionnel(1, 0).sommets());
+        assertNull(reperes.plusCourtChemin(0, 3));
+        assertNull(reperes.plusCourtCheminBidirectionnel(0, 3));
+        assertNull(reperes.plusCourtChemin(0, 9));
+    }
+
+    @Test
+    void test_hexagone_dont_la_corde_a_ete_capturee() {
+        // hexagone 0..5 et corde 0-3 ; les repères sont calculés une fois sur le graphe complet, au saut
+        Graphe g = new Graphe(6);
+        for (int v = 0; v < 6; v++) {
+            g.ajouterArete(new Arete(v, (v + 1) % 6));
+        }
+        Arete corde = new Arete(0, 3);
+        g.ajouterArete(corde);
+        Reperes reperes = new Reperes(g.getGrapheCompact(), Ponderation.SAUT, 2);
+        assertEquals(1, reperes.plusCourtChemin(0, 3).longueur());
+
+        // la corde et l'arête 1-2 sont capturées, et chaque arête restante coûte 2
+        Set<Arete> capturees = Set.of(corde, new Arete(1, 2));
+        SousGraphe vue = g.sousGrapheParAretes(a -> !capturees.contains(a));
+        Ponderation plusCher = a -> 2;
+        Chemin chemin = vue.plusCourtChemin(0, 2, reperes, plusCher);
+        assertEquals(List.of(0, 5, 4, 3, 2), chemin.sommets());
+        assertEquals(8, chemin.longueur());
+        assertEquals(8, vue.plusCourtChemin(1, 3, reperes, plusCher).longueur());
+        assertEquals(2, vue.plusCourtChemin(3, 2, reperes, plusCher).longueur());
+    }
+
+    @Test
+    void test_memes_longueurs_que_dijkstra_sur_graphes_aleatoires() {
+        Random random = new Random(55);
+        Ponderation ponderation = a -> 1 + (a.i() * 7 + a.j() * 3) % 5;
+        // après capture d'environ la moitié des arêtes, les arêtes restantes coûtent plus cher
+        Ponderation plusCher = a -> ponderation.poids(a) + (a.i() + a.j()) % 3;
+        for (int essai = 0; essai < 100; essai++) {
+            int n = 2 + random.nextInt(40);
+            Graphe g = new Graphe(n);
+            for (int k = random.nextInt(3 * n); k > 0; k--) {
+                g.ajouterArete(new Arete(random.nextInt(n), random.nextInt(n)));
+            }
+            GrapheCompact compact = g.getGrapheCompact();
+            Reperes reperes = new Reperes(compact, ponderation, 1 + random.nextInt(4));
+            Set<Arete> restantes = new HashSet<>();
+            for (Arete a : g.ensembleAretes()) {
+                if (random.nextBoolean()) {
+                    restantes.add(a);
+                }
+            }
+            SousGraphe vue = g.sousGrapheParAretes(restantes::contains);
+            for (int k = 0; k < 10; k++) {
+                int s = random.nextInt(n);
+                int t = random.nextInt(n);
+                Chemin attendu = Dijkstra.plusCourtChemin(compact, s, t, ponderation);
+                Chemin simple = reperes.plusCourtChemin(s, t);
+                Chemin bidirectionnel = reperes.plusCourtCheminBidirectionnel(s, t);
+                if (attendu == null) {
+                    assertNull(simple);
+                    assertNull(bidirectionnel);
+                } else {
+                    assertCheminValide(simple, s, t, ponderation);
+                    assertCheminValide(bidirectionnel, s, t, ponderation);
+                    assertEquals(attendu.longueur(), simple.longueur());
+                    assertEquals(attendu.longueur(), bidirectionnel.longueur());
+                }
+
+                Chemin attenduDansLaVue = vue.plusCourtChemin(s, t, plusCher);
+                Chemin obtenu = vue.plusCourtChemin(s, t, reperes, plusCher);
+                if (attenduDansLaVue == null) {
+                    assertNull(obtenu);
+                } else {
+                    assertCheminValide(obtenu, s, t, plusCher);
+                    assertTrue(restantes.containsAll(obtenu.aretes()));
+                    assertEquals(attenduDansLaVue.longueur(), obtenu.longueur());
+                }
+            }
+        }
+    }
+}
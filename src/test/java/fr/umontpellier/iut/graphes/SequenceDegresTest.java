@@ -0,0 +1,102 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceDegresTest {
+    /**
+     * Test de référence : Havel–Hakimi naïf (trier, retirer le plus grand d, décrémenter les d suivants)
+     */
+    private static boolean havelHakimiNaif(int[] degres) {
+        List<Integer> suite = new ArrayList<>();
+        for (int d : degres) {
+            suite.add(d);
+        }
+        while (true) {
+            suite.sort(Comparator.reverseOrder());
+            if (suite.isEmpty() || suite.get(0) == 0) {
+                return suite.isEmpty() || suite.get(suite.size() - 1) >= 0;
+            }
+            int d = suite.remove(0);
+            if (d > suite.size()) {
+                return false;
+            }
+            for (int i = 0; i < d; i++) {
+                suite.set(i, suite.get(i) - 1);
+                if (suite.get(i) < 0) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private static void verifierRealisation(int[] degres) {
+        Graphe g = SequenceDegres.realiser(degres);
+        assertNotNull(g);
+        assertEquals(degres.length, g.nbSommets());
+        for (int i = 0; i < degres.length; i++) {
+            assertEquals(degres[i], g.degre(i));
+            assertEquals(degres[i], g.getMapAretes().get(i).size());
+            assertFalse(g.sontAdjacents(i, i));
+        }
+    }
+
+    @Test
+    void test_exemples() {
+        assertTrue(Graphe.sequenceEstGraphe(List.of()));
+        assertTrue(Graphe.sequenceEstGraphe(List.of(0, 0, 0)));
+        assertTrue(Graphe.sequenceEstGraphe(List.of(2, 2, 2)));
+        assertTrue(Graphe.sequenceEstGraphe(List.of(3, 3, 2, 2, 2)));
+        assertFalse(Graphe.sequenceEstGraphe(List.of(1, 1, 1)));
+        assertFalse(Graphe.sequenceEstGraphe(List.of(3, 3, 1, 1)));
+        assertFalse(Graphe.sequenceEstGraphe(List.of(0, 1, 2, 3)));
+        assertFalse(Graphe.sequenceEstGraphe(List.of(0, 1, 2, 3, 5)));
+        assertFalse(Graphe.sequenceEstGraphe(List.of(-1, 1)));
+    }
+
+    @Test
+    void test_realisation_du_triangle_et_de_la_maison() {
+        verifierRealisation(new int[]{2, 2, 2});
+        // la « maison » : un carré surmonté d'un toit
+        verifierRealisation(new int[]{3, 3, 2, 2, 2});
+        verifierRealisation(new int[]{0, 0});
+        assertNull(SequenceDegres.realiser(new int[]{1, 1, 1}));
+        assertNull(SequenceDegres.realiser(new int[]{3, 3, 1, 1}));
+    }
+
+    @Test
+    void test_par_lot() {
+        boolean[] resultats = SequenceDegres.estGraphiqueParLot(List.of(
+                new int[]{2, 2, 2}, new int[]{1, 1, 1}, new int[]{}, new int[]{3, 3, 2, 2, 2}, new int[]{3, 3, 1, 1}));
+        assertArrayEquals(new boolean[]{true, false, true, true, false}, resultats);
+    }
+
+    @Test
+    void test_identique_a_havel_hakimi_naif() {
+        Random random = new Random(5);
+        List<int[]> sequences = new ArrayList<>();
+        for (int essai = 0; essai < 2000; essai++) {
+            int n = random.nextInt(9);
+            int[] degres = new int[n];
+            for (int i = 0; i < n; i++) {
+                degres[i] = random.nextInt(n + 1);
+            }
+            boolean attendu = havelHakimiNaif(degres);
+            assertEquals(attendu, SequenceDegres.estGraphique(degres));
+            assertEquals(attendu, SequenceDegres.estGraphiqueTriDenombrement(degres));
+            if (attendu) {
+                verifierRealisation(degres);
+            } else {
+                assertNull(SequenceDegres.realiser(degres));
+            }
+            sequences.add(degres);
+        }
+        boolean[] resultats = SequenceDegres.estGraphiqueParLot(sequences);
+        for (int k = 0; k < sequences.size(); k++) {
+            assertEquals(SequenceDegres.estGraphique(sequences.get(k)), resultats[k]);
+        }
+    }
+}
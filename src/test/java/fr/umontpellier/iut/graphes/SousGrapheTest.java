@@ -0,0 +1,108 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.rails.Route;
+import fr.umontpellier.iut.rails.RouteMaritime;
+import fr.umontpellier.iut.rails.data.Couleur;
+import fr.umontpellier.iut.rails.data.Ville;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SousGrapheTest {
+    private Graphe grapheAbstrait;
+
+    @BeforeEach
+    void setUp() {
+        grapheAbstrait = new Graphe(6);
+        List<Arete> listeAretes = Arrays.asList(new Arete(0, 1),
+                new Arete(0, 4),
+                new Arete(1, 2),
+                new Arete(1, 4),
+                new Arete(2, 4),
+                new Arete(2, 5),
+                new Arete(3, 4),
+                new Arete(5, 1),
+                new Arete(5, 3));
+        listeAretes.forEach(a -> grapheAbstrait.ajouterArete(a));
+    }
+
+    @Test
+    void test_induit_identique_au_constructeur_par_copie() {
+        Random random = new Random(17);
+        for (int essai = 0; essai < 50; essai++) {
+            Set<Integer> X = new HashSet<>();
+            for (int v = 0; v < 6; v++) {
+                if (random.nextBoolean()) {
+                    X.add(v);
+                }
+            }
+            Graphe copie = new Graphe(grapheAbstrait, X);
+            SousGraphe vue = grapheAbstrait.sousGrapheInduit(X);
+            assertEquals(copie.nbSommets(), vue.nbSommets());
+            assertEquals(copie.nbAretes(), vue.nbAretes());
+            assertEquals(copie.ensembleSommets(), vue.ensembleSommets());
+            assertEquals(copie.ensembleAretes(), vue.ensembleAretes());
+            for (int v : X) {
+                assertEquals(copie.getVoisins(v), vue.getVoisins(v));
+                assertEquals(copie.getClasseConnexite(v), vue.getClasseConnexite(v));
+            }
+            assertEquals(copie.estConnexe(), vue.estConnexe());
+            assertEquals(copie, vue.toGraphe());
+        }
+    }
+
+    @Test
+    void test_filtre_par_aretes_garde_tous_les_sommets() {
+        SousGraphe vue = grapheAbstrait.sousGrapheParAretes(a -> !a.incidenteA(4));
+        assertEquals(6, vue.nbSommets());
+        assertEquals(5, vue.nbAretes());
+        assertTrue(vue.getVoisins(4).isEmpty());
+        assertFalse(vue.estConnexe());
+        assertTrue(vue.sontConnectes(0, 3));
+        assertEquals(List.of(0, 1, 5, 3), vue.plusCourtChemin(0, 3, Ponderation.SAUT).sommets());
+        assertNull(vue.plusCourtChemin(0, 4, Ponderation.SAUT));
+        assertEquals(2, grapheAbstrait.plusCourtChemin(0, 3, Ponderation.SAUT).longueur());
+    }
+
+    @Test
+    void test_filtre_par_routes_et_union() {
+        Ville a = new Ville("A", true);
+        Ville b = new Ville("B", true);
+        Route r1 = new RouteMaritime(a, b, Couleur.ROUGE, 1);
+        Route r2 = new RouteMaritime(a, b, Couleur.VERT, 1);
+        Route r3 = new RouteMaritime(a, b, Couleur.JAUNE, 1);
+        Graphe g = new Graphe();
+        g.ajouterArete(new Arete(0, 1, r1));
+        g.ajouterArete(new Arete(1, 2, r2));
+        g.ajouterArete(new Arete(2, 3, r3));
+        SousGraphe mesRoutes = SousGraphe.parRoutes(g.getGrapheCompact(), List.of(r1));
+        SousGraphe routesLibres = SousGraphe.parRoutes(g.getGrapheCompact(), Set.of(r2));
+        SousGraphe utilisables = mesRoutes.union(routesLibres);
+        assertEquals(1, mesRoutes.nbAretes());
+        assertEquals(2, utilisables.nbAretes());
+        assertTrue(utilisables.sontConnectes(0, 2));
+        assertFalse(utilisables.sontConnectes(0, 3));
+        assertEquals(List.of(r1, r2), utilisables.plusCourtChemin(0, 2, Ponderation.LONGUEUR).routes());
+        assertEquals(2, utilisables.arbreSteiner(List.of(0, 1, 2), Ponderation.LONGUEUR).size());
+        assertNull(utilisables.arbreSteiner(List.of(0, 1, 3), Ponderation.LONGUEUR));
+    }
+
+    @Test
+    void test_copie_a_l_ecriture() {
+        SousGraphe vue = grapheAbstrait.sousGrapheInduit(Set.of(0, 1, 2));
+        assertFalse(vue.estCopiee());
+        vue.ajouterArete(new Arete(2, 0));
+        vue.supprimerArete(new Arete(0, 1));
+        assertTrue(vue.estCopiee());
+        assertEquals(2, vue.nbAretes());
+        assertTrue(vue.existeArete(new Arete(0, 2)));
+        assertFalse(vue.existeArete(new Arete(0, 1)));
+        // le graphe d'origine n'a pas changé
+        assertEquals(9, grapheAbstrait.nbAretes());
+        assertTrue(grapheAbstrait.existeArete(new Arete(0, 1)));
+        assertFalse(grapheAbstrait.existeArete(new Arete(0, 2)));
+    }
+}
@@ -0,0 +1,158 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableDistancesTest {
+    private Graphe carre;
+
+    @BeforeEach
+    void setUp() {
+        // carré 0-1-2-3 avec la diagonale 0-2, et un sommet isolé 4
+        carre = new Graphe(5);
+        carre.ajouterArete(new Arete(0, 1));
+        carre.ajouterArete(new Arete(1, 2));
+        carre.ajouterArete(new Arete(2, 3));
+        carre.ajouterArete(new Arete(3, 0));
+        carre.ajouterArete(new Arete(0, 2));
+    }
+
+    private static void verifierContreDijkstra(Graphe g, TableDistances table, Ponderation ponderation) {
+        GrapheCompact compact = g.getGrapheCompact();
+        for (int s : g.ensembleSommets()) {
+            int[] attendues = Dijkstra.distances(compact, s, ponderation);
+            for (int t : g.ensembleSommets()) {
+                assertEquals(attendues[compact.indice(t)], table.distance(s, t));
+                Chemin chemin = table.chemin(s, t);
+                if (attendues[compact.indice(t)] == Dijkstra.INFINI) {
+                    assertNull(chemin);
+                } else {
+                    assertEquals(s, (int) chemin.sommets().get(0));
+                    assertEquals(t, (int) chemin.sommets().get(chemin.sommets().size() - 1));
+                    assertEquals(table.distance(s, t), chemin.aretes().stream().mapToInt(ponderation::poids).sum());
+                    for (Arete a : chemin.aretes()) {
+                        assertTrue(g.ensembleAretes().contains(a));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void test_distances_et_chemins_sur_le_carre() {
+        TableDistances table = new TableDistances(carre.getGrapheCompact(), Ponderation.SAUT);
+        assertEquals(0, table.distance(1, 1));
+        assertEquals(1, table.distance(0, 2));
+        assertEquals(2, table.distance(1, 3));
+        assertEquals(Dijkstra.INFINI, table.distance(0, 4));
+        assertEquals(List.of(0, 2), table.chemin(0, 2).sommets());
+        assertNull(table.chemin(4, 0));
+    }
+
+    @Test
+    void test_sans_la_diagonale() {
+        TableDistances table = new TableDistances(carre.getGrapheCompact(), Ponderation.SAUT);
+        TableDistances sansDiagonale = table.sansAretes(List.of(new Arete(2, 0)));
+        assertEquals(2, sansDiagonale.distance(0, 2));
+        assertEquals(1, sansDiagonale.distance(0, 1));
+        // la table d'origine n'est pas modifiée
+        assertEquals(1, table.distance(0, 2));
+    }
+
+    @Test
+    void test_sans_aretes_ne_modifie_pas_la_table_d_origine() {
+        Graphe g = new Graphe(3);
+        g.ajouterArete(new Arete(0, 1));
+        g.ajouterArete(new Arete(1, 2));
+        TableDistances table = new TableDistances(g.getGrapheCompact(), Ponderation.SAUT);
+        TableDistances reduite = table.sansAretes(List.of(new Arete(2, 1)));
+        assertEquals(2, table.distance(0, 2));
+        assertEquals(Dijkstra.INFINI, reduite.distance(0, 2));
+        assertEquals(1, reduite.distance(1, 0));
+        assertSame(table, table.sansAretes(List.of(new Arete(0, 2))));
+    }
+
+    @Test
+    void test_table_partagee_entre_graphes_de_meme_forme() {
+        Graphe g1 = new Graphe();
+        Graphe g2 = new Graphe();
+        // même forme, identifiants décalés et arêtes ajoutées dans un autre ordre
+        int[][] aretes = {{0, 1}, {1, 2}, {2, 3}, {0, 3}, {3, 4}};
+        for (int[] a : aretes) {
+            g1.ajouterArete(new Arete(a[0] + 100, a[1] + 100));
+        }
+        for (int k = aretes.length - 1; k >= 0; k--) {
+            g2.ajouterArete(new Arete(aretes[k][1] + 200, aretes[k][0] + 200));
+        }
+        TableDistances t1 = TableDistances.partagee(g1.getGrapheCompact(), Ponderation.SAUT);
+        TableDistances t2 = TableDistances.partagee(g2.getGrapheCompact(), Ponderation.SAUT);
+        assertEquals(2, t1.distance(100, 102));
+        assertEquals(2, t2.distance(200, 202));
+        assertEquals(List.of(204, 203, 200), t2.chemin(204, 200).sommets());
+        verifierContreDijkstra(g2, t2, Ponderation.SAUT);
+    }
+
+    @Test
+    void test_poids_trop_grands_pour_la_signature_pas_de_collision() {
+        // avec 21 bits par champ, l'arête 0-1 de poids 2^21 et l'arête 0-2 de poids 0 se confondraient
+        Graphe g1 = new Graphe(3);
+        g1.ajouterArete(new Arete(0, 2));
+        Graphe g2 = new Graphe(3);
+        g2.ajouterArete(new Arete(0, 1));
+        TableDistances t1 = TableDistances.partagee(g1.getGrapheCompact(), a -> 0);
+        TableDistances t2 = TableDistances.partagee(g2.getGrapheCompact(), a -> 1 << 21);
+        assertEquals(0, t1.distance(0, 2));
+        assertEquals(1 << 21, t2.distance(0, 1));
+        assertEquals(Dijkstra.INFINI, t2.distance(0, 2));
+    }
+
+    @Test
+    void test_nombre_de_tables_partagees_borne() {
+        for (int n = 2; n < 2 + 3 * TableDistances.NB_PARTAGEES_MAX; n++) {
+            Graphe chemin = new Graphe(n);
+            for (int v = 1; v < n; v++) {
+                chemin.ajouterArete(new Arete(v - 1, v));
+            }
+            assertEquals(n - 1, TableDistances.partagee(chemin.getGrapheCompact(), Ponderation.SAUT)
+                    .distance(0, n - 1));
+            assertTrue(TableDistances.nbPartagees() <= TableDistances.NB_PARTAGEES_MAX);
+        }
+    }
+
+    @Test
+    void test_trop_de_sommets_refuse() {
+        GrapheCompact g = new Graphe(TableDistances.NB_SOMMETS_MAX + 1).getGrapheCompact();
+        assertThrows(IllegalArgumentException.class, () -> new TableDistances(g, Ponderation.SAUT));
+        assertThrows(IllegalArgumentException.class, () -> TableDistances.partagee(g, Ponderation.SAUT));
+    }
+
+    @Test
+    void test_identique_a_dijkstra_sur_graphes_aleatoires() {
+        Random random = new Random(7);
+        Ponderation ponderation = a -> 1 + (a.i() * 7 + a.j() * 7) % 5;
+        for (int essai = 0; essai < 20; essai++) {
+            // identifiants décalés de 3 pour ne pas confondre identifiants et indices
+            int n = 2 + random.nextInt(25);
+            Graphe g = new Graphe();
+            for (int v = 0; v < n; v++) {
+                g.ajouterSommet(v + 3);
+            }
+            for (int k = 0; k < 40; k++) {
+                g.ajouterArete(new Arete(random.nextInt(n) + 3, random.nextInt(n) + 3));
+            }
+            TableDistances table = new TableDistances(g.getGrapheCompact(), ponderation);
+            verifierContreDijkstra(g, table, ponderation);
+
+            List<Arete> aretes = new ArrayList<>(g.ensembleAretes());
+            Collections.shuffle(aretes, random);
+            List<Arete> retirees = aretes.subList(0, Math.min(5, aretes.size()));
+            TableDistances reduite = table.sansAretes(retirees);
+            retirees.forEach(g::supprimerArete);
+            verifierContreDijkstra(g, reduite, ponderation);
+        }
+    }
+}
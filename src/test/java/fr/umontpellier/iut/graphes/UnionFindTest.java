@@ -0,0 +1,50 @@
+package fr.umontpellier.iut.graphes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnionFindTest {
+    private UnionFind unionFind;
+
+    @BeforeEach
+    void setUp() {
+        unionFind = new UnionFind();
+        for (int v = 0; v < 6; v++) {
+            unionFind.ajouter(v);
+        }
+    }
+
+    @Test
+    void test_classes_initiales() {
+        assertEquals(6, unionFind.nbClasses());
+        assertEquals(6, unionFind.nbElements());
+        assertEquals(Set.of(3), unionFind.classe(3));
+        assertFalse(unionFind.sontConnectes(0, 1));
+    }
+
+    @Test
+    void test_unir() {
+        assertTrue(unionFind.unir(0, 1));
+        assertTrue(unionFind.unir(2, 1));
+        assertFalse(unionFind.unir(0, 2));
+        assertEquals(4, unionFind.nbClasses());
+        assertTrue(unionFind.sontConnectes(0, 2));
+        assertEquals(Set.of(0, 1, 2), unionFind.classe(2));
+        assertEquals(3, unionFind.taille(0));
+        assertEquals(Set.of(Set.of(0, 1, 2), Set.of(3), Set.of(4), Set.of(5)), unionFind.classes());
+    }
+
+    @Test
+    void test_elements_absents() {
+        assertFalse(unionFind.contient(42));
+        assertFalse(unionFind.sontConnectes(0, 42));
+        assertTrue(unionFind.classe(42).isEmpty());
+        unionFind.unir(42, 5);
+        assertTrue(unionFind.sontConnectes(5, 42));
+        assertEquals(6, unionFind.nbClasses());
+    }
+}
@@ -0,0 +1,165 @@
+package fr.umontpellier.iut.rails;
+
+import fr.umontpellier.iut.graphes.DistancesDecrementales;
+import fr.umontpellier.iut.rails.data.Destination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JoueurGraphesTest extends BaseTestClass {
+    @BeforeEach
+    void setUp() {
+        setUpJeu(4);
+        initialisation();
+        routesJoueur1.clear();
+        destinationsJoueur1.clear();
+    }
+
+    @Test
+    void testConnexionsRecalculeesQuandUneRouteEstRetiree() {
+        Destination d1 = getDestination("D19"); // Hong Kong - Jakarta (5)
+        destinationsJoueur1.add(d1);
+        routesJoueur1.add(getRoute("R15")); // Hong Kong - Bangkok
+        assertFalse(joueur1.destinationEstComplete(d1));
+        routesJoueur1.add(getRoute("R16")); // Bangkok - Jakarta
+        assertTrue(joueur1.destinationEstComplete(d1));
+
+        routesJoueur1.remove(0);
+        assertFalse(joueur1.destinationEstComplete(d1));
+        routesJoueur1.add(getRoute("R14")); // Hong Kong - Bangkok
+        assertTrue(joueur1.destinationEstComplete(d1));
+    }
+
+    @Test
+    void testDestinationIrrealisableQuandLesAdversairesIsolentUneVille() {
+        Destination d1 = getDestination("D19"); // Hong Kong - Jakarta (5)
+        destinationsJoueur1.add(d1);
+        assertFalse(joueur1.routesPourCompleterDestination(d1).isEmpty());
+
+        // le joueur 2 capture toutes les routes de Hong Kong
+        for (Route r : new ArrayList<>(routes)) {
+            if (r.getVille1().nom().equals("Hong Kong") || r.getVille2().nom().equals("Hong Kong")) {
+                routes.remove(r);
+                routesJoueur2.add(r);
+            }
+        }
+        assertTrue(joueur1.routesPourCompleterDestination(d1).isEmpty());
+        assertTrue(joueur1.alternativesPourDestination(d1, 3).isEmpty());
+        assertTrue(joueur1.routesCritiquesPourDestinations().isEmpty());
+    }
+
+    @Test
+    void testRoutesPourRelierDestinationsCompleteToutesLesDestinations() {
+        Destination d1 = getDestination("D19"); // Hong Kong - Jakarta (5)
+        Destination d2 = getDestination("D17"); // Jakarta - Sydney (7)
+        destinationsJoueur1.add(d1);
+        destinationsJoueur1.add(d2);
+        Route bangkok = getRoute("R15"); // Hong Kong - Bangkok
+        routesJoueur1.add(bangkok);
+        routes.remove(bangkok);
+
+        // seules des routes libres sont proposées, et jamais celles que le joueur possède déjà
+        Collection<Route> aCapturer = joueur1.routesPourRelierDestinations();
+        assertFalse(aCapturer.isEmpty());
+        assertFalse(aCapturer.contains(bangkok));
+        assertTrue(routes.containsAll(aCapturer));
+
+        routesJoueur1.addAll(aCapturer);
+        routes.removeAll(aCapturer);
+        assertTrue(joueur1.destinationEstComplete(d1));
+        assertTrue(joueur1.destinationEstComplete(d2));
+        assertTrue(joueur1.routesPourRelierDestinations().isEmpty());
+    }
+
+    @Test
+    void testRoutesCritiquesQuandIlNeRestePlusQuUneRoute() {
+        Destination d1 = getDestination("D19"); // Hong Kong - Jakarta (5)
+        destinationsJoueur1.add(d1);
+        Route tokyo = getRoute("R78"); // Hong Kong - Tokyo
+
+        Map<Joueur, Map<Destination, List<Route>>> routesCritiques = jeu.getRoutesCritiques();
+        assertEquals(joueurs, new ArrayList<>(routesCritiques.keySet()));
+        // Hong Kong a encore plusieurs routes libres : aucune n'est critique à elle seule
+        assertTrue(routesCritiques.get(joueur1).get(d1).size() > 1);
+
+        // le joueur 2 capture toutes les routes de Hong Kong sauf Hong Kong - Tokyo
+        for (Route r : new ArrayList<>(routes)) {
+            if (r != tokyo && (r.getVille1().nom().equals("Hong Kong") || r.getVille2().nom().equals("Hong Kong"))) {
+                routes.remove(r);
+                routesJoueur2.add(r);
+            }
+        }
+        assertEquals(List.of(tokyo), jeu.getRoutesCritiques().get(joueur1).get(d1));
+    }
+
+    @Test
+    void testLongueurTrajetSuitLesCapturesDesAdversaires() {
+        Destination d1 = getDestination("D19"); // Hong Kong - Jakarta (5)
+        destinationsJoueur1.add(d1);
+        // Hong Kong - Bangkok (1) puis Bangkok - Jakarta (2)
+        assertEquals(3, joueur1.longueurTrajetPourDestination(d1));
+
+        // les routes du joueur comptent pour leur nombre de pions
+        Route jakarta = getRoute("R16"); // Bangkok - Jakarta
+        routes.remove(jakarta);
+        routesJoueur1.add(jakarta);
+        assertEquals(3, joueur1.longueurTrajetPourDestination(d1));
+
+        // le joueur 2 capture les routes Hong Kong - Bangkok et Hong Kong - Manila : il faut faire un détour
+        for (String nom : List.of("R14", "R15", "R77")) {
+            Route r = getRoute(nom);
+            routes.remove(r);
+            routesJoueur2.add(r);
+        }
+        assertTrue(joueur1.longueurTrajetPourDestination(d1) > 3);
+        // le trajet cherché par A* avec les repères du plateau a la longueur lue dans la table
+        List<Route> trajet = joueur1.trajetPourDestination(d1);
+        assertEquals(joueur1.longueurTrajetPourDestination(d1),
+                trajet.stream().mapToInt(r -> r.getNbPionsWagon() + r.getNbPionsBateau()).sum());
+        for (Route r : trajet) {
+            assertTrue(routes.contains(r) || routesJoueur1.contains(r));
+        }
+        // la table du plateau, partagée, n'est pas modifiée
+        assertEquals(3, jeu.getPlateau().getTableDistances().distance(
+                jeu.getPlateau().getVille("Hong Kong").getId(), jeu.getPlateau().getVille("Jakarta").getId()));
+
+        // puis toutes les routes de Hong Kong
+        for (Route r : new ArrayList<>(routes)) {
+            if (r.getVille1().nom().equals("Hong Kong") || r.getVille2().nom().equals("Hong Kong")) {
+                routes.remove(r);
+                routesJoueur2.add(r);
+            }
+        }
+        assertEquals(-1, joueur1.longueurTrajetPourDestination(d1));
+        assertTrue(joueur1.trajetPourDestination(d1).isEmpty());
+    }
+
+    @Test
+    void testRoutesPourCompleterDestinationSuitLesCapturesDesAdversaires() {
+        Destination d1 = getDestination("D19"); // Hong Kong - Jakarta (5)
+        destinationsJoueur1.add(d1);
+        Collection<Route> solution = joueur1.routesPourCompleterDestination(d1);
+        assertEquals(3, solution.stream().mapToInt(r -> r.getNbPionsWagon() + r.getNbPionsBateau()).sum());
+        assertEquals(solution, joueur1.alternativesPourDestination(d1, 3).get(0));
+
+        // le joueur 2 capture les routes Hong Kong - Bangkok et Hong Kong - Manila
+        List<Route> capturees = List.of(getRoute("R14"), getRoute("R15"), getRoute("R77"));
+        for (Route r : capturees) {
+            routes.remove(r);
+            routesJoueur2.add(r);
+        }
+        // les routes capturées sont retirées de la structure existante, qui n'est pas reconstruite
+        DistancesDecrementales distances = joueur1.getDistances();
+        solution = joueur1.routesPourCompleterDestination(d1);
+        assertSame(distances, joueur1.getDistances());
+        assertTrue(routes.containsAll(solution));
+        assertEquals(joueur1.longueurTrajetPourDestination(d1),
+                solution.stream().mapToInt(r -> r.getNbPionsWagon() + r.getNbPionsBateau()).sum());
+        for (Collection<Route> alternative : joueur1.alternativesPourDestination(d1, 3)) {
+            assertTrue(Collections.disjoint(capturees, alternative));
+        }
+    }
+}